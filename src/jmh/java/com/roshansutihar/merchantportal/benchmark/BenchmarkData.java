@@ -0,0 +1,40 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic synthetic transactions shaped like payments-core rows
+final class BenchmarkData {
+
+    private static final String[] STATUSES = {"ACKNOWLEDGED", "SETTLED", "PENDING", "FAILED"};
+    private static final String[] CURRENCIES = {"USD", "USD", "USD", "CAD"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Transaction> transactions(int rows) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            double amount = (100 + random.nextInt(50_000)) / 100.0;
+            double commission = Math.round(amount * 3) / 100.0;
+            Transaction tx = new Transaction();
+            tx.setSessionId("sess-" + i);
+            tx.setTransactionRef("TX" + String.format("%09d", i));
+            tx.setAmount(amount);
+            tx.setCommissionAmount(commission);
+            tx.setNetAmount(Math.round((amount - commission) * 100) / 100.0);
+            tx.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            tx.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            tx.setCreatedAt(start.plusSeconds(i * 30L));
+            tx.setCompletedAt(start.plusSeconds(i * 30L + 5));
+            transactions.add(tx);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,154 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.service.ApiService;
+import com.roshansutihar.merchantportal.service.PaymentsCoreGuard;
+import com.roshansutihar.merchantportal.service.ValidatedResponseCache;
+import com.roshansutihar.merchantportal.support.PaymentsCoreStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// `users` concurrent dashboard loads on the blocking client: a 200-thread pool standing in for Tomcat's default
+// versus a virtual thread per load, as with spring.threads.virtual.enabled. Each load makes the dashboard's two
+// payments-core calls, today's streamed transactions and the month summary, against a stand-in that takes
+// `latencyMs` per call. Score is batches of `users` loads per second.
+//
+// Client-level only: no Tomcat, security filter chain, controllers or template rendering are involved, so this
+// isolates what the thread model does to the outbound calls and says nothing about end-to-end throughput. The
+// HTTP-level comparison is the loadtest profile run twice at the same load, e.g.
+// mvn -Ploadtest test-compile exec:exec -Dloadtest.concurrency=1000 -Dloadtest.virtual-threads=false (then true).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class DashboardConcurrencyBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int ROWS_PER_MERCHANT = 50;
+    private static final int TODAY_MAX_ROWS = 1000;
+
+    @Param({"1000", "2000"})
+    private int users;
+
+    @Param({"50"})
+    private int latencyMs;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("America/Chicago"));
+    private PaymentsCoreStandIn paymentsCore;
+    private CloseableHttpClient httpClient;
+    private ApiService apiService;
+    private ExecutorService platformThreads;
+    private ExecutorService virtualThreads;
+
+    @Setup
+    public void setUp() throws Exception {
+        paymentsCore = PaymentsCoreStandIn.start();
+        paymentsCore.setLatency(Duration.ofMillis(latencyMs));
+        LocalDateTime dayStartUtc = ApiService.utcRangeStart(today).toLocalDateTime();
+        List<Transaction> rows = BenchmarkData.transactions(ROWS_PER_MERCHANT);
+        rows.forEach(tx -> tx.setCreatedAt(dayStartUtc.plusMinutes(1)));
+        for (int i = 0; i < users; i++) {
+            paymentsCore.addTransactions(merchantId(i), rows);
+        }
+
+        // Sized to the users so the connection pool isn't what's being measured
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(users)
+                        .setMaxConnPerRoute(users)
+                        .build())
+                .build();
+        apiService = new ApiService(new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)),
+                JsonMapper.builder()
+                        .addModule(new JavaTimeModule())
+                        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                        .build(),
+                new PaymentsCoreGuard(new SimpleMeterRegistry(), 1_000, Duration.ofSeconds(1), 1_000_000,
+                        Duration.ofMinutes(5)),
+                new ValidatedResponseCache(1_000_000, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(apiService, "baseUrl", paymentsCore.baseUrl());
+
+        platformThreads = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        platformThreads.shutdownNow();
+        virtualThreads.shutdownNow();
+        httpClient.close();
+        paymentsCore.close();
+    }
+
+    @Benchmark
+    public long platformThreadPool(PeakThreads threads) {
+        long loaded = loadAll(platformThreads);
+        threads.sample();
+        return loaded;
+    }
+
+    @Benchmark
+    public long virtualThreadPerRequest(PeakThreads threads) {
+        long loaded = loadAll(virtualThreads);
+        threads.sample();
+        return loaded;
+    }
+
+    private long loadAll(ExecutorService requestThreads) {
+        List<CompletableFuture<Long>> loads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String merchantId = merchantId(i);
+            loads.add(CompletableFuture.supplyAsync(() -> loadDashboard(merchantId), requestThreads));
+        }
+        long transactions = 0;
+        for (CompletableFuture<Long> load : loads) {
+            transactions += load.join();
+        }
+        return transactions;
+    }
+
+    private long loadDashboard(String merchantId) {
+        TransactionTotals totals = new TransactionTotals();
+        apiService.streamTransactionsByDateRange(merchantId, today, today, null, TODAY_MAX_ROWS, totals);
+        apiService.getSummary(merchantId, today.withDayOfMonth(1), today);
+        return totals.getCount();
+    }
+
+    private static String merchantId(int i) {
+        return "MCH-" + i;
+    }
+}
@@ -0,0 +1,158 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import com.roshansutihar.merchantportal.service.ApiService;
+import com.roshansutihar.merchantportal.service.PaymentsCoreGuard;
+import com.roshansutihar.merchantportal.service.ReactiveApiService;
+import com.roshansutihar.merchantportal.service.ValidatedResponseCache;
+import com.roshansutihar.merchantportal.support.PaymentsCoreStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Blocking RestTemplate client versus the WebClient one against a stand-in core that takes `latencyMs` per call.
+// Each operation is `concurrency` range reads for distinct merchants in flight at once: the blocking side needs
+// a thread per call (a Tomcat-sized pool of 200), the reactive side a handful of event-loop threads.
+// Score is batches per second (multiply by concurrency for calls); peakThreads is the JVM's peak live thread count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PaymentsCoreClientBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+    private static final int ROWS_PER_MERCHANT = 50;
+
+    @Param({"50", "500"})
+    private int concurrency;
+
+    @Param({"50"})
+    private int latencyMs;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("America/Chicago"));
+    private PaymentsCoreStandIn paymentsCore;
+    private ExecutorService requestThreads;
+    private CloseableHttpClient httpClient;
+    private ConnectionProvider connectionProvider;
+    private ApiService blocking;
+    private ReactiveApiService reactive;
+
+    @Setup
+    public void setUp() throws Exception {
+        paymentsCore = PaymentsCoreStandIn.start();
+        paymentsCore.setLatency(Duration.ofMillis(latencyMs));
+        LocalDateTime dayStartUtc = ApiService.utcRangeStart(today).toLocalDateTime();
+        List<Transaction> rows = BenchmarkData.transactions(ROWS_PER_MERCHANT);
+        rows.forEach(tx -> tx.setCreatedAt(dayStartUtc.plusMinutes(1)));
+        for (int i = 0; i < concurrency; i++) {
+            paymentsCore.addTransactions(merchantId(i), rows);
+        }
+
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(concurrency)
+                        .setMaxConnPerRoute(concurrency)
+                        .build())
+                .build();
+        blocking = new ApiService(new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)),
+                objectMapper, guard(), new ValidatedResponseCache(1_000_000, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(blocking, "baseUrl", paymentsCore.baseUrl());
+
+        connectionProvider = ConnectionProvider.builder("benchmark").maxConnections(concurrency).build();
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+        reactive = new ReactiveApiService(webClient, objectMapper, guard());
+        ReflectionTestUtils.setField(reactive, "baseUrl", paymentsCore.baseUrl());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        requestThreads.shutdownNow();
+        httpClient.close();
+        connectionProvider.dispose();
+        paymentsCore.close();
+    }
+
+    @Benchmark
+    public long blockingRestTemplate(PeakThreads threads) {
+        List<CompletableFuture<TransactionResponse>> calls = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String merchantId = merchantId(i);
+            calls.add(CompletableFuture.supplyAsync(
+                    () -> blocking.getTransactionsByDateRange(merchantId, today, today, null), requestThreads));
+        }
+        long rows = 0;
+        for (CompletableFuture<TransactionResponse> call : calls) {
+            rows += call.join().getTransactions().size();
+        }
+        threads.sample();
+        return rows;
+    }
+
+    @Benchmark
+    public long reactiveWebClient(PeakThreads threads) {
+        Long rows = Flux.range(0, concurrency)
+                .flatMap(i -> reactive.getTransactionsByDateRange(merchantId(i), today, today, null), concurrency)
+                .map(response -> (long) response.getTransactions().size())
+                .reduce(0L, Long::sum)
+                .block();
+        threads.sample();
+        return rows;
+    }
+
+    // Plenty of headroom so the breakers never open during a run
+    private static PaymentsCoreGuard guard() {
+        return new PaymentsCoreGuard(new SimpleMeterRegistry(), 1_000, Duration.ofSeconds(1), 1_000_000,
+                Duration.ofMinutes(5));
+    }
+
+    private static String merchantId(int i) {
+        return "MCH-" + i;
+    }
+}
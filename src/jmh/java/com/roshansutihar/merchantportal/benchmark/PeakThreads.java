@@ -0,0 +1,31 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Reported next to the score as peakThreads: the JVM's peak live platform thread count during the iteration.
+// Virtual threads aren't counted, which is the point when comparing against a pool.
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class PeakThreads {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public long peakThreads;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        THREADS.resetPeakThreadCount();
+        peakThreads = 0;
+    }
+
+    void sample() {
+        peakThreads = Math.max(peakThreads, THREADS.getPeakThreadCount());
+    }
+}
@@ -0,0 +1,44 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import com.roshansutihar.merchantportal.service.ApiService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+// The Chicago-day to UTC conversion every payments-core URL goes through: zone rules lookup for both
+// ends of the range plus ISO formatting of the query parameters.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeConversionBenchmark {
+
+    // Either side of the March DST change, so both offsets are exercised; not final so JIT cannot fold them
+    private LocalDate from = LocalDate.of(2025, 3, 1);
+    private LocalDate to = LocalDate.of(2025, 3, 31);
+
+    @Benchmark
+    public void utcRange(Blackhole blackhole) {
+        blackhole.consume(ApiService.utcRangeStart(from));
+        blackhole.consume(ApiService.utcRangeEnd(to));
+    }
+
+    @Benchmark
+    public void utcRangeQueryParams(Blackhole blackhole) {
+        blackhole.consume(ApiService.utcRangeStart(from).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        blackhole.consume(ApiService.utcRangeEnd(to).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    }
+}
@@ -0,0 +1,157 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import com.roshansutihar.merchantportal.dto.DashboardSummary;
+import com.roshansutihar.merchantportal.dto.PeriodComparison;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Full Thymeleaf render of dashboard.html (today view) and admin-transactions.html (one merchant) with
+// `rows` transactions in the table, through the same SpringTemplateEngine/SpEL setup Boot configures.
+// The security dialect isn't registered, so the two sec: attributes in the header are left unprocessed;
+// everything else, row loop included, renders as in production. Score is per rendered page.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private SpringTemplateEngine templateEngine;
+    private IWebExchange exchange;
+    private Map<String, Object> dashboardModel;
+    private Map<String, Object> adminTransactionsModel;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        MockServletContext servletContext = new MockServletContext();
+        exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(new MockHttpServletRequest(servletContext), new MockHttpServletResponse());
+
+        List<Transaction> transactions = BenchmarkData.transactions(rows);
+        Merchant merchant = merchant();
+        LocalDate today = LocalDate.of(2025, 1, 1);
+
+        dashboardModel = new HashMap<>();
+        TransactionTotals totals = TransactionTotals.of(transactions);
+        TransactionResponse todayTransactions = new TransactionResponse();
+        todayTransactions.setMerchantId(merchant.getMerchantId());
+        todayTransactions.setTransactions(transactions);
+        todayTransactions.setTotalCount(totals.getCount());
+        DashboardSummary summary = new DashboardSummary();
+        summary.setTodaysTransactionCount(totals.getCount());
+        summary.setTodaysSales(totals.getTotalAmount());
+        summary.setAcknowledgedCount(totals.getAcknowledgedCount());
+        summary.setMonthlyTotal(totals.getTotalAmount().multiply(BigDecimal.TEN));
+        dashboardModel.put("merchant", merchant);
+        dashboardModel.put("selectedMerchant", merchant.getMerchantId());
+        dashboardModel.put("view", "today");
+        dashboardModel.put("fromDate", today);
+        dashboardModel.put("toDate", today);
+        dashboardModel.put("selectedStatus", "");
+        dashboardModel.put("totalAmount", totals.getTotalAmount());
+        dashboardModel.put("totalCommission", totals.getTotalCommission());
+        dashboardModel.put("totalNet", totals.getTotalNet());
+        dashboardModel.put("currencyTotals", totals.getCurrencyTotals());
+        dashboardModel.put("mixedCurrency", totals.isMixedCurrency());
+        dashboardModel.put("transactions", todayTransactions);
+        dashboardModel.put("summary", summary);
+        dashboardModel.put("partialPanels", List.of());
+        dashboardModel.put("weekOverWeek", new PeriodComparison(summary(1250.0), summary(1000.0)));
+
+        adminTransactionsModel = new HashMap<>();
+        TransactionPage page = new TransactionPage();
+        page.setTransactions(transactions);
+        page.setNextCursor("next");
+        adminTransactionsModel.put("merchants", List.of(merchant));
+        adminTransactionsModel.put("totalMerchants", 1);
+        adminTransactionsModel.put("fromDate", today.minusDays(30));
+        adminTransactionsModel.put("toDate", today);
+        adminTransactionsModel.put("selectedStatus", "");
+        adminTransactionsModel.put("selectedMerchant", merchant);
+        adminTransactionsModel.put("selectedMerchantId", merchant.getMerchantId());
+        adminTransactionsModel.put("transactions", page);
+        adminTransactionsModel.put("totalAmount", totals.getTotalAmount().doubleValue());
+        adminTransactionsModel.put("totalCommission", totals.getTotalCommission().doubleValue());
+        adminTransactionsModel.put("totalNet", totals.getTotalNet().doubleValue());
+        adminTransactionsModel.put("transactionCount", totals.getCount());
+    }
+
+    @Benchmark
+    public int dashboard() {
+        return render("dashboard", dashboardModel);
+    }
+
+    @Benchmark
+    public int adminTransactions() {
+        return render("admin-transactions", adminTransactionsModel);
+    }
+
+    private int render(String template, Map<String, Object> model) {
+        StringWriter out = new StringWriter(256 * rows);
+        templateEngine.process(template, new WebContext(exchange, Locale.US, model), out);
+        return out.getBuffer().length();
+    }
+
+    private static Merchant merchant() {
+        Merchant merchant = new Merchant();
+        merchant.setMerchantId("MCH-1");
+        merchant.setSiteId("10001");
+        merchant.setStoreName("Benchmark Store");
+        merchant.setCallbackUrl("https://example.com/callback");
+        merchant.setCommissionType("PERCENTAGE");
+        merchant.setCommissionValue(new BigDecimal("3.00"));
+        return merchant;
+    }
+
+    private static SummaryResponse summary(double amount) {
+        SummaryResponse summary = new SummaryResponse();
+        summary.setTotalAmount(amount);
+        return summary;
+    }
+}
@@ -0,0 +1,86 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TransactionResponse payloads as the payments core sends them: bound in one go (getForObject and the
+// validated cache) versus parsed row by row and folded into totals (ApiService's streaming read).
+// Run with -prof gc to see the allocation difference at 100k rows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionDeserializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    // Configured like the Boot ObjectMapper the portal gets
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Transaction> transactions = BenchmarkData.transactions(rows);
+        TransactionResponse response = new TransactionResponse();
+        response.setMerchantId("MCH-1");
+        response.setTransactions(transactions);
+        response.setTotalCount((long) rows);
+        response.setTotalAmount(TransactionTotals.of(transactions).getTotalAmount().doubleValue());
+        payload = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public TransactionResponse bindWholeResponse() throws IOException {
+        return objectMapper.readValue(payload, TransactionResponse.class);
+    }
+
+    @Benchmark
+    public TransactionTotals streamRowsIntoTotals() throws IOException {
+        TransactionTotals totals = new TransactionTotals();
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("transactions".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        totals.add(objectMapper.readValue(parser, Transaction.class));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return totals;
+    }
+}
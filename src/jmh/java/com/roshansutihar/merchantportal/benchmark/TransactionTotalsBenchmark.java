@@ -0,0 +1,64 @@
+package com.roshansutihar.merchantportal.benchmark;
+
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Dashboard totals: the old double loop plus ACKNOWLEDGED stream filter versus the single-pass cent aggregator.
+// Run with -prof gc to compare allocation per operation as well as time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionTotalsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(rows);
+    }
+
+    @Benchmark
+    public void doubleLoopAndStreamFilter(Blackhole blackhole) {
+        double totalAmount = 0.0;
+        double totalCommission = 0.0;
+        double totalNet = 0.0;
+        for (Transaction tx : transactions) {
+            totalAmount += tx.getAmount() != null ? tx.getAmount() : 0.0;
+            totalCommission += tx.getCommissionAmount() != null ? tx.getCommissionAmount() : 0.0;
+            totalNet += tx.getNetAmount() != null ? tx.getNetAmount() : 0.0;
+        }
+        long acknowledged = transactions.stream()
+                .filter(tx -> tx.getStatus() != null && tx.getStatus().equalsIgnoreCase("ACKNOWLEDGED"))
+                .count();
+        blackhole.consume(totalAmount);
+        blackhole.consume(totalCommission);
+        blackhole.consume(totalNet);
+        blackhole.consume(acknowledged);
+    }
+
+    @Benchmark
+    public TransactionTotals singlePassCents() {
+        return TransactionTotals.of(transactions);
+    }
+}
@@ -0,0 +1,217 @@
+package com.roshansutihar.merchantportal.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop driver: `concurrency` virtual users, each signing in through the OIDC redirect dance once and then
+// issuing requests back to back until the run ends. Merchants alternate between /dashboard and a
+// /transactions/range search; admins page /admin/transactions for a random merchant. Latencies are only
+// recorded after the warmup; anything but a 200 counts as an error.
+final class LoadDriver {
+
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+    static final String DASHBOARD = "dashboard";
+    static final String TRANSACTIONS_RANGE = "transactions-range";
+    static final String ADMIN_TRANSACTIONS = "admin-transactions";
+
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final Map<String, ScenarioStats> stats = new LinkedHashMap<>();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    LoadDriver(String baseUrl, LoadTestConfig config, ExecutorService executor) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        stats.put(DASHBOARD, new ScenarioStats());
+        stats.put(TRANSACTIONS_RANGE, new ScenarioStats());
+        stats.put(ADMIN_TRANSACTIONS, new ScenarioStats());
+    }
+
+    // Runs warmup then the measured window; returns per-scenario results for the measured part
+    Map<String, ScenarioResult> run(List<String> merchantUsers, String adminUser) throws InterruptedException {
+        int admins = (int) Math.round(config.concurrency() * config.adminShare());
+        List<Thread> users = new ArrayList<>(config.concurrency());
+        for (int i = 0; i < config.concurrency(); i++) {
+            boolean admin = i < admins;
+            String username = admin ? adminUser : merchantUsers.get(i % merchantUsers.size());
+            users.add(Thread.ofVirtual().name("load-user-" + i).start(() -> virtualUser(username, admin)));
+        }
+
+        Thread.sleep(config.warmup().toMillis());
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(config.duration().toMillis());
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        for (Thread user : users) {
+            user.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        Map<String, ScenarioResult> results = new LinkedHashMap<>();
+        stats.forEach((name, scenario) -> results.put(name, scenario.result(elapsed)));
+        return results;
+    }
+
+    private void virtualUser(String username, boolean admin) {
+        String session;
+        try {
+            session = login(username);
+        } catch (Exception e) {
+            System.err.println("Login failed for " + username + ": " + e.getMessage());
+            return;
+        }
+        boolean dashboardNext = ThreadLocalRandom.current().nextBoolean();
+        while (running) {
+            if (admin) {
+                timed(ADMIN_TRANSACTIONS, () -> get(adminTransactionsPath(), session));
+            } else if (dashboardNext) {
+                timed(DASHBOARD, () -> get("/dashboard", session));
+            } else {
+                timed(TRANSACTIONS_RANGE, () -> post("/transactions/range", rangeForm(username), session));
+            }
+            dashboardNext = !dashboardNext;
+        }
+    }
+
+    // /oauth2/authorization/keycloak -> stand-in authorize (login_hint picks the user) -> callback -> session
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<Void> start = send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/oauth2/authorization/keycloak")).GET(), null);
+        String session = sessionCookie(start, null);
+        String authorize = start.headers().firstValue("Location").orElseThrow(
+                () -> new IOException("no redirect to the authorization endpoint (" + start.statusCode() + ")"));
+        HttpResponse<Void> approved = send(HttpRequest.newBuilder(URI.create(
+                authorize + "&login_hint=" + URLEncoder.encode(username, StandardCharsets.UTF_8))).GET(), null);
+        String callback = approved.headers().firstValue("Location").orElseThrow(
+                () -> new IOException("authorization refused (" + approved.statusCode() + ")"));
+        HttpResponse<Void> signedIn = send(HttpRequest.newBuilder(URI.create(callback)).GET(), session);
+        if (signedIn.statusCode() != 302 || signedIn.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IOException("code exchange failed (" + signedIn.statusCode() + ")");
+        }
+        // The session id is rotated on sign-in
+        return sessionCookie(signedIn, session);
+    }
+
+    private String adminTransactionsPath() {
+        int merchant = 1 + ThreadLocalRandom.current().nextInt(config.merchants());
+        return "/admin/transactions?merchantId=" + LoadTestData.merchantId(merchant);
+    }
+
+    // The last 7 days, the search merchants run most
+    private String rangeForm(String siteId) {
+        LocalDate today = LocalDate.now(CHICAGO_ZONE);
+        int index = Integer.parseInt(siteId.substring(1));
+        return "merchantId=" + LoadTestData.merchantId(index)
+                + "&fromDate=" + today.minusDays(6)
+                + "&toDate=" + today;
+    }
+
+    private int get(String path, String session) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), session).statusCode();
+    }
+
+    private int post(String path, String form, String session) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)), session).statusCode();
+    }
+
+    // Bodies are drained so the rendered page is part of the measured time
+    private HttpResponse<Void> send(HttpRequest.Builder request, String session)
+            throws IOException, InterruptedException {
+        if (session != null) {
+            request.header("Cookie", "JSESSIONID=" + session);
+        }
+        return client.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static String sessionCookie(HttpResponse<?> response, String current) {
+        for (String cookie : response.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                int end = cookie.indexOf(';');
+                return cookie.substring("JSESSIONID=".length(), end > 0 ? end : cookie.length());
+            }
+        }
+        return current;
+    }
+
+    private void timed(String scenario, Call call) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = call.status() == 200;
+        } catch (Exception e) {
+            ok = false;
+        }
+        if (recording) {
+            stats.get(scenario).record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int status() throws Exception;
+    }
+
+    private static final class ScenarioStats {
+
+        // Nanoseconds up to 5 minutes at 3 significant digits
+        private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(5), 3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean ok) {
+            latencies.recordValue(Math.min(nanos, latencies.getHighestTrackableValue()));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        ScenarioResult result(long elapsedNanos) {
+            long requests = latencies.getTotalCount();
+            return new ScenarioResult(
+                    requests,
+                    errors.sum(),
+                    requests / (elapsedNanos / 1_000_000_000.0),
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(95)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    record ScenarioResult(long requests, long errors, double throughputPerSecond,
+                          double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+}
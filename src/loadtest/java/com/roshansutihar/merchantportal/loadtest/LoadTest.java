@@ -0,0 +1,114 @@
+package com.roshansutihar.merchantportal.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.roshansutihar.merchantportal.MerchantportalApplication;
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.repository.MerchantRepository;
+import com.roshansutihar.merchantportal.support.KeycloakStandIn;
+import com.roshansutihar.merchantportal.support.PaymentsCoreStandIn;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// End-to-end load test: the portal in-process against local payments-core and Keycloak stand-ins, driven over
+// real HTTP by LoadDriver. Only Postgres is external (Flyway migrations and the mirror's upserts are Postgres
+// SQL), taken from POSTGRES_URL/USERNAME/PASSWORD as in any other run; seeded merchants use the LT- prefix
+// and 9xxxx site ids. Run with: mvn -Ploadtest test-compile exec:exec -Dloadtest.concurrency=200
+public final class LoadTest {
+
+    private static final String REALM = "merchant-portal";
+    private static final String CLIENT_ID = "merchant-portal-ui";
+    private static final String ADMIN_USER = "loadtest-admin";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        // Devtools would restart the context on the first classpath change; the test classpath never needs it
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (PaymentsCoreStandIn core = PaymentsCoreStandIn.start();
+             KeycloakStandIn keycloak = KeycloakStandIn.start(REALM);
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<String> merchantUsers = new ArrayList<>(config.merchants());
+            List<Merchant> merchants = new ArrayList<>(config.merchants());
+            for (int i = 1; i <= config.merchants(); i++) {
+                merchants.add(LoadTestData.merchant(i));
+                merchantUsers.add(LoadTestData.siteId(i));
+                keycloak.addUser(LoadTestData.siteId(i), "merchant");
+                core.addTransactions(LoadTestData.merchantId(i),
+                        LoadTestData.transactions(i, config.rowsPerDay(), config.days()));
+            }
+            keycloak.addUser(ADMIN_USER, "admin");
+            core.setLatency(config.coreLatency());
+            core.setErrorRate(config.coreErrorRate());
+            core.setSlowResponses(config.coreSlowRate(), config.coreSlowLatency());
+            keycloak.setLatency(config.keycloakLatency());
+
+            try (ConfigurableApplicationContext portal = startPortal(core, keycloak, config)) {
+                portal.getBean(MerchantRepository.class).saveAll(merchants);
+                int port = ((WebServerApplicationContext) portal).getWebServer().getPort();
+
+                System.out.printf("Driving http://127.0.0.1:%d with %d users: %s warmup, %s measured%n",
+                        port, config.concurrency(), config.warmup(), config.duration());
+                Map<String, LoadDriver.ScenarioResult> results =
+                        new LoadDriver("http://127.0.0.1:" + port, config, clientExecutor)
+                                .run(merchantUsers, ADMIN_USER);
+                report(config, results);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startPortal(PaymentsCoreStandIn core, KeycloakStandIn keycloak,
+                                                              LoadTestConfig config) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("management.server.port", 0);
+        properties.put("PAYMENTS_CORE_BASE_URL", core.baseUrl());
+        properties.put("KEYCLOAK_ISSUER_URI", keycloak.issuerUri());
+        properties.put("KEYCLOAK_BASE_URL", keycloak.baseUrl());
+        properties.put("KEYCLOAK_REALM", REALM);
+        properties.put("KEYCLOAK_FRONTEND_CLIENT_ID", CLIENT_ID);
+        properties.put("KEYCLOAK_BACKEND_CLIENT_ID", "merchant-portal-admin");
+        properties.put("KEYCLOAK_ADMIN_CLIENT_SECRET", "loadtest");
+        properties.put("KEYCLOAK_CLIENT_REDIRECT", "{baseUrl}/login/oauth2/code/{registrationId}");
+        properties.put("LOGOUT_URL", "http://127.0.0.1/");
+        properties.put("spring.threads.virtual.enabled", config.virtualThreads());
+        properties.put("transaction-mirror.enabled", config.mirror());
+        // Production rendering and logging rather than the dev defaults
+        return new SpringApplicationBuilder(MerchantportalApplication.class)
+                .profiles("prod")
+                .properties(properties)
+                .run();
+    }
+
+    private static void report(LoadTestConfig config, Map<String, LoadDriver.ScenarioResult> results)
+            throws Exception {
+        System.out.printf("%n%-20s %10s %8s %10s %10s %10s %10s %10s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        results.forEach((name, r) -> System.out.printf("%-20s %10d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                name, r.requests(), r.errors(), r.throughputPerSecond(),
+                r.p50Millis(), r.p95Millis(), r.p99Millis(), r.maxMillis()));
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("config", config.toString());
+        document.put("scenarios", results);
+        if (config.results().getParent() != null) {
+            Files.createDirectories(config.results().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.results().toFile(), document);
+        System.out.println("\nResults written to " + config.results().toAbsolutePath());
+    }
+}
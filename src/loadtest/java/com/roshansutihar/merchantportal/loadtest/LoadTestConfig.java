@@ -0,0 +1,49 @@
+package com.roshansutihar.merchantportal.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Load-test knobs, read from -Dloadtest.* system properties (the pom's loadtest profile passes them through)
+record LoadTestConfig(
+        int concurrency,
+        Duration duration,
+        Duration warmup,
+        double adminShare,
+        int merchants,
+        int rowsPerDay,
+        int days,
+        Duration coreLatency,
+        double coreErrorRate,
+        double coreSlowRate,
+        Duration coreSlowLatency,
+        Duration keycloakLatency,
+        boolean mirror,
+        boolean virtualThreads,
+        Path results) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.parseInt(property("concurrency", "50")),
+                DurationStyle.detectAndParse(property("duration", "60s")),
+                DurationStyle.detectAndParse(property("warmup", "15s")),
+                Double.parseDouble(property("admin-share", "0.1")),
+                Integer.parseInt(property("merchants", "200")),
+                Integer.parseInt(property("rows-per-day", "300")),
+                Integer.parseInt(property("days", "35")),
+                DurationStyle.detectAndParse(property("core-latency", "40ms")),
+                Double.parseDouble(property("core-error-rate", "0")),
+                Double.parseDouble(property("core-slow-rate", "0")),
+                DurationStyle.detectAndParse(property("core-slow-latency", "2s")),
+                DurationStyle.detectAndParse(property("keycloak-latency", "0ms")),
+                Boolean.parseBoolean(property("mirror", "false")),
+                Boolean.parseBoolean(property("virtual-threads", "false")),
+                Path.of(property("results", "target/loadtest-results.json")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
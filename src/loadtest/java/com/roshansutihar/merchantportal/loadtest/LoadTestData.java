@@ -0,0 +1,81 @@
+package com.roshansutihar.merchantportal.loadtest;
+
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.request.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeded merchants and transaction history. Volumes are skewed like a real book of merchants: a log-normal
+// weight per merchant (mean 1) scales rows-per-day, so a few merchants carry many times the median load.
+// Rows are spread over Chicago business hours and stored in UTC, as the payments core does.
+final class LoadTestData {
+
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+    private static final String[] STATUSES =
+            {"ACKNOWLEDGED", "ACKNOWLEDGED", "ACKNOWLEDGED", "SETTLED", "PENDING", "FAILED"};
+
+    private LoadTestData() {
+    }
+
+    static String merchantId(int index) {
+        return String.format("LT-%05d", index);
+    }
+
+    // Five characters like the generated site ids; the site id is also the merchant's Keycloak username
+    static String siteId(int index) {
+        return String.format("9%04d", index);
+    }
+
+    static Merchant merchant(int index) {
+        Merchant merchant = new Merchant();
+        merchant.setMerchantId(merchantId(index));
+        merchant.setSiteId(siteId(index));
+        merchant.setStoreName("Load Test Store " + index);
+        merchant.setCallbackUrl("https://example.com/callback/" + index);
+        merchant.setCommissionType("PERCENTAGE");
+        merchant.setCommissionValue(new BigDecimal("2.90"));
+        merchant.setBankAccountNumber("000123456789");
+        merchant.setBankRoutingNumber("011000015");
+        return merchant;
+    }
+
+    static List<Transaction> transactions(int index, int rowsPerDay, int days) {
+        Random random = new Random(index);
+        double weight = Math.exp(random.nextGaussian() * 0.8 - 0.32);
+        int perDay = Math.max(1, (int) Math.round(rowsPerDay * weight));
+        LocalDate today = LocalDate.now(CHICAGO_ZONE);
+        List<Transaction> rows = new ArrayList<>(perDay * days);
+        for (int day = 0; day < days; day++) {
+            LocalDate date = today.minusDays(day);
+            for (int i = 0; i < perDay; i++) {
+                // 08:00-22:00 Chicago
+                LocalDateTime created = date.atTime(8, 0)
+                        .plusSeconds(random.nextInt(14 * 3600))
+                        .atZone(CHICAGO_ZONE)
+                        .withZoneSameInstant(ZoneOffset.UTC)
+                        .toLocalDateTime();
+                double amount = (200 + random.nextInt(30_000)) / 100.0;
+                double commission = Math.round(amount * 2.9) / 100.0;
+                Transaction tx = new Transaction();
+                tx.setSessionId("lt-" + index + "-" + day + "-" + i);
+                tx.setTransactionRef(String.format("LT%05d%03d%06d", index, day, i));
+                tx.setAmount(amount);
+                tx.setCommissionAmount(commission);
+                tx.setNetAmount(Math.round((amount - commission) * 100) / 100.0);
+                tx.setCurrency(random.nextInt(20) == 0 ? "CAD" : "USD");
+                tx.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                tx.setCreatedAt(created);
+                tx.setCompletedAt(created.plusSeconds(2 + random.nextInt(30)));
+                rows.add(tx);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,128 @@
+package com.roshansutihar.merchantportal.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // With spring.threads.virtual.enabled=true Boot already runs Tomcat and @Scheduled jobs on virtual threads;
+    // these executors follow the same switch
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Bounded pool for the concurrent payments-core calls behind the dashboard.
+    // A full queue rejects instead of queuing forever; the loader treats that as a partial panel.
+    @Bean
+    public AsyncTaskExecutor dashboardExecutor(
+            @Value("${dashboard.fan-out.pool-size:16}") int poolSize,
+            @Value("${dashboard.fan-out.max-pool-size:64}") int maxPoolSize,
+            @Value("${dashboard.fan-out.queue-capacity:200}") int queueCapacity) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("dashboard-", maxPoolSize + queueCapacity);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Workers for async MVC responses such as streamed exports. Kept separate from the dashboard pool
+    // so a handful of long downloads can't starve dashboard loads, and bounded so they can't pile up.
+    @Bean
+    public AsyncTaskExecutor mvcAsyncExecutor(
+            @Value("${mvc.async.pool-size:8}") int poolSize,
+            @Value("${mvc.async.max-pool-size:32}") int maxPoolSize,
+            @Value("${mvc.async.queue-capacity:100}") int queueCapacity) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("mvc-async-", maxPoolSize + queueCapacity);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Per-merchant work behind the admin cross-merchant views (all-merchants transactions, platform KPIs).
+    // The concurrency caps how many payments-core calls those views make at once, however many merchants
+    // there are; the rest wait for a slot.
+    @Bean
+    public AsyncTaskExecutor crossMerchantExecutor(@Value("${admin.all-merchants.concurrency:8}") int concurrency) {
+        return virtualThreads
+                ? throttledVirtualThreadExecutor("cross-merchant-", concurrency)
+                : throttledPool("cross-merchant-", concurrency);
+    }
+
+    // Per-merchant polls behind the live dashboard feeds. One poll per merchant per interval however many tabs
+    // are open; the limit caps how many of those polls hit the payments core at once.
+    @Bean
+    public AsyncTaskExecutor liveDashboardExecutor(@Value("${dashboard.live.concurrency:8}") int concurrency) {
+        return virtualThreads
+                ? throttledVirtualThreadExecutor("live-dashboard-", concurrency)
+                : throttledPool("live-dashboard-", concurrency);
+    }
+
+    // A virtual thread per task. Threads are cheap, so the pool's size and queue become a plain cap on
+    // tasks in flight; going over it rejects, as a full pool would.
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int limit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(limit);
+        executor.setRejectTasksWhenLimitReached(true);
+        return executor;
+    }
+
+    // For fan-outs where waiting for a slot is the point. Submitting never blocks and never rejects: each task
+    // gets its own virtual thread and waits for a permit there, so the caller reaches its deadline loop at once.
+    // A task whose CompletableFuture was cancelled at the deadline skips the call when its turn comes.
+    // (SimpleAsyncTaskExecutor's own concurrency limit would make the submitting thread wait instead.)
+    static SimpleAsyncTaskExecutor throttledVirtualThreadExecutor(String threadNamePrefix, int concurrency) {
+        Semaphore permits = new Semaphore(concurrency);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(task -> () -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+        return executor;
+    }
+
+    // Platform-thread version: a fixed pool with an unbounded queue. A bounded one would reject every merchant
+    // past its capacity, reporting them missing however early the deadline still was.
+    private static ThreadPoolTaskExecutor throttledPool(String threadNamePrefix, int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
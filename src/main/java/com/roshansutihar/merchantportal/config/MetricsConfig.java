@@ -0,0 +1,33 @@
+package com.roshansutihar.merchantportal.config;
+
+import com.roshansutihar.merchantportal.service.MerchantTiers;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+@Configuration
+public class MetricsConfig {
+
+    // http.server.requests gets a merchant.tier label, only from the attribute a controller sets once the request
+    // is authorized for that merchant. Never from the merchantId parameter: any caller could send ids that make
+    // MerchantTiers look up and cache tiers for merchants that don't exist. Everything else is "unknown".
+    @Bean
+    public ServerRequestObservationConvention merchantTierObservationConvention(MerchantTiers merchantTiers) {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and("merchant.tier", tier(merchantTiers, context.getCarrier()));
+            }
+        };
+    }
+
+    private static String tier(MerchantTiers merchantTiers, HttpServletRequest request) {
+        Object merchantId = request.getAttribute(MerchantTiers.MERCHANT_ID_ATTRIBUTE);
+        return merchantId != null ? merchantTiers.tierOf(merchantId.toString()) : MerchantTiers.UNKNOWN;
+    }
+}
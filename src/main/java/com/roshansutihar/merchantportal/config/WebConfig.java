@@ -0,0 +1,30 @@
+package com.roshansutihar.merchantportal.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor mvcAsyncExecutor;
+    private final Duration asyncTimeout;
+
+    public WebConfig(@Qualifier("mvcAsyncExecutor") AsyncTaskExecutor mvcAsyncExecutor,
+                     @Value("${mvc.async.timeout:30m}") Duration asyncTimeout) {
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    // Streaming bodies (exports) run here, so a slow download holds a worker from this pool rather than a Tomcat thread
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+    }
+}
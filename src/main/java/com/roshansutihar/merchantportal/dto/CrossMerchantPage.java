@@ -0,0 +1,20 @@
+package com.roshansutihar.merchantportal.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One keyset page merged across merchants for the admin "all merchants" view
+@Data
+public class CrossMerchantPage {
+    private TransactionPage page = new TransactionPage();
+    // Merchant of each row in page.transactions, by index (Transaction itself doesn't carry it)
+    private List<String> rowMerchantIds = new ArrayList<>();
+    // Merchants whose page failed or missed the deadline; their rows are absent from this page
+    private List<String> missingMerchantIds = new ArrayList<>();
+
+    public boolean isPartial() {
+        return !missingMerchantIds.isEmpty();
+    }
+}
@@ -0,0 +1,23 @@
+package com.roshansutihar.merchantportal.dto;
+
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import lombok.Data;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Data
+public class DashboardData {
+    private TransactionResponse todayTransactions;
+    // Folded from today's rows while they were read; replaces a separate "today summary" call
+    private TransactionTotals todayTotals;
+    private SummaryResponse monthSummary;
+    private PeriodComparison weekOverWeek;
+    // Panels whose remote call failed or missed the deadline
+    private Set<String> partialPanels = new LinkedHashSet<>();
+
+    public boolean isPartial() {
+        return !partialPanels.isEmpty();
+    }
+}
@@ -0,0 +1,24 @@
+package com.roshansutihar.merchantportal.dto;
+
+import java.time.Instant;
+
+// Responses that can be served from the last good copy while the payments core is unavailable.
+// dataAsOf is null for live data and holds the original fetch time for a stale copy.
+public interface DataAsOf {
+
+    Instant getDataAsOf();
+
+    void setDataAsOf(Instant dataAsOf);
+
+    // Oldest marker among the given responses, or null when they are all live
+    static Instant oldest(DataAsOf... responses) {
+        Instant oldest = null;
+        for (DataAsOf response : responses) {
+            if (response != null && response.getDataAsOf() != null
+                    && (oldest == null || response.getDataAsOf().isBefore(oldest))) {
+                oldest = response.getDataAsOf();
+            }
+        }
+        return oldest;
+    }
+}
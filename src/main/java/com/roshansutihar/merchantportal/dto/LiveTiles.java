@@ -0,0 +1,10 @@
+package com.roshansutihar.merchantportal.dto;
+
+import java.math.BigDecimal;
+
+// Dashboard tiles and today's table totals as pushed to an open dashboard over /dashboard/live.
+// mixedCurrency: the amounts add up more than one currency (see TransactionTotals.isMixedCurrency).
+public record LiveTiles(long todaysTransactionCount, BigDecimal todaysSales, long acknowledgedCount,
+                        BigDecimal monthlyTotal, BigDecimal totalCommission, BigDecimal totalNet,
+                        boolean mixedCurrency) {
+}
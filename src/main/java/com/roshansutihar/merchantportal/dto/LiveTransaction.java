@@ -0,0 +1,15 @@
+package com.roshansutihar.merchantportal.dto;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+
+import java.time.LocalDateTime;
+
+// A new row for the live dashboard table: only the columns the table shows
+public record LiveTransaction(String transactionRef, LocalDateTime createdAt, Double amount,
+                              Double commissionAmount, Double netAmount, String status) {
+
+    public static LiveTransaction of(Transaction tx) {
+        return new LiveTransaction(tx.getTransactionRef(), tx.getCreatedAt(), tx.getAmount(),
+                tx.getCommissionAmount(), tx.getNetAmount(), tx.getStatus());
+    }
+}
@@ -0,0 +1,36 @@
+package com.roshansutihar.merchantportal.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Keyset position in the directory's (lower(storeName), merchantId) ordering, encoded as an opaque URL-safe
+// token for pager links like TransactionCursor.
+public record MerchantCursor(String storeName, String merchantId) {
+
+    public static MerchantCursor of(MerchantListing merchant) {
+        return new MerchantCursor(merchant.storeName(), merchant.merchantId());
+    }
+
+    public String encode() {
+        String raw = storeName + "|" + merchantId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a blank or unreadable token, which callers treat as the first page. Store names may
+    // contain '|', merchant ids don't, so the last one separates them.
+    public static MerchantCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            return new MerchantCursor(raw.substring(0, separator), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.roshansutihar.merchantportal.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class MerchantDirectoryPage {
+    private List<MerchantListing> merchants = new ArrayList<>();
+    private String nextCursor;
+    private String prevCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrev() {
+        return prevCursor != null;
+    }
+}
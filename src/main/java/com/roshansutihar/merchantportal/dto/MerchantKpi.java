@@ -0,0 +1,7 @@
+package com.roshansutihar.merchantportal.dto;
+
+import java.math.BigDecimal;
+
+// One merchant's figures for a period, as ranked on the admin KPI page
+public record MerchantKpi(String merchantId, long transactions, BigDecimal grossVolume, BigDecimal commission) {
+}
@@ -0,0 +1,11 @@
+package com.roshansutihar.merchantportal.dto;
+
+import java.math.BigDecimal;
+
+// One row of the admin merchant directory: the columns the table shows and nothing else (no webhook signing
+// key, no timestamps). Read-only; edits load the Merchant entity.
+public record MerchantListing(String merchantId, String siteId, String storeName, String callbackUrl,
+                              String commissionType, BigDecimal commissionValue, BigDecimal minCommission,
+                              BigDecimal maxCommission, String bankAccountNumber, String bankRoutingNumber,
+                              String secretKey) {
+}
@@ -0,0 +1,5 @@
+package com.roshansutihar.merchantportal.dto;
+
+// A merchant as the admin pages name it: typeahead suggestions and store names next to merchant ids
+public record MerchantOption(String merchantId, String siteId, String storeName) {
+}
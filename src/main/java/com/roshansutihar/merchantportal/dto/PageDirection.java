@@ -0,0 +1,12 @@
+package com.roshansutihar.merchantportal.dto;
+
+public enum PageDirection {
+    // Older rows, after the cursor in newest-first order
+    NEXT,
+    // Newer rows, before the cursor
+    PREV;
+
+    public static PageDirection from(String value) {
+        return "prev".equalsIgnoreCase(value) ? PREV : NEXT;
+    }
+}
@@ -0,0 +1,23 @@
+package com.roshansutihar.merchantportal.dto;
+
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+
+public record PeriodComparison(SummaryResponse current, SummaryResponse previous) {
+
+    public double currentAmount() {
+        return current != null && current.getTotalAmount() != null ? current.getTotalAmount() : 0.0;
+    }
+
+    public double previousAmount() {
+        return previous != null && previous.getTotalAmount() != null ? previous.getTotalAmount() : 0.0;
+    }
+
+    // Percentage change in gross amount; null when there is nothing to compare against
+    public Double amountChangePercent() {
+        double before = previousAmount();
+        if (before == 0.0) {
+            return null;
+        }
+        return (currentAmount() - before) / before * 100.0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.roshansutihar.merchantportal.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Platform totals and rankings for one Chicago-day period
+@Data
+public class PlatformKpis implements DataAsOf {
+    private LocalDate from;
+    private LocalDate to;
+    private int merchantCount;
+    // Merchants with at least one transaction in the period
+    private int activeMerchantCount;
+    private long totalTransactions;
+    private BigDecimal grossVolume = BigDecimal.ZERO;
+    private BigDecimal commission = BigDecimal.ZERO;
+    private BigDecimal netVolume = BigDecimal.ZERO;
+    private List<MerchantKpi> topByVolume = new ArrayList<>();
+    private List<MerchantKpi> topByTransactions = new ArrayList<>();
+    // Merchants whose summary failed or missed the deadline; they are not in the totals
+    private List<String> missingMerchantIds = new ArrayList<>();
+    private Instant computedAt;
+    private Instant dataAsOf;
+
+    public boolean isPartial() {
+        return !missingMerchantIds.isEmpty();
+    }
+}
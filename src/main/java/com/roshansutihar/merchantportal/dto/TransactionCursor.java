@@ -0,0 +1,56 @@
+package com.roshansutihar.merchantportal.dto;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+
+// Keyset position in the newest-first (createdAt desc, transactionRef desc) ordering, encoded
+// as an opaque URL-safe token for pager links.
+public record TransactionCursor(LocalDateTime createdAt, String transactionRef) {
+
+    public static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing((Transaction tx) -> tx.getCreatedAt() != null ? tx.getCreatedAt() : LocalDateTime.MIN)
+            .thenComparing(tx -> tx.getTransactionRef() != null ? tx.getTransactionRef() : "")
+            .reversed();
+
+    public static TransactionCursor of(Transaction tx) {
+        return new TransactionCursor(
+                tx.getCreatedAt() != null ? tx.getCreatedAt() : LocalDateTime.MIN,
+                tx.getTransactionRef() != null ? tx.getTransactionRef() : "");
+    }
+
+    // Positive when tx comes after this position (older), negative when before (newer), zero for the cursor row
+    public int positionOf(Transaction tx) {
+        LocalDateTime txCreatedAt = tx.getCreatedAt() != null ? tx.getCreatedAt() : LocalDateTime.MIN;
+        int byTime = createdAt.compareTo(txCreatedAt);
+        if (byTime != 0) {
+            return byTime;
+        }
+        return transactionRef.compareTo(tx.getTransactionRef() != null ? tx.getTransactionRef() : "");
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + transactionRef;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a blank or unreadable token, which callers treat as the first page
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
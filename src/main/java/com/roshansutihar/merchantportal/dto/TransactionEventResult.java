@@ -0,0 +1,6 @@
+package com.roshansutihar.merchantportal.dto;
+
+// Outcome of one webhook delivery. Ignored events were replays, older than the stored state, or unusable
+// (no transaction reference or creation time); re-sending them is harmless.
+public record TransactionEventResult(int received, int applied, int ignored) {
+}
@@ -0,0 +1,24 @@
+package com.roshansutihar.merchantportal.dto;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TransactionPage implements DataAsOf {
+    private List<Transaction> transactions = new ArrayList<>();
+    private String nextCursor;
+    private String prevCursor;
+    private Instant dataAsOf;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrev() {
+        return prevCursor != null;
+    }
+}
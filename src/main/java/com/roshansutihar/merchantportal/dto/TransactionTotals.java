@@ -0,0 +1,190 @@
+package com.roshansutihar.merchantportal.dto;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Running totals folded one transaction at a time, so callers never need the full list in memory.
+// Amounts are accumulated as long hundredths (cents) so sums are exact; counters are mutable
+// arrays keyed by the raw status/currency string, so the per-row path doesn't allocate.
+public class TransactionTotals {
+
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String ACKNOWLEDGED = "ACKNOWLEDGED";
+
+    private long count;
+    private long amountCents;
+    private long commissionCents;
+    private long netCents;
+    // Kept alongside statusCounts because the dashboard reads it on every render and live poll
+    private long acknowledgedCount;
+    private final Map<String, long[]> statusCounts = new HashMap<>();
+    private final Map<String, CurrencyTotals> currencyTotals = new HashMap<>();
+
+    public static TransactionTotals of(Iterable<Transaction> transactions) {
+        TransactionTotals totals = new TransactionTotals();
+        if (transactions != null) {
+            for (Transaction tx : transactions) {
+                totals.add(tx);
+            }
+        }
+        return totals;
+    }
+
+    public void add(Transaction tx) {
+        long amount = toCents(tx.getAmount());
+        long commission = toCents(tx.getCommissionAmount());
+        long net = toCents(tx.getNetAmount());
+
+        count++;
+        amountCents += amount;
+        commissionCents += commission;
+        netCents += net;
+
+        String status = tx.getStatus() != null ? tx.getStatus() : UNKNOWN;
+        statusCounts.computeIfAbsent(status, k -> new long[1])[0]++;
+        if (ACKNOWLEDGED.equalsIgnoreCase(status)) {
+            acknowledgedCount++;
+        }
+
+        String currency = tx.getCurrency() != null ? tx.getCurrency() : UNKNOWN;
+        currencyTotals.computeIfAbsent(currency, k -> new CurrencyTotals()).add(amount, commission, net);
+    }
+
+    // Totals summed elsewhere (daily rollups, a grouped query) for when the rows themselves aren't read.
+    // Only the acknowledged count is known by status.
+    public void addSummed(long transactions, long amount, long commission, long net, long acknowledged) {
+        count += transactions;
+        amountCents += amount;
+        commissionCents += commission;
+        netCents += net;
+        if (acknowledged > 0) {
+            statusCounts.computeIfAbsent(ACKNOWLEDGED, k -> new long[1])[0] += acknowledged;
+            acknowledgedCount += acknowledged;
+        }
+    }
+
+    // The per-currency side of addSummed
+    public void addSummedCurrency(String currency, long transactions, long amount, long commission, long net) {
+        currencyTotals.computeIfAbsent(currency != null ? currency : UNKNOWN, k -> new CurrencyTotals())
+                .addSummed(transactions, amount, commission, net);
+    }
+
+    // Folds another set of totals into this one, e.g. a result shared with concurrent callers
+    public void merge(TransactionTotals other) {
+        count += other.count;
+        amountCents += other.amountCents;
+        commissionCents += other.commissionCents;
+        netCents += other.netCents;
+        acknowledgedCount += other.acknowledgedCount;
+        other.statusCounts.forEach((status, counter) ->
+                statusCounts.computeIfAbsent(status, k -> new long[1])[0] += counter[0]);
+        other.currencyTotals.forEach((currency, totals) ->
+                currencyTotals.computeIfAbsent(currency, k -> new CurrencyTotals()).merge(totals));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public long getCommissionCents() {
+        return commissionCents;
+    }
+
+    public long getNetCents() {
+        return netCents;
+    }
+
+    // The grand totals add up every currency as-is; when isMixedCurrency() they are no single currency's amount,
+    // and getCurrencyTotals() has the per-currency figures
+    public BigDecimal getTotalAmount() {
+        return BigDecimal.valueOf(amountCents, 2);
+    }
+
+    public BigDecimal getTotalCommission() {
+        return BigDecimal.valueOf(commissionCents, 2);
+    }
+
+    public BigDecimal getTotalNet() {
+        return BigDecimal.valueOf(netCents, 2);
+    }
+
+    public boolean isMixedCurrency() {
+        return currencyTotals.size() > 1;
+    }
+
+    // Case-insensitive view, e.g. "acknowledged" and "ACKNOWLEDGED" are counted together
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> normalized = new TreeMap<>();
+        statusCounts.forEach((status, counter) ->
+                normalized.merge(status.toUpperCase(Locale.ROOT), counter[0], Long::sum));
+        return normalized;
+    }
+
+    public long getStatusCount(String status) {
+        return getStatusCounts().getOrDefault(status.toUpperCase(Locale.ROOT), 0L);
+    }
+
+    public long getAcknowledgedCount() {
+        return acknowledgedCount;
+    }
+
+    public Map<String, CurrencyTotals> getCurrencyTotals() {
+        return Collections.unmodifiableMap(new TreeMap<>(currencyTotals));
+    }
+
+    // Double amounts from the payments core carry at most two decimals; rounding removes the binary noise
+    private static long toCents(Double value) {
+        return value != null ? Math.round(value * 100d) : 0L;
+    }
+
+    public static class CurrencyTotals {
+        private long count;
+        private long amountCents;
+        private long commissionCents;
+        private long netCents;
+
+        void merge(CurrencyTotals other) {
+            count += other.count;
+            amountCents += other.amountCents;
+            commissionCents += other.commissionCents;
+            netCents += other.netCents;
+        }
+
+        void add(long amount, long commission, long net) {
+            addSummed(1, amount, commission, net);
+        }
+
+        void addSummed(long transactions, long amount, long commission, long net) {
+            count += transactions;
+            amountCents += amount;
+            commissionCents += commission;
+            netCents += net;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public BigDecimal getTotalAmount() {
+            return BigDecimal.valueOf(amountCents, 2);
+        }
+
+        public BigDecimal getTotalCommission() {
+            return BigDecimal.valueOf(commissionCents, 2);
+        }
+
+        public BigDecimal getTotalNet() {
+            return BigDecimal.valueOf(netCents, 2);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.roshansutihar.merchantportal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Written only by DailyRollupWriter and TransactionEventWriter; mapped here for reads
+@Entity
+@Table(name = "daily_merchant_rollups")
+@IdClass(DailyMerchantRollupId.class)
+@Data
+@NoArgsConstructor
+public class DailyMerchantRollup {
+
+    @Id
+    @Column(name = "merchant_id")
+    private String merchantId;
+
+    // Chicago calendar day
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+
+    @Column(name = "transaction_count")
+    private long transactionCount;
+
+    @Column(name = "gross_amount")
+    private BigDecimal grossAmount;
+
+    @Column(name = "commission_amount")
+    private BigDecimal commissionAmount;
+
+    @Column(name = "net_amount")
+    private BigDecimal netAmount;
+
+    @Column(name = "acknowledged_count")
+    private long acknowledgedCount;
+
+    @Column(name = "refreshed_at")
+    private Instant refreshedAt;
+}
@@ -0,0 +1,16 @@
+package com.roshansutihar.merchantportal.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyMerchantRollupId implements Serializable {
+    private String merchantId;
+    private LocalDate rollupDate;
+}
@@ -48,4 +48,8 @@ public class Merchant {
     @Column(name = "secret_key")
     private String secretKey;
 
+    // Derived from the full secret key (see WebhookSignatures); verifies the payments core's event deliveries
+    @Column(name = "webhook_signing_key")
+    private String webhookSigningKey;
+
 }
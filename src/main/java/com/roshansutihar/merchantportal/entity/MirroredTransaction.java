@@ -0,0 +1,55 @@
+package com.roshansutihar.merchantportal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "merchant_transactions")
+@IdClass(MirroredTransactionId.class)
+@Data
+@NoArgsConstructor
+public class MirroredTransaction {
+
+    @Id
+    @Column(name = "merchant_id")
+    private String merchantId;
+
+    @Id
+    @Column(name = "transaction_ref")
+    private String transactionRef;
+
+    @Column(name = "session_id")
+    private String sessionId;
+
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @Column(name = "currency", length = 3)
+    private String currency;
+
+    @Column(name = "status")
+    private String status;
+
+    @Column(name = "commission_amount")
+    private BigDecimal commissionAmount;
+
+    @Column(name = "net_amount")
+    private BigDecimal netAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "settlement_date")
+    private LocalDateTime settlementDate;
+}
@@ -0,0 +1,15 @@
+package com.roshansutihar.merchantportal.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MirroredTransactionId implements Serializable {
+    private String merchantId;
+    private String transactionRef;
+}
@@ -0,0 +1,52 @@
+package com.roshansutihar.merchantportal.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "transaction_sync_state")
+@Data
+@NoArgsConstructor
+public class TransactionSyncState {
+
+    @Id
+    @Column(name = "merchant_id")
+    private String merchantId;
+
+    // First Chicago day held in the mirror
+    @Column(name = "mirrored_from")
+    private LocalDate mirroredFrom;
+
+    // Last closed Chicago day that has been fully copied
+    @Column(name = "synced_through")
+    private LocalDate syncedThrough;
+
+    @Column(name = "last_created_at")
+    private LocalDateTime lastCreatedAt;
+
+    @Column(name = "last_run_at")
+    private Instant lastRunAt;
+
+    public TransactionSyncState(String merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    public boolean covers(LocalDate from, LocalDate to) {
+        return mirroredFrom != null && syncedThrough != null
+                && !from.isBefore(mirroredFrom) && !to.isAfter(syncedThrough);
+    }
+
+    // Every closed day from `from` up to yesterday is complete; today itself is whatever has been written so far
+    public boolean coversClosedDaysBefore(LocalDate from, LocalDate today) {
+        return mirroredFrom != null && syncedThrough != null
+                && !from.isBefore(mirroredFrom) && !syncedThrough.isBefore(today.minusDays(1));
+    }
+}
@@ -0,0 +1,34 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.entity.DailyMerchantRollup;
+import com.roshansutihar.merchantportal.entity.DailyMerchantRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyMerchantRollupRepository extends JpaRepository<DailyMerchantRollup, DailyMerchantRollupId> {
+
+    List<DailyMerchantRollup> findByMerchantIdAndRollupDateBetweenOrderByRollupDate(
+            String merchantId, LocalDate from, LocalDate to);
+
+    // Reads at most one row per day in the range, whatever the transaction volume
+    @Query("SELECT SUM(r.transactionCount) AS count, SUM(r.grossAmount) AS amount, " +
+            "SUM(r.commissionAmount) AS commission, SUM(r.netAmount) AS net, " +
+            "SUM(r.acknowledgedCount) AS acknowledged FROM DailyMerchantRollup r " +
+            "WHERE r.merchantId = :merchantId AND r.rollupDate BETWEEN :from AND :to")
+    RollupTotals summarize(@Param("merchantId") String merchantId,
+                           @Param("from") LocalDate from,
+                           @Param("to") LocalDate to);
+
+    interface RollupTotals {
+        Long getCount();
+        BigDecimal getAmount();
+        BigDecimal getCommission();
+        BigDecimal getNet();
+        Long getAcknowledged();
+    }
+}
@@ -0,0 +1,63 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.service.ApiService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+// Rebuilds daily_merchant_rollups for a day range from the mirrored rows.
+// Days are replaced wholesale, so a day whose transactions disappeared drops back to no row.
+// Rebuilds and TransactionEventWriter's incremental updates hold the same per-merchant lock, so an event
+// applied while a day is being rebuilt is either in the rebuilt totals or added on top of them, never both.
+@Repository
+public class DailyRollupWriter {
+
+    // Transaction-scoped advisory lock per merchant; the first key keeps it apart from any other advisory locks
+    static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(5501, hashtext(?))";
+
+    private static final String DELETE_SQL = """
+            DELETE FROM daily_merchant_rollups
+            WHERE merchant_id = ? AND rollup_date BETWEEN ? AND ?
+            """;
+
+    // Bounds are on created_at (UTC wall-clock) so idx_merchant_transactions_merchant_created is used
+    private static final String INSERT_SQL = """
+            INSERT INTO daily_merchant_rollups (merchant_id, rollup_date, transaction_count, gross_amount,
+                                                commission_amount, net_amount, acknowledged_count, refreshed_at)
+            SELECT merchant_id,
+                   (created_at AT TIME ZONE 'UTC' AT TIME ZONE 'America/Chicago')::date,
+                   COUNT(*),
+                   COALESCE(SUM(amount), 0),
+                   COALESCE(SUM(commission_amount), 0),
+                   COALESCE(SUM(net_amount), 0),
+                   COUNT(*) FILTER (WHERE UPPER(status) = 'ACKNOWLEDGED'),
+                   CURRENT_TIMESTAMP
+            FROM merchant_transactions
+            WHERE merchant_id = ? AND created_at >= ? AND created_at < ?
+            GROUP BY 1, 2
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DailyRollupWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public int refresh(String merchantId, LocalDate from, LocalDate to) {
+        lock(jdbcTemplate, merchantId);
+        jdbcTemplate.update(DELETE_SQL, merchantId, Date.valueOf(from), Date.valueOf(to));
+        return jdbcTemplate.update(INSERT_SQL, merchantId,
+                Timestamp.valueOf(ApiService.utcRangeStart(from).toLocalDateTime()),
+                Timestamp.valueOf(ApiService.utcRangeStart(to.plusDays(1)).toLocalDateTime()));
+    }
+
+    // Held until the surrounding transaction ends
+    static void lock(JdbcTemplate jdbcTemplate, String merchantId) {
+        jdbcTemplate.query(LOCK_SQL, rs -> null, merchantId);
+    }
+}
@@ -1,15 +1,85 @@
 package com.roshansutihar.merchantportal.repository;
 
+import com.roshansutihar.merchantportal.dto.MerchantListing;
+import com.roshansutihar.merchantportal.dto.MerchantOption;
 import com.roshansutihar.merchantportal.entity.Merchant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface MerchantRepository extends JpaRepository<Merchant, String> {
 
+    // Directory projections select only what the admin pages show, never the whole entity
+    String LISTING = "SELECT new com.roshansutihar.merchantportal.dto.MerchantListing(m.merchantId, m.siteId, " +
+            "m.storeName, m.callbackUrl, m.commissionType, m.commissionValue, m.minCommission, m.maxCommission, " +
+            "m.bankAccountNumber, m.bankRoutingNumber, m.secretKey) FROM Merchant m ";
+
+    String OPTION = "SELECT new com.roshansutihar.merchantportal.dto.MerchantOption(m.merchantId, m.siteId, " +
+            "m.storeName) FROM Merchant m ";
+
+    // `pattern` is a lower-cased LIKE pattern with '\' as the escape character: '%term%' (trigram indexes from V6)
+    // or, for short terms, 'term%' (prefix indexes from V8)
+    String MATCHES = "(LOWER(m.storeName) LIKE :pattern ESCAPE '\\' OR m.siteId LIKE :pattern ESCAPE '\\') ";
+
+    String AFTER = "(LOWER(m.storeName) > LOWER(:cursorName) " +
+            "OR (LOWER(m.storeName) = LOWER(:cursorName) AND m.merchantId > :cursorId)) ";
+
+    String BEFORE = "(LOWER(m.storeName) < LOWER(:cursorName) " +
+            "OR (LOWER(m.storeName) = LOWER(:cursorName) AND m.merchantId < :cursorId)) ";
+
+    String DIRECTORY_ORDER = "ORDER BY LOWER(m.storeName) ASC, m.merchantId ASC";
+
     Optional<Merchant> findByMerchantId(String merchantId);
 
     boolean existsBySiteId(String siteId);
 
     Optional<Merchant> findBySiteId(String siteId);
+
+    // Keyset pages over idx_merchants_store_name_key; callers ask for size + 1 rows. The unfiltered and the
+    // searched directory are separate queries, so neither plan has to allow for the other.
+    @Query(LISTING + DIRECTORY_ORDER)
+    List<MerchantListing> findDirectoryFirstPage(Pageable pageable);
+
+    @Query(LISTING + "WHERE " + AFTER + DIRECTORY_ORDER)
+    List<MerchantListing> findDirectoryPageAfter(@Param("cursorName") String cursorName,
+                                                 @Param("cursorId") String cursorId,
+                                                 Pageable pageable);
+
+    @Query(LISTING + "WHERE " + BEFORE + "ORDER BY LOWER(m.storeName) DESC, m.merchantId DESC")
+    List<MerchantListing> findDirectoryPageBefore(@Param("cursorName") String cursorName,
+                                                  @Param("cursorId") String cursorId,
+                                                  Pageable pageable);
+
+    @Query(LISTING + "WHERE " + MATCHES + DIRECTORY_ORDER)
+    List<MerchantListing> findMatchingFirstPage(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(LISTING + "WHERE " + MATCHES + "AND " + AFTER + DIRECTORY_ORDER)
+    List<MerchantListing> findMatchingPageAfter(@Param("pattern") String pattern,
+                                                @Param("cursorName") String cursorName,
+                                                @Param("cursorId") String cursorId,
+                                                Pageable pageable);
+
+    @Query(LISTING + "WHERE " + MATCHES + "AND " + BEFORE + "ORDER BY LOWER(m.storeName) DESC, m.merchantId DESC")
+    List<MerchantListing> findMatchingPageBefore(@Param("pattern") String pattern,
+                                                 @Param("cursorName") String cursorName,
+                                                 @Param("cursorId") String cursorId,
+                                                 Pageable pageable);
+
+    // Typeahead, in two bounded steps: matches starting with the term, then (for long enough terms) the ones
+    // that only contain it, instead of ranking every match
+    @Query(OPTION + "WHERE " + MATCHES + DIRECTORY_ORDER)
+    List<MerchantOption> searchOptions(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(OPTION + "WHERE " + MATCHES + "AND NOT (LOWER(m.storeName) LIKE :excluded ESCAPE '\\' " +
+            "OR m.siteId LIKE :excluded ESCAPE '\\') " + DIRECTORY_ORDER)
+    List<MerchantOption> searchOptionsExcluding(@Param("pattern") String pattern,
+                                                @Param("excluded") String excluded,
+                                                Pageable pageable);
+
+    @Query(OPTION + "ORDER BY LOWER(m.storeName) ASC, m.merchantId ASC")
+    List<MerchantOption> findAllOptions();
 }
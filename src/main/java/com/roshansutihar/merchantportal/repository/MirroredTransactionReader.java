@@ -0,0 +1,84 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+// Hands a range of mirrored rows to a sink one at a time, newest first. The rows come through a server-side
+// cursor in FETCH_SIZE chunks and are never entities, so neither a result list nor a persistence context grows
+// with the width of the range. Postgres only uses the fetch size inside a transaction, hence @Transactional.
+@Repository
+public class MirroredTransactionReader {
+
+    static final int FETCH_SIZE = 500;
+
+    private static final String COLUMNS = """
+            SELECT session_id, transaction_ref, amount, currency, status, commission_amount, net_amount,
+                   created_at, completed_at, settlement_date
+            FROM merchant_transactions
+            """;
+
+    // Bounds are on created_at (UTC wall-clock), read through idx_merchant_transactions_merchant_created
+    private static final String RANGE_SQL = COLUMNS + """
+            WHERE merchant_id = ? AND created_at BETWEEN ? AND ?
+            ORDER BY created_at DESC, transaction_ref DESC
+            """;
+
+    private static final String STATUS_RANGE_SQL = COLUMNS + """
+            WHERE merchant_id = ? AND created_at BETWEEN ? AND ? AND status = ?
+            ORDER BY created_at DESC, transaction_ref DESC
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MirroredTransactionReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // A null or empty status means every status
+    @Transactional(readOnly = true)
+    public void forEach(String merchantId, LocalDateTime fromUtc, LocalDateTime toUtc, String status,
+                        Consumer<Transaction> sink) {
+        boolean filtered = status != null && !status.isEmpty();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(filtered ? STATUS_RANGE_SQL : RANGE_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setString(1, merchantId);
+            statement.setTimestamp(2, Timestamp.valueOf(fromUtc));
+            statement.setTimestamp(3, Timestamp.valueOf(toUtc));
+            if (filtered) {
+                statement.setString(4, status);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> sink.accept(toTransaction(rs)));
+    }
+
+    private static Transaction toTransaction(ResultSet rs) throws SQLException {
+        Transaction tx = new Transaction();
+        tx.setSessionId(rs.getString("session_id"));
+        tx.setTransactionRef(rs.getString("transaction_ref"));
+        tx.setAmount(toNullableDouble(rs.getBigDecimal("amount")));
+        tx.setCurrency(rs.getString("currency"));
+        tx.setStatus(rs.getString("status"));
+        tx.setCommissionAmount(toNullableDouble(rs.getBigDecimal("commission_amount")));
+        tx.setNetAmount(toNullableDouble(rs.getBigDecimal("net_amount")));
+        tx.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        tx.setCompletedAt(rs.getObject("completed_at", LocalDateTime.class));
+        tx.setSettlementDate(rs.getObject("settlement_date", LocalDateTime.class));
+        return tx;
+    }
+
+    private static Double toNullableDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+}
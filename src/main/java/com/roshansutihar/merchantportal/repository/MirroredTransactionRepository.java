@@ -0,0 +1,79 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.entity.MirroredTransaction;
+import com.roshansutihar.merchantportal.entity.MirroredTransactionId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MirroredTransactionRepository extends JpaRepository<MirroredTransaction, MirroredTransactionId> {
+
+    // Whole ranges are read row by row through MirroredTransactionReader, never loaded as a list here
+
+    // Totals for one status, which the daily rollups don't break down by; summed in the database
+    @Query("SELECT COUNT(t) AS count, SUM(t.amount) AS amount, SUM(t.commissionAmount) AS commission, " +
+            "SUM(t.netAmount) AS net FROM MirroredTransaction t WHERE t.merchantId = :merchantId " +
+            "AND t.createdAt BETWEEN :from AND :to AND t.status = :status")
+    Sums summarizeStatus(@Param("merchantId") String merchantId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("status") String status);
+
+    // Per-currency totals of a range, e.g. the live dashboard's breakdown, without reading the rows out
+    @Query("SELECT t.currency AS currency, COUNT(t) AS count, SUM(t.amount) AS amount, " +
+            "SUM(t.commissionAmount) AS commission, SUM(t.netAmount) AS net FROM MirroredTransaction t " +
+            "WHERE t.merchantId = :merchantId AND t.createdAt BETWEEN :from AND :to GROUP BY t.currency")
+    List<CurrencySums> summarizeByCurrency(@Param("merchantId") String merchantId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    // Keyset pages over idx_merchant_transactions_merchant_created; callers ask for size + 1 rows
+    @Query("SELECT t FROM MirroredTransaction t WHERE t.merchantId = :merchantId " +
+            "AND t.createdAt BETWEEN :from AND :to AND (:status IS NULL OR t.status = :status) " +
+            "ORDER BY t.createdAt DESC, t.transactionRef DESC")
+    List<MirroredTransaction> findFirstPage(@Param("merchantId") String merchantId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("status") String status,
+                                            Pageable pageable);
+
+    @Query("SELECT t FROM MirroredTransaction t WHERE t.merchantId = :merchantId " +
+            "AND t.createdAt BETWEEN :from AND :to AND (:status IS NULL OR t.status = :status) " +
+            "AND (t.createdAt < :cursorAt OR (t.createdAt = :cursorAt AND t.transactionRef < :cursorRef)) " +
+            "ORDER BY t.createdAt DESC, t.transactionRef DESC")
+    List<MirroredTransaction> findPageAfter(@Param("merchantId") String merchantId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("status") String status,
+                                            @Param("cursorAt") LocalDateTime cursorAt,
+                                            @Param("cursorRef") String cursorRef,
+                                            Pageable pageable);
+
+    @Query("SELECT t FROM MirroredTransaction t WHERE t.merchantId = :merchantId " +
+            "AND t.createdAt BETWEEN :from AND :to AND (:status IS NULL OR t.status = :status) " +
+            "AND (t.createdAt > :cursorAt OR (t.createdAt = :cursorAt AND t.transactionRef > :cursorRef)) " +
+            "ORDER BY t.createdAt ASC, t.transactionRef ASC")
+    List<MirroredTransaction> findPageBefore(@Param("merchantId") String merchantId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             @Param("status") String status,
+                                             @Param("cursorAt") LocalDateTime cursorAt,
+                                             @Param("cursorRef") String cursorRef,
+                                             Pageable pageable);
+
+    interface Sums {
+        Long getCount();
+        BigDecimal getAmount();
+        BigDecimal getCommission();
+        BigDecimal getNet();
+    }
+
+    interface CurrencySums extends Sums {
+        String getCurrency();
+    }
+}
@@ -0,0 +1,50 @@
+package com.roshansutihar.merchantportal.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.List;
+
+// Claims on site_id_blocks (V7). A claim is one UPDATE that picks the next claimable block in position order;
+// SKIP LOCKED lets instances claiming at the same moment take different blocks instead of queueing on one row.
+@Repository
+public class SiteIdBlockWriter {
+
+    private static final String CLAIM_SQL = """
+            UPDATE site_id_blocks SET claimed_at = CURRENT_TIMESTAMP
+            WHERE block_no = (
+                SELECT block_no FROM site_id_blocks
+                WHERE NOT exhausted
+                  AND (claimed_at IS NULL OR claimed_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 second')
+                ORDER BY position
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED)
+            RETURNING block_no
+            """;
+
+    // Site IDs are zero-padded to the same length, so the range compares correctly as text
+    private static final String USED_SQL = "SELECT site_id FROM merchants WHERE site_id BETWEEN ? AND ?";
+
+    private static final String EXHAUSTED_SQL = "UPDATE site_id_blocks SET exhausted = TRUE WHERE block_no = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SiteIdBlockWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The claimed block, or null when every block is exhausted or held under a live claim
+    public Integer claim(Duration lease) {
+        List<Integer> claimed = jdbcTemplate.queryForList(CLAIM_SQL, Integer.class, lease.toMillis() / 1000.0);
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    public List<String> usedBetween(String firstSiteId, String lastSiteId) {
+        return jdbcTemplate.queryForList(USED_SQL, String.class, firstSiteId, lastSiteId);
+    }
+
+    public void markExhausted(int block) {
+        jdbcTemplate.update(EXHAUSTED_SQL, block);
+    }
+}
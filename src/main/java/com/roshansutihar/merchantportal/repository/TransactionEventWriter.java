@@ -0,0 +1,263 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.request.TransactionEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Applies payments-core transaction events incrementally. Each applied event upserts the mirrored row and moves
+// that row's old contribution out of, and its new one into, daily_merchant_rollups in the same transaction.
+// An event older than the stored state, or one that changes nothing, is skipped, so redeliveries leave the
+// totals alone. One call writes the rows of every merchant in it as two sets of JDBC batches.
+@Repository
+public class TransactionEventWriter {
+
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+
+    private static final String SELECT_SQL = """
+            SELECT transaction_ref, session_id, amount, currency, status, commission_amount, net_amount,
+                   created_at, completed_at, settlement_date, event_at
+            FROM merchant_transactions
+            WHERE merchant_id = ? AND transaction_ref = ANY (?)
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO merchant_transactions (merchant_id, transaction_ref, session_id, amount, currency, status,
+                                               commission_amount, net_amount, created_at, completed_at,
+                                               settlement_date, event_at, synced_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (merchant_id, transaction_ref) DO UPDATE SET
+                session_id = EXCLUDED.session_id,
+                amount = EXCLUDED.amount,
+                currency = EXCLUDED.currency,
+                status = EXCLUDED.status,
+                commission_amount = EXCLUDED.commission_amount,
+                net_amount = EXCLUDED.net_amount,
+                created_at = EXCLUDED.created_at,
+                completed_at = EXCLUDED.completed_at,
+                settlement_date = EXCLUDED.settlement_date,
+                event_at = EXCLUDED.event_at,
+                synced_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final int[] UPSERT_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.VARCHAR, Types.VARCHAR,
+            Types.NUMERIC, Types.NUMERIC, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP,
+            Types.TIMESTAMP_WITH_TIMEZONE
+    };
+
+    // Adds a day's change on top of whatever the row holds; a day without a row starts from the change
+    private static final String ROLLUP_SQL = """
+            INSERT INTO daily_merchant_rollups (merchant_id, rollup_date, transaction_count, gross_amount,
+                                                commission_amount, net_amount, acknowledged_count, refreshed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (merchant_id, rollup_date) DO UPDATE SET
+                transaction_count = daily_merchant_rollups.transaction_count + EXCLUDED.transaction_count,
+                gross_amount = daily_merchant_rollups.gross_amount + EXCLUDED.gross_amount,
+                commission_amount = daily_merchant_rollups.commission_amount + EXCLUDED.commission_amount,
+                net_amount = daily_merchant_rollups.net_amount + EXCLUDED.net_amount,
+                acknowledged_count = daily_merchant_rollups.acknowledged_count + EXCLUDED.acknowledged_count,
+                refreshed_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final int[] ROLLUP_TYPES = {
+            Types.VARCHAR, Types.DATE, Types.BIGINT, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.BIGINT
+    };
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionEventWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Events per merchant in arrival order; returns, per merchant, which of those events were applied
+    @Transactional
+    public Map<String, boolean[]> apply(Map<String, List<TransactionEvent>> eventsByMerchant) {
+        Map<String, boolean[]> applied = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> rollups = new ArrayList<>();
+        // Locks in merchant order, so two portal instances writing overlapping merchants can't deadlock
+        for (Map.Entry<String, List<TransactionEvent>> entry : new TreeMap<>(eventsByMerchant).entrySet()) {
+            DailyRollupWriter.lock(jdbcTemplate, entry.getKey());
+            applied.put(entry.getKey(), collect(entry.getKey(), entry.getValue(), rows, rollups));
+        }
+        flush(UPSERT_SQL, rows, UPSERT_TYPES);
+        flush(ROLLUP_SQL, rollups, ROLLUP_TYPES);
+        return applied;
+    }
+
+    // Folds one merchant's events over its stored rows; only each transaction's final state is written
+    private boolean[] collect(String merchantId, List<TransactionEvent> events,
+                              List<Object[]> rows, List<Object[]> rollups) {
+        boolean[] applied = new boolean[events.size()];
+        List<String> refs = events.stream()
+                .filter(TransactionEventWriter::usable)
+                .map(event -> event.getTransaction().getTransactionRef())
+                .distinct()
+                .toList();
+        if (refs.isEmpty()) {
+            return applied;
+        }
+        Map<String, Stored> current = load(merchantId, refs);
+        Map<String, Stored> changed = new LinkedHashMap<>();
+        Map<LocalDate, Delta> deltas = new TreeMap<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            TransactionEvent event = events.get(i);
+            if (!usable(event)) {
+                continue;
+            }
+            Transaction tx = event.getTransaction();
+            Stored before = current.get(tx.getTransactionRef());
+            if (before != null) {
+                boolean older = before.eventAt() != null && event.getOccurredAt().isBefore(before.eventAt());
+                if (older || tx.equals(before.transaction())) {
+                    continue;
+                }
+                move(deltas, before.transaction(), -1);
+            }
+            move(deltas, tx, 1);
+            Stored after = new Stored(tx, event.getOccurredAt());
+            current.put(tx.getTransactionRef(), after);
+            changed.put(tx.getTransactionRef(), after);
+            applied[i] = true;
+        }
+
+        changed.forEach((ref, stored) -> rows.add(row(merchantId, stored)));
+        deltas.forEach((day, delta) -> {
+            if (!delta.isEmpty()) {
+                rollups.add(new Object[]{merchantId, Date.valueOf(day), delta.count, delta.gross,
+                        delta.commission, delta.net, delta.acknowledged});
+            }
+        });
+        return applied;
+    }
+
+    private Map<String, Stored> load(String merchantId, List<String> refs) {
+        List<Stored> rows = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SQL);
+            ps.setString(1, merchantId);
+            ps.setArray(2, con.createArrayOf("varchar", refs.toArray()));
+            return ps;
+        }, (rs, rowNum) -> stored(rs));
+        Map<String, Stored> byRef = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> byRef.put(row.transaction().getTransactionRef(), row));
+        return byRef;
+    }
+
+    private void flush(String sql, List<Object[]> batch, int[] types) {
+        for (int from = 0; from < batch.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, batch.subList(from, Math.min(from + BATCH_SIZE, batch.size())), types);
+        }
+    }
+
+    // Rows without a reference or timestamp can't be keyed or dated, and events without a time can't be ordered
+    private static boolean usable(TransactionEvent event) {
+        return event != null && event.getOccurredAt() != null && event.getTransaction() != null
+                && event.getTransaction().getTransactionRef() != null
+                && event.getTransaction().getCreatedAt() != null;
+    }
+
+    // created_at is UTC wall-clock time; rollups are per Chicago day
+    private static void move(Map<LocalDate, Delta> deltas, Transaction tx, int sign) {
+        LocalDate day = tx.getCreatedAt().atOffset(ZoneOffset.UTC).atZoneSameInstant(CHICAGO_ZONE).toLocalDate();
+        Delta delta = deltas.computeIfAbsent(day, d -> new Delta());
+        delta.count += sign;
+        delta.gross = delta.gross.add(signed(tx.getAmount(), sign));
+        delta.commission = delta.commission.add(signed(tx.getCommissionAmount(), sign));
+        delta.net = delta.net.add(signed(tx.getNetAmount(), sign));
+        if ("ACKNOWLEDGED".equalsIgnoreCase(tx.getStatus())) {
+            delta.acknowledged += sign;
+        }
+    }
+
+    private static Object[] row(String merchantId, Stored stored) {
+        Transaction tx = stored.transaction();
+        return new Object[]{
+                merchantId,
+                tx.getTransactionRef(),
+                tx.getSessionId(),
+                decimal(tx.getAmount()),
+                tx.getCurrency(),
+                tx.getStatus(),
+                decimal(tx.getCommissionAmount()),
+                decimal(tx.getNetAmount()),
+                timestamp(tx.getCreatedAt()),
+                timestamp(tx.getCompletedAt()),
+                timestamp(tx.getSettlementDate()),
+                stored.eventAt() != null ? stored.eventAt().atOffset(ZoneOffset.UTC) : null
+        };
+    }
+
+    private static Stored stored(ResultSet rs) throws SQLException {
+        Transaction tx = new Transaction();
+        tx.setTransactionRef(rs.getString("transaction_ref"));
+        tx.setSessionId(rs.getString("session_id"));
+        tx.setAmount(toDouble(rs.getBigDecimal("amount")));
+        tx.setCurrency(rs.getString("currency"));
+        tx.setStatus(rs.getString("status"));
+        tx.setCommissionAmount(toDouble(rs.getBigDecimal("commission_amount")));
+        tx.setNetAmount(toDouble(rs.getBigDecimal("net_amount")));
+        tx.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        tx.setCompletedAt(rs.getObject("completed_at", LocalDateTime.class));
+        tx.setSettlementDate(rs.getObject("settlement_date", LocalDateTime.class));
+        OffsetDateTime eventAt = rs.getObject("event_at", OffsetDateTime.class);
+        return new Stored(tx, eventAt != null ? eventAt.toInstant() : null);
+    }
+
+    private static BigDecimal signed(Double value, int sign) {
+        return value != null ? BigDecimal.valueOf(value * sign) : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal decimal(Double value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    // A transaction as last written; eventAt is null for rows only the pull sync has written
+    private record Stored(Transaction transaction, Instant eventAt) {
+    }
+
+    private static final class Delta {
+        private long count;
+        private BigDecimal gross = BigDecimal.ZERO;
+        private BigDecimal commission = BigDecimal.ZERO;
+        private BigDecimal net = BigDecimal.ZERO;
+        private long acknowledged;
+
+        private boolean isEmpty() {
+            return count == 0 && acknowledged == 0
+                    && gross.signum() == 0 && commission.signum() == 0 && net.signum() == 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Batched, idempotent upserts into merchant_transactions. Unchanged rows are not rewritten, and neither are
+// rows a webhook event (TransactionEventWriter) moved on after the fetch started: the fetched copy is the older
+// state there, and the payments core won't redeliver an event it already had acknowledged.
+@Repository
+public class TransactionMirrorWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO merchant_transactions (merchant_id, transaction_ref, session_id, amount, currency, status,
+                                               commission_amount, net_amount, created_at, completed_at,
+                                               settlement_date, synced_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (merchant_id, transaction_ref) DO UPDATE SET
+                session_id = EXCLUDED.session_id,
+                amount = EXCLUDED.amount,
+                currency = EXCLUDED.currency,
+                status = EXCLUDED.status,
+                commission_amount = EXCLUDED.commission_amount,
+                net_amount = EXCLUDED.net_amount,
+                completed_at = EXCLUDED.completed_at,
+                settlement_date = EXCLUDED.settlement_date,
+                synced_at = CURRENT_TIMESTAMP
+            WHERE (merchant_transactions.event_at IS NULL OR merchant_transactions.event_at < ?)
+              AND (merchant_transactions.status, merchant_transactions.amount, merchant_transactions.commission_amount,
+                   merchant_transactions.net_amount, merchant_transactions.completed_at,
+                   merchant_transactions.settlement_date)
+                IS DISTINCT FROM
+                  (EXCLUDED.status, EXCLUDED.amount, EXCLUDED.commission_amount,
+                   EXCLUDED.net_amount, EXCLUDED.completed_at, EXCLUDED.settlement_date)
+            """;
+
+    private static final int[] UPSERT_TYPES = {
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.NUMERIC, Types.VARCHAR, Types.VARCHAR,
+            Types.NUMERIC, Types.NUMERIC, Types.TIMESTAMP, Types.TIMESTAMP, Types.TIMESTAMP,
+            Types.TIMESTAMP_WITH_TIMEZONE
+    };
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionMirrorWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // `fetchedAt` is when the request for `transactions` was sent; rows with a later webhook event are kept
+    public int upsert(String merchantId, Collection<Transaction> transactions, Instant fetchedAt) {
+        OffsetDateTime fetched = fetchedAt.atOffset(ZoneOffset.UTC);
+        List<Object[]> batch = new ArrayList<>(Math.min(transactions.size(), BATCH_SIZE));
+        int written = 0;
+        for (Transaction tx : transactions) {
+            // Rows without a reference or timestamp can't be keyed or ranged locally
+            if (tx.getTransactionRef() == null || tx.getCreatedAt() == null) {
+                continue;
+            }
+            batch.add(new Object[]{
+                    merchantId,
+                    tx.getTransactionRef(),
+                    tx.getSessionId(),
+                    decimal(tx.getAmount()),
+                    tx.getCurrency(),
+                    tx.getStatus(),
+                    decimal(tx.getCommissionAmount()),
+                    decimal(tx.getNetAmount()),
+                    timestamp(tx.getCreatedAt()),
+                    timestamp(tx.getCompletedAt()),
+                    timestamp(tx.getSettlementDate()),
+                    fetched
+            });
+            if (batch.size() == BATCH_SIZE) {
+                written += flush(batch);
+            }
+        }
+        return written + flush(batch);
+    }
+
+    private int flush(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, batch, UPSERT_TYPES);
+        batch.clear();
+        int written = 0;
+        for (int count : counts) {
+            // SUCCESS_NO_INFO (-2) still means the statement ran
+            written += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return written;
+    }
+
+    private static BigDecimal decimal(Double value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
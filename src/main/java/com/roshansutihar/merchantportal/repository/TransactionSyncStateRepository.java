@@ -0,0 +1,7 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.entity.TransactionSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TransactionSyncStateRepository extends JpaRepository<TransactionSyncState, String> {
+}
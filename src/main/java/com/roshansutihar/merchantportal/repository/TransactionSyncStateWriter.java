@@ -0,0 +1,53 @@
+package com.roshansutihar.merchantportal.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Claims on transaction_sync_state rows (V9), so with several portal instances each merchant's mirror is synced
+// by one of them at a time. Like SiteIdBlockWriter's blocks, a claim is a lease: released when the sync ends, and
+// claimable again once the lease runs out if the instance holding it died mid-sync. SKIP LOCKED lets an instance
+// claiming at the same moment move on to the next merchant instead of queueing on the row.
+@Repository
+public class TransactionSyncStateWriter {
+
+    private static final String ENSURE_SQL = """
+            INSERT INTO transaction_sync_state (merchant_id) VALUES (?)
+            ON CONFLICT (merchant_id) DO NOTHING
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE transaction_sync_state SET claimed_at = CURRENT_TIMESTAMP
+            WHERE merchant_id = (
+                SELECT merchant_id FROM transaction_sync_state
+                WHERE merchant_id = ?
+                  AND (claimed_at IS NULL OR claimed_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 second')
+                FOR UPDATE SKIP LOCKED)
+            RETURNING claimed_at
+            """;
+
+    // Only the claim this instance made: after an expired lease the row may belong to another instance
+    private static final String RELEASE_SQL =
+            "UPDATE transaction_sync_state SET claimed_at = NULL WHERE merchant_id = ? AND claimed_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionSyncStateWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The claim to pass to release(), or null when another instance holds a live claim on the merchant
+    public OffsetDateTime claim(String merchantId, Duration lease) {
+        jdbcTemplate.update(ENSURE_SQL, merchantId);
+        List<OffsetDateTime> claimed = jdbcTemplate.queryForList(CLAIM_SQL, OffsetDateTime.class, merchantId,
+                lease.toMillis() / 1000.0);
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    public void release(String merchantId, OffsetDateTime claim) {
+        jdbcTemplate.update(RELEASE_SQL, merchantId, claim);
+    }
+}
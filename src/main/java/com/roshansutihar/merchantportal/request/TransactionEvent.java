@@ -0,0 +1,12 @@
+package com.roshansutihar.merchantportal.request;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+// One event in a payments-core delivery: the transaction's full state as of `occurredAt`
+@Data
+public class TransactionEvent {
+    private Instant occurredAt;
+    private Transaction transaction;
+}
@@ -0,0 +1,12 @@
+package com.roshansutihar.merchantportal.request;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Body of POST /webhooks/transactions/{merchantId}; every event belongs to that merchant
+@Data
+public class TransactionEventBatch {
+    private List<TransactionEvent> events = new ArrayList<>();
+}
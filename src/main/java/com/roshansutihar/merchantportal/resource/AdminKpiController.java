@@ -0,0 +1,74 @@
+package com.roshansutihar.merchantportal.resource;
+
+import com.roshansutihar.merchantportal.dto.PlatformKpis;
+import com.roshansutihar.merchantportal.service.MerchantRegistryCache;
+import com.roshansutihar.merchantportal.service.PlatformKpiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+// Platform KPI page; guarded by the /admin/** rule in SecurityConfig
+@Controller
+@RequestMapping("/admin/kpis")
+public class AdminKpiController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminKpiController.class);
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+
+    private final PlatformKpiService platformKpiService;
+    private final MerchantRegistryCache merchantRegistryCache;
+
+    public AdminKpiController(PlatformKpiService platformKpiService, MerchantRegistryCache merchantRegistryCache) {
+        this.platformKpiService = platformKpiService;
+        this.merchantRegistryCache = merchantRegistryCache;
+    }
+
+    @GetMapping
+    public String viewKpis(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            Model model) {
+        // Default period: month to date
+        LocalDate today = LocalDate.now(CHICAGO_ZONE);
+        LocalDate end = toDate != null ? toDate : today;
+        LocalDate start = fromDate != null ? fromDate : end.withDayOfMonth(1);
+
+        model.addAttribute("fromDate", start);
+        model.addAttribute("toDate", end);
+        model.addAttribute("today", today);
+        model.addAttribute("weekStart", today.minusDays(6));
+        model.addAttribute("monthStart", today.withDayOfMonth(1));
+        model.addAttribute("thirtyDayStart", today.minusDays(29));
+
+        if (start.isAfter(end)) {
+            model.addAttribute("error", "From date must not be after the to date.");
+            return "admin-kpis";
+        }
+
+        try {
+            PlatformKpis kpis = platformKpiService.getKpis(start, end);
+            model.addAttribute("kpis", kpis);
+            model.addAttribute("merchantNames", merchantRegistryCache.storeNames());
+            model.addAttribute("computedAt", asOfChicago(kpis.getComputedAt()));
+            model.addAttribute("dataAsOf", asOfChicago(kpis.getDataAsOf()));
+        } catch (Exception e) {
+            log.error("Error computing platform KPIs for {} to {}", start, end, e);
+            model.addAttribute("error", "Unable to load platform KPIs: " + e.getMessage());
+        }
+        return "admin-kpis";
+    }
+
+    private static ZonedDateTime asOfChicago(Instant instant) {
+        return instant != null ? instant.atZone(CHICAGO_ZONE) : null;
+    }
+}
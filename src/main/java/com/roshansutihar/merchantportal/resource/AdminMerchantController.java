@@ -1,12 +1,25 @@
 package com.roshansutihar.merchantportal.resource;
 
+import com.roshansutihar.merchantportal.dto.CrossMerchantPage;
+import com.roshansutihar.merchantportal.dto.DataAsOf;
+import com.roshansutihar.merchantportal.dto.MerchantDirectoryPage;
+import com.roshansutihar.merchantportal.dto.MerchantOption;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
 import com.roshansutihar.merchantportal.entity.Merchant;
 import com.roshansutihar.merchantportal.repository.MerchantRepository;
-import com.roshansutihar.merchantportal.request.Transaction;
-import com.roshansutihar.merchantportal.response.TransactionResponse;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
 import com.roshansutihar.merchantportal.service.ApiService;
+import com.roshansutihar.merchantportal.service.CrossMerchantTransactionService;
+import com.roshansutihar.merchantportal.service.MerchantDirectoryService;
+import com.roshansutihar.merchantportal.service.MerchantRegistryCache;
+import com.roshansutihar.merchantportal.service.MerchantTiers;
+import com.roshansutihar.merchantportal.service.TransactionQueryService;
+import com.roshansutihar.merchantportal.service.WebhookSignatures;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
@@ -14,9 +27,12 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Controller
@@ -25,19 +41,46 @@ public class AdminMerchantController {
 
     private final MerchantRepository merchantRepository;
     private final ApiService apiService;
+    private final TransactionQueryService transactionQueryService;
+    private final CrossMerchantTransactionService crossMerchantTransactionService;
+    private final MerchantDirectoryService merchantDirectoryService;
+    private final MerchantRegistryCache merchantRegistryCache;
 
     private static final Logger log = LoggerFactory.getLogger(AdminMerchantController.class);
 
     // Add timezone constant
     private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
 
-    public AdminMerchantController(MerchantRepository merchantRepository, ApiService apiService) {
+    // merchantId value for the cross-merchant view
+    static final String ALL_MERCHANTS = "all";
+
+    @Value("${transactions.page-size:50}")
+    private int pageSize;
+
+    @Value("${admin.merchant-directory.page-size:25}")
+    private int directoryPageSize;
+
+    @Value("${admin.merchant-directory.typeahead-limit:10}")
+    private int typeaheadLimit;
+
+    public AdminMerchantController(MerchantRepository merchantRepository, ApiService apiService,
+                                   TransactionQueryService transactionQueryService,
+                                   CrossMerchantTransactionService crossMerchantTransactionService,
+                                   MerchantDirectoryService merchantDirectoryService,
+                                   MerchantRegistryCache merchantRegistryCache) {
         this.merchantRepository = merchantRepository;
         this.apiService = apiService;
+        this.transactionQueryService = transactionQueryService;
+        this.crossMerchantTransactionService = crossMerchantTransactionService;
+        this.merchantDirectoryService = merchantDirectoryService;
+        this.merchantRegistryCache = merchantRegistryCache;
     }
 
     @GetMapping("/merchants")
-    public String viewAllMerchants(Model model, Authentication authentication) {
+    public String viewAllMerchants(@RequestParam(required = false) String q,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "next") String direction,
+                                   Model model, Authentication authentication) {
         // Security check - only admins can access
         if (authentication == null || !authentication.isAuthenticated()) {
             return "redirect:/";
@@ -54,10 +97,16 @@ public class AdminMerchantController {
             return "redirect:/dashboard";
         }
 
+        String query = q != null ? q.trim() : "";
+        model.addAttribute("query", query);
+
         try {
-            List<Merchant> merchants = merchantRepository.findAll();
-            model.addAttribute("merchants", merchants);
-            model.addAttribute("totalMerchants", merchants.size());
+            // One page of the directory, optionally narrowed by the search box
+            MerchantDirectoryPage page = merchantDirectoryService.getPage(
+                    query, cursor, PageDirection.from(direction), directoryPageSize);
+            model.addAttribute("page", page);
+            model.addAttribute("merchants", page.getMerchants());
+            model.addAttribute("totalMerchants", merchantRegistryCache.count());
 
         } catch (Exception e) {
             log.error("Error loading merchant list", e);
@@ -67,14 +116,24 @@ public class AdminMerchantController {
         return "admin-merchants";
     }
 
+    // Typeahead suggestions for the merchant picker on admin-transactions.html
+    @GetMapping("/merchants/search")
+    @ResponseBody
+    public List<MerchantOption> searchMerchants(@RequestParam(required = false) String q) {
+        return merchantDirectoryService.search(q, typeaheadLimit);
+    }
+
     @GetMapping("/transactions")
     public String viewAdminTransactions(
             @RequestParam(required = false) String merchantId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "next") String direction,
             Model model,
-            Authentication authentication) {
+            Authentication authentication,
+            HttpServletRequest request) {
 
         // Admin security check
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -89,9 +148,7 @@ public class AdminMerchantController {
             return "redirect:/dashboard";
         }
 
-        List<Merchant> merchants = merchantRepository.findAll();
-        model.addAttribute("merchants", merchants);
-        model.addAttribute("totalMerchants", merchants.size());
+        model.addAttribute("totalMerchants", merchantRegistryCache.count());
 
         // Default date range: last 30 days if none provided
         LocalDate end = (toDate != null) ? toDate : LocalDate.now(CHICAGO_ZONE);
@@ -101,40 +158,49 @@ public class AdminMerchantController {
         model.addAttribute("toDate", end);
         model.addAttribute("selectedStatus", status != null ? status : "");
 
-        if (merchantId != null && !merchantId.isEmpty()) {
-            Optional<Merchant> selectedMerchantOpt = merchants.stream()
-                    .filter(m -> m.getMerchantId().equals(merchantId))
-                    .findFirst();
+        if (ALL_MERCHANTS.equals(merchantId)) {
+            model.addAttribute("selectedMerchantId", ALL_MERCHANTS);
+            model.addAttribute("allMerchants", true);
+            Map<String, String> merchantNames = merchantRegistryCache.storeNames();
+            model.addAttribute("merchantNames", merchantNames);
+
+            try {
+                CrossMerchantPage page = crossMerchantTransactionService.getPage(
+                        List.copyOf(merchantNames.keySet()),
+                        start, end, status, cursor, PageDirection.from(direction), pageSize);
+                model.addAttribute("transactions", page.getPage());
+                model.addAttribute("rowMerchants", page.getRowMerchantIds());
+                model.addAttribute("missingMerchants", page.getMissingMerchantIds());
+                model.addAttribute("dataAsOf", asOfChicago(page.getPage().getDataAsOf()));
+            } catch (Exception e) {
+                log.error("Error fetching transactions across merchants", e);
+                model.addAttribute("error", "Unable to load transactions: " + e.getMessage());
+            }
+        } else if (merchantId != null && !merchantId.isEmpty()) {
+            Optional<Merchant> selectedMerchantOpt = merchantRegistryCache.findByMerchantId(merchantId);
 
             if (selectedMerchantOpt.isPresent()) {
                 Merchant selected = selectedMerchantOpt.get();
+                // Admin checked and the merchant exists: the request timing can carry its tier
+                request.setAttribute(MerchantTiers.MERCHANT_ID_ATTRIBUTE, merchantId);
                 model.addAttribute("selectedMerchant", selected);
                 model.addAttribute("selectedMerchantId", merchantId);
 
                 try {
-                    TransactionResponse transactions = apiService.getTransactionsByDateRange(
-                            merchantId, start, end, status);
-                    model.addAttribute("transactions", transactions);
-
-                    // Calculate totals for display
-                    double totalAmount = 0.0;
-                    double totalCommission = 0.0;
-                    double totalNet = 0.0;
-
-                    if (transactions != null && transactions.getTransactions() != null) {
-                        for (Transaction tx : transactions.getTransactions()) {
-                            totalAmount += tx.getAmount() != null ? tx.getAmount() : 0.0;
-                            totalCommission += tx.getCommissionAmount() != null ? tx.getCommissionAmount() : 0.0;
-                            totalNet += tx.getNetAmount() != null ? tx.getNetAmount() : 0.0;
-                        }
-                    }
-
-                    model.addAttribute("totalAmount", totalAmount);
-                    model.addAttribute("totalCommission", totalCommission);
-                    model.addAttribute("totalNet", totalNet);
-                    model.addAttribute("transactionCount",
-                            transactions != null && transactions.getTransactions() != null ?
-                                    transactions.getTransactions().size() : 0);
+                    TransactionPage page = transactionQueryService.getTransactionPage(
+                            merchantId, start, end, status, cursor, PageDirection.from(direction), pageSize);
+                    model.addAttribute("transactions", page);
+
+                    SummaryResponse rangeSummary = transactionQueryService.getSummary(merchantId, start, end, status);
+                    model.addAttribute("totalAmount", rangeSummary != null && rangeSummary.getTotalAmount() != null
+                            ? rangeSummary.getTotalAmount() : 0.0);
+                    model.addAttribute("totalCommission", rangeSummary != null && rangeSummary.getTotalCommission() != null
+                            ? rangeSummary.getTotalCommission() : 0.0);
+                    model.addAttribute("totalNet", rangeSummary != null && rangeSummary.getTotalNetAmount() != null
+                            ? rangeSummary.getTotalNetAmount() : 0.0);
+                    model.addAttribute("transactionCount", rangeSummary != null && rangeSummary.getTotalTransactions() != null
+                            ? rangeSummary.getTotalTransactions() : 0L);
+                    model.addAttribute("dataAsOf", asOfChicago(DataAsOf.oldest(page, rangeSummary)));
 
                 } catch (Exception e) {
                     log.error("Error fetching transactions for merchant {}", merchantId, e);
@@ -175,6 +241,7 @@ public class AdminMerchantController {
         merchant.setBankAccountNumber(bankAccountNumber);
         merchant.setBankRoutingNumber(bankRoutingNumber);
         merchantRepository.save(merchant);
+        merchantRegistryCache.invalidate();
 
         redirectAttributes.addFlashAttribute("success", "Bank details updated successfully");
         return "redirect:/admin/merchants/" + merchantId + "/edit";
@@ -198,7 +265,10 @@ public class AdminMerchantController {
                     : "••••••••";
 
             merchant.setSecretKey(maskedSecretKey);
+            // The payments core signs webhook deliveries with a key derived from the new secret from now on
+            merchant.setWebhookSigningKey(WebhookSignatures.signingKey(newFullSecretKey));
             merchantRepository.save(merchant);
+            merchantRegistryCache.invalidate();
 
             redirectAttributes.addFlashAttribute("newFullSecretKey", newFullSecretKey);
             redirectAttributes.addFlashAttribute("success", "Secret key rotated successfully");
@@ -209,4 +279,9 @@ public class AdminMerchantController {
 
         return "redirect:/admin/merchants/" + merchantId + "/edit";
     }
-}
\ No newline at end of file
+
+    // "Data as of" marker for the stale-data banner, in the portal's Chicago time
+    private static ZonedDateTime asOfChicago(Instant dataAsOf) {
+        return dataAsOf != null ? dataAsOf.atZone(CHICAGO_ZONE) : null;
+    }
+}
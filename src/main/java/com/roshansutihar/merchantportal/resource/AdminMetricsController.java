@@ -0,0 +1,92 @@
+package com.roshansutihar.merchantportal.resource;
+
+import com.roshansutihar.merchantportal.service.ApiService;
+import com.roshansutihar.merchantportal.service.MerchantRegistryCache;
+import com.roshansutihar.merchantportal.service.PaymentsCoreGuard;
+import com.roshansutihar.merchantportal.service.SiteIdAllocator;
+import com.roshansutihar.merchantportal.service.SummaryCache;
+import com.roshansutihar.merchantportal.service.TransactionEventBatcher;
+import com.roshansutihar.merchantportal.service.ValidatedResponseCache;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// JSON stats for admins; guarded by the /admin/** rule in SecurityConfig
+@RestController
+@RequestMapping("/admin/metrics")
+public class AdminMetricsController {
+
+    private final PoolingHttpClientConnectionManager outboundConnectionManager;
+    private final SummaryCache summaryCache;
+    private final PaymentsCoreGuard paymentsCoreGuard;
+    private final ApiService apiService;
+    private final ValidatedResponseCache validatedResponseCache;
+    private final TransactionEventBatcher transactionEventBatcher;
+    private final MerchantRegistryCache merchantRegistryCache;
+    private final SiteIdAllocator siteIdAllocator;
+
+    public AdminMetricsController(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                  SummaryCache summaryCache,
+                                  PaymentsCoreGuard paymentsCoreGuard,
+                                  ApiService apiService,
+                                  ValidatedResponseCache validatedResponseCache,
+                                  TransactionEventBatcher transactionEventBatcher,
+                                  MerchantRegistryCache merchantRegistryCache,
+                                  SiteIdAllocator siteIdAllocator) {
+        this.outboundConnectionManager = outboundConnectionManager;
+        this.summaryCache = summaryCache;
+        this.paymentsCoreGuard = paymentsCoreGuard;
+        this.apiService = apiService;
+        this.validatedResponseCache = validatedResponseCache;
+        this.transactionEventBatcher = transactionEventBatcher;
+        this.merchantRegistryCache = merchantRegistryCache;
+        this.siteIdAllocator = siteIdAllocator;
+    }
+
+    @GetMapping("/http-pool")
+    public Map<String, Object> httpPool() {
+        PoolStats totals = outboundConnectionManager.getTotalStats();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leased", totals.getLeased());
+        stats.put("available", totals.getAvailable());
+        stats.put("pending", totals.getPending());
+        stats.put("max", totals.getMax());
+        stats.put("maxPerRoute", outboundConnectionManager.getDefaultMaxPerRoute());
+        stats.put("routes", outboundConnectionManager.getRoutes().size());
+        return stats;
+    }
+
+    @GetMapping("/summary-cache")
+    public Map<String, Object> summaryCache() {
+        return summaryCache.stats();
+    }
+
+    @GetMapping("/merchant-registry")
+    public Map<String, Object> merchantRegistry() {
+        return merchantRegistryCache.stats();
+    }
+
+    @GetMapping("/site-ids")
+    public Map<String, Object> siteIds() {
+        return siteIdAllocator.stats();
+    }
+
+    @GetMapping("/webhook")
+    public Map<String, Object> webhook() {
+        return transactionEventBatcher.stats();
+    }
+
+    @GetMapping("/payments-core")
+    public Map<String, Object> paymentsCore() {
+        Map<String, Object> stats = new LinkedHashMap<>(paymentsCoreGuard.stats());
+        stats.put("singleFlight", apiService.singleFlightStats());
+        stats.put("validatedCache", validatedResponseCache.stats());
+        return stats;
+    }
+}
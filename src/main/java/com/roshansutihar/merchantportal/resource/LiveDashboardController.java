@@ -0,0 +1,62 @@
+package com.roshansutihar.merchantportal.resource;
+
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.service.LiveDashboardFeed;
+import com.roshansutihar.merchantportal.service.MerchantRegistryCache;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+// Event stream behind the open dashboard (see LiveDashboardFeed). Like the merchant export, the merchant
+// comes from the login, so a tab can only follow its own merchant.
+@Controller
+public class LiveDashboardController {
+
+    private final LiveDashboardFeed liveDashboardFeed;
+    private final MerchantRegistryCache merchantRegistryCache;
+
+    public LiveDashboardController(LiveDashboardFeed liveDashboardFeed, MerchantRegistryCache merchantRegistryCache) {
+        this.liveDashboardFeed = liveDashboardFeed;
+        this.merchantRegistryCache = merchantRegistryCache;
+    }
+
+    @GetMapping(path = "/dashboard/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> liveDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            Authentication authentication) {
+
+        Optional<Merchant> merchant = merchantRegistryCache.findBySiteId(authentication.getName());
+        if (merchant.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        // Keeps proxies from buffering the stream
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(liveDashboardFeed.subscribe(merchant.get().getMerchantId(), resumeFrom(since, lastEventId)));
+    }
+
+    // A reconnect repeats the original URL; the id of the last rows event it received says how far it got
+    private static LocalDateTime resumeFrom(LocalDateTime since, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return since;
+        }
+        try {
+            LocalDateTime received = LocalDateTime.parse(lastEventId);
+            return since == null || received.isAfter(since) ? received : since;
+        } catch (DateTimeParseException e) {
+            return since;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.roshansutihar.merchantportal.resource;
 
 
+import com.roshansutihar.merchantportal.dto.DashboardData;
+import com.roshansutihar.merchantportal.dto.DataAsOf;
 import com.roshansutihar.merchantportal.dto.DashboardSummary;
 import com.roshansutihar.merchantportal.dto.TransactionDTO;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.PeriodComparison;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
 import com.roshansutihar.merchantportal.entity.Merchant;
 import com.roshansutihar.merchantportal.repository.MerchantRepository;
 import com.roshansutihar.merchantportal.request.Transaction;
@@ -10,10 +16,18 @@ import com.roshansutihar.merchantportal.response.MerchantResponse;
 import com.roshansutihar.merchantportal.response.SummaryResponse;
 import com.roshansutihar.merchantportal.response.TransactionResponse;
 import com.roshansutihar.merchantportal.service.ApiService;
+import com.roshansutihar.merchantportal.service.DashboardLoader;
 import com.roshansutihar.merchantportal.service.KeycloakAdminService;
-import com.roshansutihar.merchantportal.service.SiteIdGeneratorService;
+import com.roshansutihar.merchantportal.service.MerchantRegistryCache;
+import com.roshansutihar.merchantportal.service.MerchantTiers;
+import com.roshansutihar.merchantportal.service.SiteIdAllocator;
+import com.roshansutihar.merchantportal.service.SummaryCache;
+import com.roshansutihar.merchantportal.service.TransactionQueryService;
+import com.roshansutihar.merchantportal.service.WebhookSignatures;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
@@ -23,11 +37,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import java.util.*;
@@ -38,8 +55,12 @@ public class MerchantUiPortalController {
 
     private final ApiService apiService;
     private final MerchantRepository merchantRepository;
-    private final SiteIdGeneratorService siteIdGeneratorService;
+    private final SiteIdAllocator siteIdAllocator;
     private final KeycloakAdminService keycloakAdminService;
+    private final DashboardLoader dashboardLoader;
+    private final SummaryCache summaryCache;
+    private final TransactionQueryService transactionQueryService;
+    private final MerchantRegistryCache merchantRegistryCache;
     private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
 
     private static final Logger log = LoggerFactory.getLogger(MerchantUiPortalController.class);
@@ -47,15 +68,26 @@ public class MerchantUiPortalController {
     // UTC timezone constant
     private static final ZoneId UTC_ZONE = ZoneId.of("UTC");
 
+    @Value("${transactions.page-size:50}")
+    private int pageSize;
+
     public MerchantUiPortalController(
             ApiService apiService,
             MerchantRepository merchantRepository,
-            SiteIdGeneratorService siteIdGeneratorService,
-            KeycloakAdminService keycloakAdminService) {
+            SiteIdAllocator siteIdAllocator,
+            KeycloakAdminService keycloakAdminService,
+            DashboardLoader dashboardLoader,
+            SummaryCache summaryCache,
+            TransactionQueryService transactionQueryService,
+            MerchantRegistryCache merchantRegistryCache) {
         this.apiService = apiService;
         this.merchantRepository = merchantRepository;
-        this.siteIdGeneratorService = siteIdGeneratorService;
+        this.siteIdAllocator = siteIdAllocator;
         this.keycloakAdminService = keycloakAdminService;
+        this.dashboardLoader = dashboardLoader;
+        this.summaryCache = summaryCache;
+        this.transactionQueryService = transactionQueryService;
+        this.merchantRegistryCache = merchantRegistryCache;
     }
 
     @GetMapping("/")
@@ -83,10 +115,12 @@ public class MerchantUiPortalController {
         return "redirect:/dashboard";
     }
 
+    // Returns a future so the request thread is released while the panels load (see DashboardLoader.loadAsync)
     @GetMapping("/dashboard")
-    public String dashboard(Model model, Authentication authentication) {
+    public CompletableFuture<String> dashboard(Model model, Authentication authentication,
+                                               HttpServletRequest request) {
         if (authentication == null || !authentication.isAuthenticated()) {
-            return "redirect:/";
+            return CompletableFuture.completedFuture("redirect:/");
         }
 
         boolean isAdmin = authentication.getAuthorities().stream()
@@ -96,20 +130,22 @@ public class MerchantUiPortalController {
                 });
 
         if (isAdmin) {
-            return "redirect:/register-merchant";
+            return CompletableFuture.completedFuture("redirect:/register-merchant");
         }
 
         String siteId = authentication.getName();
 
         try {
-            Optional<Merchant> merchantOpt = merchantRepository.findBySiteId(siteId);
+            Optional<Merchant> merchantOpt = merchantRegistryCache.findBySiteId(siteId);
             if (merchantOpt.isEmpty()) {
                 model.addAttribute("error", "Merchant profile not found. Please contact support.");
-                return "dashboard";
+                return CompletableFuture.completedFuture("dashboard");
             }
 
             Merchant merchant = merchantOpt.get();
             String merchantId = merchant.getMerchantId();
+            // Lets the request timing be labelled with the merchant's tier
+            request.setAttribute(MerchantTiers.MERCHANT_ID_ATTRIBUTE, merchantId);
 
             model.addAttribute("merchant", merchant);
             model.addAttribute("selectedMerchant", merchantId);
@@ -117,80 +153,30 @@ public class MerchantUiPortalController {
             // FIXED: Use Chicago dates like admin controller
             LocalDate todayChicago = LocalDate.now(CHICAGO_ZONE);
 
-            // Get transactions for Chicago "today"
-            TransactionResponse todayTransactions = apiService.getTransactionsByDateRange(
-                    merchantId, todayChicago, todayChicago, null
-            );
-
-            double totalAmount = 0.0;
-            double totalCommission = 0.0;
-            double totalNet = 0.0;
-
-            if (todayTransactions != null && todayTransactions.getTransactions() != null) {
-                for (Transaction tx : todayTransactions.getTransactions()) {
-                    totalAmount += tx.getAmount() != null ? tx.getAmount() : 0.0;
-                    totalCommission += tx.getCommissionAmount() != null ? tx.getCommissionAmount() : 0.0;
-                    totalNet += tx.getNetAmount() != null ? tx.getNetAmount() : 0.0;
-                }
-            }
-
-            model.addAttribute("totalAmount", totalAmount);
-            model.addAttribute("totalCommission", totalCommission);
-            model.addAttribute("totalNet", totalNet);
-            model.addAttribute("transactions", todayTransactions);
-
-            // Summary statistics - use Chicago dates
-            LocalDate monthStartChicago = todayChicago.withDayOfMonth(1);
-            SummaryResponse todaySummary = apiService.getSummary(merchantId, todayChicago, todayChicago);
-            SummaryResponse monthSummary = apiService.getSummary(merchantId, monthStartChicago, todayChicago);
-
-            // Build dashboard summary
-            DashboardSummary summary = new DashboardSummary();
-
-            // Today's Transactions Count
-            long todayCount = todaySummary != null && todaySummary.getTotalTransactions() != null
-                    ? todaySummary.getTotalTransactions()
-                    : 0L;
-            summary.setTodaysTransactionCount(todayCount);
-
-            // Today's Sales
-            BigDecimal todaySales = todaySummary != null && todaySummary.getTotalAmount() != null
-                    ? BigDecimal.valueOf(todaySummary.getTotalAmount())
-                    : BigDecimal.ZERO;
-            summary.setTodaysSales(todaySales);
-
-            // Acknowledged count
-            long acknowledgedCount = 0L;
-            if (todayTransactions != null && todayTransactions.getTransactions() != null) {
-                acknowledgedCount = todayTransactions.getTransactions().stream()
-                        .filter(tx -> tx.getStatus() != null &&
-                                tx.getStatus().equalsIgnoreCase("ACKNOWLEDGED"))
-                        .count();
-            }
-            summary.setAcknowledgedCount(acknowledgedCount);
-
-            // Monthly Total
-            BigDecimal monthlyTotal = monthSummary != null && monthSummary.getTotalAmount() != null
-                    ? BigDecimal.valueOf(monthSummary.getTotalAmount())
-                    : BigDecimal.ZERO;
-            summary.setMonthlyTotal(monthlyTotal);
-
-            model.addAttribute("summary", summary);
-
             // Form defaults
             model.addAttribute("view", "today");
             model.addAttribute("fromDate", todayChicago);
             model.addAttribute("toDate", todayChicago);
             model.addAttribute("selectedStatus", "");
 
+            return dashboardLoader.loadAsync(merchantId, todayChicago)
+                    .thenApply(data -> {
+                        populateDashboard(model, data);
+                        return "dashboard";
+                    })
+                    .exceptionally(e -> dashboardError(model, siteId, e));
+
         } catch (Exception e) {
-            log.error("Error loading dashboard for siteId: {}", siteId, e);
-            model.addAttribute("error", "Unable to load dashboard: " + e.getMessage());
-            model.addAttribute("totalAmount", 0.0);
-            model.addAttribute("totalCommission", 0.0);
-            model.addAttribute("totalNet", 0.0);
+            return CompletableFuture.completedFuture(dashboardError(model, siteId, e));
         }
+    }
 
+    private String dashboardError(Model model, String siteId, Throwable e) {
+        log.error("Error loading dashboard for siteId: {}", siteId, e);
+        model.addAttribute("error", "Unable to load dashboard: " + e.getMessage());
+        model.addAttribute("totalAmount", 0.0);
+        model.addAttribute("totalCommission", 0.0);
+        model.addAttribute("totalNet", 0.0);
         return "dashboard";
     }
 
@@ -319,7 +305,7 @@ public class MerchantUiPortalController {
 
             MerchantResponse response = apiService.registerMerchant(requestBody);
 
-            String siteId = siteIdGeneratorService.generateUniqueSiteId();
+            String siteId = siteIdAllocator.allocate();
 
             String fullSecretKey = response.getSecretKey();
             String maskedSecretKey = fullSecretKey != null && fullSecretKey.length() > 8
@@ -338,8 +324,10 @@ public class MerchantUiPortalController {
             merchant.setBankAccountNumber(cleanedAccountNumber);
             merchant.setBankRoutingNumber(cleanedRoutingNumber);
             merchant.setSecretKey(maskedSecretKey);
+            merchant.setWebhookSigningKey(WebhookSignatures.signingKey(fullSecretKey));
 
             merchantRepository.save(merchant);
+            merchantRegistryCache.invalidate();
 
             String tempPassword = "admin123";
 
@@ -369,84 +357,55 @@ public class MerchantUiPortalController {
     }
 
     @PostMapping("/transactions/today")
-    public String getTodayTransactions(@RequestParam String merchantId, Model model, Authentication authentication) {
+    public CompletableFuture<String> getTodayTransactions(@RequestParam String merchantId, Model model,
+                                                          Authentication authentication,
+                                                          HttpServletRequest request) {
+        tagOwnMerchant(request, authentication, merchantId);
         try {
             // FIXED: Use Chicago dates like admin controller
             LocalDate todayChicago = LocalDate.now(CHICAGO_ZONE);
 
-            TransactionResponse response = apiService.getTransactionsByDateRange(
-                    merchantId, todayChicago, todayChicago, null
-            );
-
-            // Get summary data using Chicago dates
-            SummaryResponse todaySummary = apiService.getSummary(merchantId, todayChicago, todayChicago);
-            LocalDate monthStartChicago = todayChicago.withDayOfMonth(1);
-            SummaryResponse monthSummary = apiService.getSummary(merchantId, monthStartChicago, todayChicago);
-
-            // Calculate totals
-            double totalAmount = 0.0;
-            double totalCommission = 0.0;
-            double totalNet = 0.0;
-
-            if (response != null && response.getTransactions() != null) {
-                for (Transaction tx : response.getTransactions()) {
-                    totalAmount += tx.getAmount() != null ? tx.getAmount() : 0.0;
-                    totalCommission += tx.getCommissionAmount() != null ? tx.getCommissionAmount() : 0.0;
-                    totalNet += tx.getNetAmount() != null ? tx.getNetAmount() : 0.0;
-                }
-            }
-
-            // Build dashboard summary
-            DashboardSummary summary = new DashboardSummary();
-
-            long todayCount = todaySummary != null && todaySummary.getTotalTransactions() != null
-                    ? todaySummary.getTotalTransactions()
-                    : 0L;
-            summary.setTodaysTransactionCount(todayCount);
-
-            BigDecimal todaySales = todaySummary != null && todaySummary.getTotalAmount() != null
-                    ? BigDecimal.valueOf(todaySummary.getTotalAmount())
-                    : BigDecimal.ZERO;
-            summary.setTodaysSales(todaySales);
-
-            long acknowledgedCount = 0L;
-            if (response != null && response.getTransactions() != null) {
-                acknowledgedCount = response.getTransactions().stream()
-                        .filter(tx -> tx.getStatus() != null &&
-                                tx.getStatus().equalsIgnoreCase("ACKNOWLEDGED"))
-                        .count();
-            }
-            summary.setAcknowledgedCount(acknowledgedCount);
-
-            BigDecimal monthlyTotal = monthSummary != null && monthSummary.getTotalAmount() != null
-                    ? BigDecimal.valueOf(monthSummary.getTotalAmount())
-                    : BigDecimal.ZERO;
-            summary.setMonthlyTotal(monthlyTotal);
-
             // Get merchant info
             String siteId = authentication.getName();
-            Optional<Merchant> merchantOpt = merchantRepository.findBySiteId(siteId);
+            Optional<Merchant> merchantOpt = merchantRegistryCache.findBySiteId(siteId);
             if (merchantOpt.isPresent()) {
                 Merchant merchant = merchantOpt.get();
                 model.addAttribute("merchant", merchant);
             }
 
             // Add all attributes to model
-            model.addAttribute("transactions", response);
             model.addAttribute("selectedMerchant", merchantId);
-            model.addAttribute("summary", summary);
-            model.addAttribute("totalAmount", totalAmount);
-            model.addAttribute("totalCommission", totalCommission);
-            model.addAttribute("totalNet", totalNet);
             model.addAttribute("view", "today");
             model.addAttribute("fromDate", todayChicago);
             model.addAttribute("toDate", todayChicago);
             model.addAttribute("selectedStatus", "");
 
+            return dashboardLoader.loadAsync(merchantId, todayChicago)
+                    .thenApply(data -> {
+                        populateDashboard(model, data);
+                        return "dashboard";
+                    })
+                    .exceptionally(e -> todayTransactionsError(model, merchantId, e));
+
         } catch (Exception e) {
-            log.error("Error fetching today's transactions for merchant: {}", merchantId, e);
-            model.addAttribute("error", "Error fetching today's transactions: " + e.getMessage());
+            return CompletableFuture.completedFuture(todayTransactionsError(model, merchantId, e));
         }
+    }
+
+    // Lets the request timing be labelled with the merchant's tier, but only when the form's merchant is the
+    // logged-in merchant's own
+    private void tagOwnMerchant(HttpServletRequest request, Authentication authentication, String merchantId) {
+        if (authentication == null || merchantId == null) {
+            return;
+        }
+        merchantRegistryCache.findBySiteId(authentication.getName())
+                .filter(merchant -> merchantId.equals(merchant.getMerchantId()))
+                .ifPresent(merchant -> request.setAttribute(MerchantTiers.MERCHANT_ID_ATTRIBUTE, merchantId));
+    }
+
+    private String todayTransactionsError(Model model, String merchantId, Throwable e) {
+        log.error("Error fetching today's transactions for merchant: {}", merchantId, e);
+        model.addAttribute("error", "Error fetching today's transactions: " + e.getMessage());
         return "dashboard";
     }
 
@@ -457,14 +416,31 @@ public class MerchantUiPortalController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @RequestParam(required = false) String status,
-            Model model) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "next") String direction,
+            Model model,
+            Authentication authentication,
+            HttpServletRequest request) {
 
+        tagOwnMerchant(request, authentication, merchantId);
         try {
             // Note: The dates from the form are assumed to be in UTC already
             // If your users are selecting dates in their local timezone, you'd need to convert them
-            TransactionResponse response = apiService.getTransactionsByDateRange(merchantId, fromDate, toDate, status);
-
-            model.addAttribute("transactions", response);
+            TransactionPage page = transactionQueryService.getTransactionPage(
+                    merchantId, fromDate, toDate, status, cursor, PageDirection.from(direction), pageSize);
+
+            SummaryResponse rangeSummary = transactionQueryService.getSummary(merchantId, fromDate, toDate, status);
+
+            model.addAttribute("transactions", page);
+            model.addAttribute("totalAmount", rangeSummary != null && rangeSummary.getTotalAmount() != null
+                    ? rangeSummary.getTotalAmount() : 0.0);
+            model.addAttribute("totalCommission", rangeSummary != null && rangeSummary.getTotalCommission() != null
+                    ? rangeSummary.getTotalCommission() : 0.0);
+            model.addAttribute("totalNet", rangeSummary != null && rangeSummary.getTotalNetAmount() != null
+                    ? rangeSummary.getTotalNetAmount() : 0.0);
+            model.addAttribute("transactionCount", rangeSummary != null && rangeSummary.getTotalTransactions() != null
+                    ? rangeSummary.getTotalTransactions() : 0L);
+            model.addAttribute("dataAsOf", asOfChicago(DataAsOf.oldest(page, rangeSummary)));
             model.addAttribute("selectedMerchant", merchantId);
             model.addAttribute("fromDate", fromDate);
             model.addAttribute("toDate", toDate);
@@ -482,12 +458,16 @@ public class MerchantUiPortalController {
             @RequestParam String merchantId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
-            Model model) {
+            Model model,
+            Authentication authentication,
+            HttpServletRequest request) {
 
+        tagOwnMerchant(request, authentication, merchantId);
         try {
-            SummaryResponse response = apiService.getSummary(merchantId, fromDate, toDate);
+            SummaryResponse response = summaryCache.getSummary(merchantId, fromDate, toDate);
 
             model.addAttribute("summary", response);
+            model.addAttribute("dataAsOf", asOfChicago(DataAsOf.oldest(response)));
             model.addAttribute("selectedMerchant", merchantId);
             model.addAttribute("fromDate", fromDate);
             model.addAttribute("toDate", toDate);
@@ -499,6 +479,51 @@ public class MerchantUiPortalController {
         return "dashboard";
     }
 
+    private void populateDashboard(Model model, DashboardData data) {
+        TransactionResponse todayTransactions = data.getTodayTransactions();
+        SummaryResponse monthSummary = data.getMonthSummary();
+        TransactionTotals todayTotals = data.getTodayTotals() != null ? data.getTodayTotals() : new TransactionTotals();
+
+        model.addAttribute("totalAmount", todayTotals.getTotalAmount());
+        model.addAttribute("totalCommission", todayTotals.getTotalCommission());
+        model.addAttribute("totalNet", todayTotals.getTotalNet());
+        model.addAttribute("currencyTotals", todayTotals.getCurrencyTotals());
+        model.addAttribute("mixedCurrency", todayTotals.isMixedCurrency());
+        model.addAttribute("transactions", todayTransactions);
+        // Newest row on the page; the live feed sends anything after it when the tab connects
+        model.addAttribute("liveSince", todayTransactions == null || todayTransactions.getTransactions() == null
+                ? null
+                : todayTransactions.getTransactions().stream()
+                        .map(Transaction::getCreatedAt)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder())
+                        .map(DateTimeFormatter.ISO_LOCAL_DATE_TIME::format)
+                        .orElse(null));
+
+        // Build dashboard summary
+        DashboardSummary summary = new DashboardSummary();
+        summary.setTodaysTransactionCount(todayTotals.getCount());
+        summary.setTodaysSales(todayTotals.getTotalAmount());
+        summary.setAcknowledgedCount(todayTotals.getAcknowledgedCount());
+
+        // Monthly Total
+        BigDecimal monthlyTotal = monthSummary != null && monthSummary.getTotalAmount() != null
+                ? BigDecimal.valueOf(monthSummary.getTotalAmount())
+                : BigDecimal.ZERO;
+        summary.setMonthlyTotal(monthlyTotal);
+
+        model.addAttribute("summary", summary);
+        model.addAttribute("partialPanels", data.getPartialPanels());
+        PeriodComparison weekOverWeek = data.getWeekOverWeek();
+        model.addAttribute("weekOverWeek", weekOverWeek);
+        model.addAttribute("dataAsOf", asOfChicago(DataAsOf.oldest(todayTransactions, monthSummary,
+                weekOverWeek != null ? weekOverWeek.current() : null,
+                weekOverWeek != null ? weekOverWeek.previous() : null)));
+        if (data.getPartialPanels().containsAll(DashboardLoader.ALL_PANELS)) {
+            model.addAttribute("error", "Unable to reach the payments service. Please try again shortly.");
+        }
+    }
+
     private String generateTempPassword() {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*";
         Random random = new Random();
@@ -508,4 +533,9 @@ public class MerchantUiPortalController {
         }
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    // "Data as of" marker for the stale-data banner, in the portal's Chicago time
+    private static ZonedDateTime asOfChicago(Instant dataAsOf) {
+        return dataAsOf != null ? dataAsOf.atZone(CHICAGO_ZONE) : null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.roshansutihar.merchantportal.resource;
+
+import com.roshansutihar.merchantportal.dto.ExportFormat;
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.service.MerchantRegistryCache;
+import com.roshansutihar.merchantportal.service.TransactionExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+// Downloads are written by the MVC async executor (see WebConfig), not the request thread
+@Controller
+public class TransactionExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportController.class);
+
+    private final TransactionExportService transactionExportService;
+    private final MerchantRegistryCache merchantRegistryCache;
+
+    public TransactionExportController(TransactionExportService transactionExportService,
+                                       MerchantRegistryCache merchantRegistryCache) {
+        this.transactionExportService = transactionExportService;
+        this.merchantRegistryCache = merchantRegistryCache;
+    }
+
+    // Merchants can only export their own transactions; the merchant comes from the login, not the request
+    @GetMapping("/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication) {
+
+        Optional<Merchant> merchant = merchantRegistryCache.findBySiteId(authentication.getName());
+        if (merchant.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return export(merchant.get().getMerchantId(), fromDate, toDate, status, format, gzip);
+    }
+
+    @GetMapping("/admin/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportMerchantTransactions(
+            @RequestParam String merchantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        if (merchantRegistryCache.findByMerchantId(merchantId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return export(merchantId, fromDate, toDate, status, format, gzip);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String merchantId, LocalDate fromDate, LocalDate toDate,
+                                                         String status, String format, boolean gzip) {
+        if (toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        String normalizedStatus = status != null && !status.isEmpty() ? status : null;
+        String filename = "transactions-" + merchantId + "-" + fromDate + "-" + toDate + "." + exportFormat.getExtension()
+                + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            try {
+                transactionExportService.export(merchantId, fromDate, toDate, normalizedStatus, exportFormat, gzip, out);
+            } catch (Exception e) {
+                // Headers are already committed at this point, so the client sees a truncated file
+                log.error("Export failed for merchant {} ({} to {})", merchantId, fromDate, toDate, e);
+                throw e;
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment().filename(filename).build());
+        headers.setContentType(gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"));
+        headers.setCacheControl("no-store");
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+}
@@ -0,0 +1,100 @@
+package com.roshansutihar.merchantportal.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roshansutihar.merchantportal.dto.TransactionEventResult;
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.request.TransactionEventBatch;
+import com.roshansutihar.merchantportal.service.MerchantRegistryCache;
+import com.roshansutihar.merchantportal.service.TransactionEventBatcher;
+import com.roshansutihar.merchantportal.service.WebhookSignatures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+// Transaction events pushed by the payments core. Not behind the login: each delivery is signed with the
+// merchant's webhook signing key (see WebhookSignatures). A 200 means the events are committed; on anything
+// else the payments core should redeliver, which is safe because applying an event twice changes nothing.
+@RestController
+public class TransactionWebhookController {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionWebhookController.class);
+
+    private final MerchantRegistryCache merchantRegistryCache;
+    private final TransactionEventBatcher transactionEventBatcher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${transaction-webhook.enabled:false}")
+    private boolean enabled;
+
+    @Value("${transaction-webhook.max-events:1000}")
+    private int maxEvents;
+
+    @Value("${transaction-webhook.tolerance:5m}")
+    private Duration tolerance;
+
+    public TransactionWebhookController(MerchantRegistryCache merchantRegistryCache,
+                                        TransactionEventBatcher transactionEventBatcher,
+                                        ObjectMapper objectMapper) {
+        this.merchantRegistryCache = merchantRegistryCache;
+        this.transactionEventBatcher = transactionEventBatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    // The raw body is taken as bytes because the signature covers them exactly as sent
+    @PostMapping(path = "/webhooks/transactions/{merchantId}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TransactionEventResult> receive(
+            @PathVariable String merchantId,
+            @RequestHeader(name = WebhookSignatures.TIMESTAMP_HEADER, required = false) String timestamp,
+            @RequestHeader(name = WebhookSignatures.SIGNATURE_HEADER, required = false) String signature,
+            @RequestBody byte[] body) {
+
+        if (!enabled) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        // Unknown merchants get the same answer as bad signatures, so the endpoint can't be used to probe ids
+        Optional<Merchant> merchant = merchantRegistryCache.findByMerchantId(merchantId);
+        if (merchant.isEmpty() || !WebhookSignatures.verify(merchant.get().getWebhookSigningKey(),
+                timestamp, signature, body, tolerance, Instant.now())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        TransactionEventBatch batch;
+        try {
+            batch = objectMapper.readValue(body, TransactionEventBatch.class);
+        } catch (IOException e) {
+            log.warn("Unreadable webhook delivery for merchant {}: {}", merchantId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (batch.getEvents() == null || batch.getEvents().isEmpty()) {
+            return ResponseEntity.ok(new TransactionEventResult(0, 0, 0));
+        }
+        if (batch.getEvents().size() > maxEvents) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        try {
+            return ResponseEntity.ok(transactionEventBatcher.submit(merchantId, batch.getEvents()));
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Webhook delivery for merchant {} not written: {}", merchantId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.roshansutihar.merchantportal.response;
 
+import com.roshansutihar.merchantportal.dto.DataAsOf;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
-public class SummaryResponse {
+public class SummaryResponse implements DataAsOf {
     private String merchantId;
     private Double totalAmount;
     private Double totalCommission;
@@ -11,4 +14,6 @@ public class SummaryResponse {
     private Long totalTransactions;
     private String periodFrom;
     private String periodTo;
+    // Set only on a stale copy served while the payments core is unavailable
+    private Instant dataAsOf;
 }
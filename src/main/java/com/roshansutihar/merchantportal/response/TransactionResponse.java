@@ -1,15 +1,19 @@
 package com.roshansutihar.merchantportal.response;
 
+import com.roshansutihar.merchantportal.dto.DataAsOf;
 import com.roshansutihar.merchantportal.dto.TransactionDTO;
 import com.roshansutihar.merchantportal.request.Transaction;
 import lombok.Data;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
-public class TransactionResponse {
+public class TransactionResponse implements DataAsOf {
     private String merchantId;
     private List<Transaction> transactions; // Changed from TransactionDTO to Transaction
     private Long totalCount;
     private Double totalAmount;
-}
\ No newline at end of file
+    // Set only on a stale copy served while the payments core is unavailable
+    private Instant dataAsOf;
+}
@@ -1,14 +1,122 @@
 package com.roshansutihar.merchantportal.security;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
+// Shared outbound HTTP layer for the payments core and Keycloak: one pooled
+// Apache client with keep-alive, gzip (on by default in HttpClient 5) and
+// a response timeout picked per endpoint from the request path.
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${outbound.http.pool.max-total:100}")
+    private int maxTotal;
+
+    @Value("${outbound.http.pool.max-per-route:50}")
+    private int maxPerRoute;
+
+    @Value("${outbound.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${outbound.http.pool.acquire-timeout:2s}")
+    private Duration acquireTimeout;
+
+    @Value("${outbound.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${outbound.http.pool.idle-evict:60s}")
+    private Duration idleEvict;
+
+    @Value("${outbound.http.read-timeout.default:10s}")
+    private Duration defaultReadTimeout;
+
+    @Value("${outbound.http.read-timeout.transactions:15s}")
+    private Duration transactionsReadTimeout;
+
+    @Value("${outbound.http.read-timeout.summary:10s}")
+    private Duration summaryReadTimeout;
+
+    @Value("${outbound.http.read-timeout.merchants:10s}")
+    private Duration merchantsReadTimeout;
+
+    @Value("${outbound.http.read-timeout.keycloak:5s}")
+    private Duration keycloakReadTimeout;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        TimeValue maxKeepAlive = TimeValue.of(keepAlive);
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                        .setResponseTimeout(Timeout.of(defaultReadTimeout))
+                        .build())
+                // Honour the server's Keep-Alive header but never hold a connection longer than we allow
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(advertised) && advertised.compareTo(maxKeepAlive) < 0
+                            ? advertised : maxKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEvict))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient outboundHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory =
+                new HttpComponentsClientHttpRequestFactory(outboundHttpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                    .setResponseTimeout(Timeout.of(readTimeoutFor(uri.getPath())))
+                    .build());
+            return context;
+        });
+        return new RestTemplate(requestFactory);
+    }
+
+    private Duration readTimeoutFor(String path) {
+        if (path == null) {
+            return defaultReadTimeout;
+        }
+        if (path.contains("/realms/")) {
+            return keycloakReadTimeout;
+        }
+        if (path.contains("/api/v1/transactions/")) {
+            return path.endsWith("/summary") ? summaryReadTimeout : transactionsReadTimeout;
+        }
+        if (path.contains("/api/v1/merchants")) {
+            return merchantsReadTimeout;
+        }
+        return defaultReadTimeout;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package com.roshansutihar.merchantportal.security;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+// Non-blocking counterpart of RestTemplateConfig for the payments core, only built when
+// payments-core.client=reactive. Same pool limits, keep-alive and per-endpoint response timeouts;
+// Keycloak stays on the RestTemplate.
+@Configuration
+@ConditionalOnProperty(name = "payments-core.client", havingValue = "reactive")
+public class WebClientConfig {
+
+    @Value("${outbound.http.pool.max-total:100}")
+    private int maxTotal;
+
+    @Value("${outbound.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${outbound.http.pool.acquire-timeout:2s}")
+    private Duration acquireTimeout;
+
+    @Value("${outbound.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${outbound.http.pool.idle-evict:60s}")
+    private Duration idleEvict;
+
+    @Value("${outbound.http.read-timeout.default:10s}")
+    private Duration defaultReadTimeout;
+
+    @Value("${outbound.http.read-timeout.transactions:15s}")
+    private Duration transactionsReadTimeout;
+
+    @Value("${outbound.http.read-timeout.summary:10s}")
+    private Duration summaryReadTimeout;
+
+    @Value("${outbound.http.read-timeout.merchants:10s}")
+    private Duration merchantsReadTimeout;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider paymentsCoreConnectionProvider() {
+        return ConnectionProvider.builder("payments-core")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(acquireTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(idleEvict)
+                .build();
+    }
+
+    @Bean
+    public WebClient paymentsCoreWebClient(WebClient.Builder builder, ConnectionProvider paymentsCoreConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(paymentsCoreConnectionProvider)
+                .compress(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .doOnRequest((request, connection) -> request.responseTimeout(readTimeoutFor(request.uri())));
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private Duration readTimeoutFor(String path) {
+        if (path == null) {
+            return defaultReadTimeout;
+        }
+        if (path.contains("/api/v1/transactions/")) {
+            return path.contains("/summary") ? summaryReadTimeout : transactionsReadTimeout;
+        }
+        if (path.contains("/api/v1/merchants")) {
+            return merchantsReadTimeout;
+        }
+        return defaultReadTimeout;
+    }
+}
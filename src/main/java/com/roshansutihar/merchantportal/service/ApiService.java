@@ -1,6 +1,14 @@
 package com.roshansutihar.merchantportal.service;
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
 import com.roshansutihar.merchantportal.response.MerchantResponse;
 import com.roshansutihar.merchantportal.response.SecretRotationResponse;
 import com.roshansutihar.merchantportal.response.SummaryResponse;
@@ -10,16 +18,25 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 @Service
 public class ApiService {
 
@@ -28,14 +45,25 @@ public class ApiService {
 
     private static final Logger log = LoggerFactory.getLogger(ApiService.class);
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final PaymentsCoreGuard paymentsCoreGuard;
+    private final ValidatedResponseCache validatedResponses;
+
+    // Identical concurrent reads (same URL) share one upstream call
+    private final SingleFlight<String> transactionFlights = new SingleFlight<>();
+    private final SingleFlight<String> summaryFlights = new SingleFlight<>();
 
     // Timezone constants
     private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
     private static final ZoneId UTC_ZONE = ZoneId.of("UTC");
     private static final DateTimeFormatter API_DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
-    public ApiService() {
-        this.restTemplate = new RestTemplate();
+    public ApiService(RestTemplate restTemplate, ObjectMapper objectMapper, PaymentsCoreGuard paymentsCoreGuard,
+                      ValidatedResponseCache validatedResponses) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.paymentsCoreGuard = paymentsCoreGuard;
+        this.validatedResponses = validatedResponses;
     }
 
     public List<String> getMerchantIds() {
@@ -50,60 +78,154 @@ public class ApiService {
     }
 
     public TransactionResponse getTransactionsByDateRange(String merchantId, LocalDate from, LocalDate to, String status) {
-        String url = baseUrl + "/api/v1/transactions/merchant/" + merchantId;
+        String finalUrl = transactionsUrl(merchantId, from, to, status).toUriString();
+        log.info("Calling external API: GET {}", finalUrl);
 
-        // Convert Chicago dates to UTC for API call
-        ZonedDateTime fromChicago = from.atStartOfDay(CHICAGO_ZONE);
-        ZonedDateTime toChicago = to.atTime(23, 59, 59).atZone(CHICAGO_ZONE);
+        return transactionFlights.execute(finalUrl, () ->
+                paymentsCoreGuard.read(PaymentsCoreEndpoint.TRANSACTIONS, finalUrl, () -> {
+                    try {
+                        // Revalidated with the core's ETag / Last-Modified; a 304 reuses the parsed response
+                        TransactionResponse response = validatedResponses.read(finalUrl, TransactionResponse.class,
+                                headers -> restTemplate.exchange(finalUrl, HttpMethod.GET, new HttpEntity<>(headers),
+                                        TransactionResponse.class));
+                        int count = response != null && response.getTransactions() != null
+                                ? response.getTransactions().size() : 0;
+                        log.info("API success - Range transactions for {}: {} items", merchantId, count);
+                        return response;
+                    } catch (Exception e) {
+                        log.error("API call FAILED for getTransactionsByDateRange (merchantId={}): {}", merchantId, e.getMessage(), e);
+                        throw e;
+                    }
+                }));
+    }
 
-        ZonedDateTime fromUTC = fromChicago.withZoneSameInstant(UTC_ZONE);
-        ZonedDateTime toUTC = toChicago.withZoneSameInstant(UTC_ZONE);
+    // Streaming variant for wide ranges: rows are parsed one at a time and folded into totals,
+    // and only the first maxRows are kept for display, so heap use doesn't grow with the range.
+    // Concurrent callers for the same range share one stream and each get the totals merged in.
+    public TransactionResponse streamTransactionsByDateRange(String merchantId, LocalDate from, LocalDate to,
+                                                             String status, int maxRows, TransactionTotals totals) {
+        String finalUrl = transactionsUrl(merchantId, from, to, status).toUriString();
+        StreamedRange streamed = transactionFlights.execute("stream " + maxRows + " " + finalUrl, () -> {
+            TransactionTotals shared = new TransactionTotals();
+            List<Transaction> kept = new ArrayList<>(Math.min(maxRows, 1024));
+            stream(merchantId, finalUrl, tx -> {
+                shared.add(tx);
+                if (kept.size() < maxRows) {
+                    kept.add(tx);
+                }
+            });
+            log.info("API success - Streamed {} transactions for {} (kept {})", shared.getCount(), merchantId, kept.size());
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url)
-                .queryParam("from", fromUTC.format(API_DATE_FORMATTER))
-                .queryParam("to", toUTC.format(API_DATE_FORMATTER));
+            TransactionResponse result = new TransactionResponse();
+            result.setMerchantId(merchantId);
+            result.setTransactions(kept);
+            result.setTotalCount(shared.getCount());
+            result.setTotalAmount(shared.getTotalAmount().doubleValue());
+            return new StreamedRange(result, shared);
+        });
+        totals.merge(streamed.totals());
+        return streamed.response();
+    }
 
-        if (status != null && !status.isEmpty()) {
-            builder.queryParam("status", status);
-        }
+    // Hands every transaction in the range to the sink while the response is still being read
+    public void forEachTransaction(String merchantId, LocalDate from, LocalDate to, String status,
+                                   Consumer<Transaction> sink) {
+        stream(merchantId, transactionsUrl(merchantId, from, to, status).toUriString(), sink);
+    }
+
+    // Same, for rows created from `fromUtc` (UTC wall-clock, like Transaction.createdAt) to the end of Chicago day `to`
+    public void forEachTransactionSince(String merchantId, LocalDateTime fromUtc, LocalDate to,
+                                        Consumer<Transaction> sink) {
+        String finalUrl = UriComponentsBuilder.fromHttpUrl(baseUrl + "/api/v1/transactions/merchant/" + merchantId)
+                .queryParam("from", fromUtc.truncatedTo(ChronoUnit.SECONDS).format(API_DATE_FORMATTER))
+                .queryParam("to", utcRangeEnd(to).format(API_DATE_FORMATTER))
+                .toUriString();
+        stream(merchantId, finalUrl, sink);
+    }
+
+    private void stream(String merchantId, String finalUrl, Consumer<Transaction> sink) {
+        log.info("Calling external API (streaming): GET {}", finalUrl);
 
+        // Streamed rows can't be replayed, so there is no stale fallback here; an open circuit fails fast
+        paymentsCoreGuard.call(PaymentsCoreEndpoint.TRANSACTIONS, () -> {
+            try {
+                return restTemplate.execute(finalUrl, HttpMethod.GET, this::acceptJson, clientResponse -> {
+                    readTransactions(clientResponse.getBody(), sink);
+                    return null;
+                });
+            } catch (Exception e) {
+                log.error("API call FAILED for forEachTransaction (merchantId={}): {}", merchantId, e.getMessage(), e);
+                throw e;
+            }
+        });
+    }
+
+    // One keyset page, newest first. The cursor and size + 1 are passed on to the payments core;
+    // the response is still filtered locally so the page is correct even if the core returns the whole range.
+    public TransactionPage getTransactionPage(String merchantId, LocalDate from, LocalDate to, String status,
+                                              String cursor, PageDirection direction, int size) {
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        UriComponentsBuilder builder = transactionsUrl(merchantId, from, to, status)
+                .queryParam("size", size + 1);
+        if (position != null) {
+            builder.queryParam("cursor", position.encode())
+                    .queryParam("direction", direction.name().toLowerCase());
+        }
         String finalUrl = builder.toUriString();
-        log.info("Calling external API: GET {}", finalUrl);
-        log.info("Date range - Chicago: {} to {}, UTC: {} to {}",
-                fromChicago.toLocalDate(), toChicago.toLocalDate(),
-                fromUTC.toLocalDate(), toUTC.toLocalDate());
-
-        try {
-            TransactionResponse response = restTemplate.getForObject(finalUrl, TransactionResponse.class);
-            int count = response != null && response.getTransactions() != null
-                    ? response.getTransactions().size() : 0;
-            log.info("API success - Range transactions for {}: {} items", merchantId, count);
-            return response;
-        } catch (Exception e) {
-            log.error("API call FAILED for getTransactionsByDateRange (merchantId={}): {}", merchantId, e.getMessage(), e);
-            throw e;
+        log.info("Calling external API (page): GET {}", finalUrl);
+
+        return transactionFlights.execute(finalUrl, () ->
+                paymentsCoreGuard.read(PaymentsCoreEndpoint.TRANSACTIONS, finalUrl, () -> {
+                    KeysetPageCollector collector = new KeysetPageCollector(position, direction, size);
+                    try {
+                        restTemplate.execute(finalUrl, HttpMethod.GET, this::acceptJson, clientResponse -> {
+                            readTransactions(clientResponse.getBody(), collector::add);
+                            return null;
+                        });
+                    } catch (Exception e) {
+                        log.error("API call FAILED for getTransactionPage (merchantId={}): {}", merchantId, e.getMessage(), e);
+                        throw e;
+                    }
+                    return collector.toPage();
+                }));
+    }
+
+    private void acceptJson(ClientHttpRequest request) {
+        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+    }
+
+    // Walks the transactions array token by token, handing each row to the sink as soon as it is parsed
+    private void readTransactions(InputStream body, Consumer<Transaction> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RestClientException("Unexpected transaction payload from payments core");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("transactions".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        sink.accept(objectMapper.readValue(parser, Transaction.class));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
         }
     }
 
     public SummaryResponse getSummary(String merchantId, LocalDate from, LocalDate to) {
-        String url = baseUrl + "/api/v1/transactions/merchant/" + merchantId + "/summary";
-
         // Convert Chicago dates to UTC for API call
-        ZonedDateTime fromChicago = from.atStartOfDay(CHICAGO_ZONE);
-        ZonedDateTime toChicago = to.atTime(23, 59, 59).atZone(CHICAGO_ZONE);
-
-        ZonedDateTime fromUTC = fromChicago.withZoneSameInstant(UTC_ZONE);
-        ZonedDateTime toUTC = toChicago.withZoneSameInstant(UTC_ZONE);
-
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url)
-                .queryParam("from", fromUTC.format(API_DATE_FORMATTER))
-                .queryParam("to", toUTC.format(API_DATE_FORMATTER));
+        ZonedDateTime fromUTC = utcRangeStart(from);
+        ZonedDateTime toUTC = utcRangeEnd(to);
 
         log.info("Summary API - Chicago dates: {} to {}, UTC dates: {} to {}",
-                fromChicago.toLocalDate(), toChicago.toLocalDate(),
-                fromUTC.toLocalDate(), toUTC.toLocalDate());
+                from, to, fromUTC.toLocalDate(), toUTC.toLocalDate());
 
-        return restTemplate.getForObject(builder.toUriString(), SummaryResponse.class);
+        String finalUrl = summaryUrl(baseUrl, merchantId, from, to).toUriString();
+        return summaryFlights.execute(finalUrl, () ->
+                paymentsCoreGuard.read(PaymentsCoreEndpoint.SUMMARY, finalUrl,
+                        () -> restTemplate.getForObject(finalUrl, SummaryResponse.class)));
     }
 
     public MerchantResponse registerMerchant(Map<String, Object> request) {
@@ -111,7 +233,8 @@ public class ApiService {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-        ResponseEntity<MerchantResponse> response = restTemplate.postForEntity(url, entity, MerchantResponse.class);
+        ResponseEntity<MerchantResponse> response = paymentsCoreGuard.call(PaymentsCoreEndpoint.REGISTER,
+                () -> restTemplate.postForEntity(url, entity, MerchantResponse.class));
         if (!response.getStatusCode().is2xxSuccessful()) {
             throw new RuntimeException("Failed to register merchant: " + response.getStatusCode());
         }
@@ -126,12 +249,13 @@ public class ApiService {
 
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<SecretRotationResponse> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                entity,
-                SecretRotationResponse.class
-        );
+        ResponseEntity<SecretRotationResponse> response = paymentsCoreGuard.call(PaymentsCoreEndpoint.ROTATE_SECRET,
+                () -> restTemplate.exchange(
+                        url,
+                        HttpMethod.POST,
+                        entity,
+                        SecretRotationResponse.class
+                ));
 
         if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
             throw new RuntimeException("Failed to rotate secret key: " + response.getStatusCode());
@@ -140,8 +264,56 @@ public class ApiService {
         return response.getBody().getNewSecretKey();
     }
 
+    private UriComponentsBuilder transactionsUrl(String merchantId, LocalDate from, LocalDate to, String status) {
+        log.info("Date range - Chicago: {} to {}, UTC: {} to {}",
+                from, to, utcRangeStart(from).toLocalDate(), utcRangeEnd(to).toLocalDate());
+        return transactionsUrl(baseUrl, merchantId, from, to, status);
+    }
+
+    // Shared with ReactiveApiService so both clients send (and fall back on) identical URLs
+    static UriComponentsBuilder transactionsUrl(String baseUrl, String merchantId, LocalDate from, LocalDate to,
+                                                String status) {
+        String url = baseUrl + "/api/v1/transactions/merchant/" + merchantId;
+
+        // Convert Chicago dates to UTC for API call
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url)
+                .queryParam("from", utcRangeStart(from).format(API_DATE_FORMATTER))
+                .queryParam("to", utcRangeEnd(to).format(API_DATE_FORMATTER));
+
+        if (status != null && !status.isEmpty()) {
+            builder.queryParam("status", status);
+        }
+        return builder;
+    }
+
+    static UriComponentsBuilder summaryUrl(String baseUrl, String merchantId, LocalDate from, LocalDate to) {
+        return UriComponentsBuilder.fromHttpUrl(baseUrl + "/api/v1/transactions/merchant/" + merchantId + "/summary")
+                .queryParam("from", utcRangeStart(from).format(API_DATE_FORMATTER))
+                .queryParam("to", utcRangeEnd(to).format(API_DATE_FORMATTER));
+    }
+
+    public Map<String, Object> singleFlightStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("transactions", transactionFlights.stats());
+        stats.put("summary", summaryFlights.stats());
+        return stats;
+    }
+
     // Helper method to get "today" in Chicago time
     public LocalDate getTodayChicago() {
         return LocalDate.now(CHICAGO_ZONE);
     }
+
+    private record StreamedRange(TransactionResponse response, TransactionTotals totals) {
+    }
+
+    // Start of a Chicago day expressed in UTC, as the payments core expects
+    public static ZonedDateTime utcRangeStart(LocalDate chicagoDay) {
+        return chicagoDay.atStartOfDay(CHICAGO_ZONE).withZoneSameInstant(UTC_ZONE);
+    }
+
+    // Last second of a Chicago day expressed in UTC
+    public static ZonedDateTime utcRangeEnd(LocalDate chicagoDay) {
+        return chicagoDay.atTime(23, 59, 59).atZone(CHICAGO_ZONE).withZoneSameInstant(UTC_ZONE);
+    }
 }
\ No newline at end of file
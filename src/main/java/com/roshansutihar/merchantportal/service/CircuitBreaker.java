@@ -0,0 +1,120 @@
+package com.roshansutihar.merchantportal.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Consecutive-failure breaker. After failureThreshold failures in a row calls are rejected for
+// openDuration; then a single trial call is let through (half-open) which either closes the
+// breaker or opens it again. All state changes happen under the instance lock and never block.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private Instant lastTransitionAt;
+
+    private long successes;
+    private long failures;
+    private long rejected;
+    private final Map<State, Long> transitionsInto = new EnumMap<>(State.class);
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    // True when the caller may go ahead with the call; every permitted call must be followed
+    // by exactly one onSuccess or onFailure
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos >= openDurationNanos) {
+                    transitionTo(State.HALF_OPEN);
+                    trialInFlight = true;
+                    return true;
+                }
+                rejected++;
+                return false;
+            default:
+                if (trialInFlight) {
+                    rejected++;
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        successes++;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            consecutiveFailures = 0;
+            openedAtNanos = System.nanoTime();
+            if (state != State.OPEN) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    // The caller gave up without an outcome (e.g. a cancelled reactive call); only frees a trial slot
+    public synchronized void onCancelled() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // Times the breaker has moved into `target`; a monotonic count for metrics
+    public synchronized long transitionsInto(State target) {
+        return transitionsInto.getOrDefault(target, 0L);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state);
+        stats.put("lastTransitionAt", lastTransitionAt);
+        stats.put("successes", successes);
+        stats.put("failures", failures);
+        stats.put("rejected", rejected);
+        Map<String, Long> transitions = new LinkedHashMap<>();
+        for (State target : State.values()) {
+            transitions.put(target.name(), transitionsInto.getOrDefault(target, 0L));
+        }
+        stats.put("transitionsInto", transitions);
+        return stats;
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        lastTransitionAt = Instant.now();
+        transitionsInto.merge(next, 1L, Long::sum);
+    }
+}
@@ -0,0 +1,190 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.CrossMerchantPage;
+import com.roshansutihar.merchantportal.dto.DataAsOf;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Admin view across every merchant. Each merchant contributes one keyset page (at most size + 1 rows, from the
+// mirror or the payments core) fetched on the bounded crossMerchantExecutor, so hundreds of merchants never mean
+// hundreds of open connections. The already-sorted pages are k-way merged on the newest-first ordering; the global
+// cursor is the same (createdAt, transactionRef) keyset every merchant page understands.
+// Merchants that fail or miss the deadline are left out and reported, like a partial dashboard panel.
+@Service
+public class CrossMerchantTransactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CrossMerchantTransactionService.class);
+
+    private final TransactionQueryService transactionQueryService;
+    private final AsyncTaskExecutor crossMerchantExecutor;
+
+    @Value("${admin.all-merchants.deadline:10s}")
+    private Duration deadline;
+
+    public CrossMerchantTransactionService(TransactionQueryService transactionQueryService,
+                                           @Qualifier("crossMerchantExecutor") AsyncTaskExecutor crossMerchantExecutor) {
+        this.transactionQueryService = transactionQueryService;
+        this.crossMerchantExecutor = crossMerchantExecutor;
+    }
+
+    public CrossMerchantPage getPage(List<String> merchantIds, LocalDate from, LocalDate to, String status,
+                                     String cursor, PageDirection direction, int size) {
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        PageDirection effective = position == null ? PageDirection.NEXT : direction;
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        Map<String, CompletableFuture<TransactionPage>> pending = new LinkedHashMap<>();
+        for (String merchantId : merchantIds) {
+            pending.put(merchantId, submit(() -> transactionQueryService.getTransactionPage(
+                    merchantId, from, to, status, cursor, effective, size)));
+        }
+
+        CrossMerchantPage result = new CrossMerchantPage();
+        List<MerchantRows> sources = new ArrayList<>();
+        pending.forEach((merchantId, future) -> {
+            TransactionPage page = await(future, deadlineNanos, merchantId);
+            if (page == null) {
+                result.getMissingMerchantIds().add(merchantId);
+            } else {
+                sources.add(new MerchantRows(merchantId, page));
+            }
+        });
+
+        if (effective == PageDirection.NEXT) {
+            List<MerchantRow> rows = merge(sources, TransactionCursor.NEWEST_FIRST, size + 1);
+            boolean more = rows.size() > size || sources.stream().anyMatch(source -> source.page().hasNext());
+            if (rows.size() > size) {
+                rows = rows.subList(0, size);
+            }
+            fill(result, rows);
+            if (more && !rows.isEmpty()) {
+                result.getPage().setNextCursor(TransactionCursor.of(rows.get(rows.size() - 1).transaction()).encode());
+            }
+            if (position != null && !rows.isEmpty()) {
+                result.getPage().setPrevCursor(TransactionCursor.of(rows.get(0).transaction()).encode());
+            }
+        } else {
+            // Going back we want the rows closest to the cursor, i.e. the oldest of the newer ones
+            List<MerchantRow> rows = merge(reversed(sources), TransactionCursor.NEWEST_FIRST.reversed(), size + 1);
+            boolean more = rows.size() > size || sources.stream().anyMatch(source -> source.page().hasPrev());
+            if (rows.size() > size) {
+                rows = rows.subList(0, size);
+            }
+            rows = new ArrayList<>(rows);
+            Collections.reverse(rows);
+            fill(result, rows);
+            if (more && !rows.isEmpty()) {
+                result.getPage().setPrevCursor(TransactionCursor.of(rows.get(0).transaction()).encode());
+            }
+            // Going back always leaves the cursor row itself on a later page
+            result.getPage().setNextCursor(rows.isEmpty()
+                    ? position.encode()
+                    : TransactionCursor.of(rows.get(rows.size() - 1).transaction()).encode());
+        }
+        result.getPage().setDataAsOf(DataAsOf.oldest(sources.stream().map(MerchantRows::page).toArray(DataAsOf[]::new)));
+        return result;
+    }
+
+    // Classic k-way merge: a heap holds the next unread row of each source, so taking `limit` rows
+    // costs O(limit log k) whatever the number of merchants
+    static List<MerchantRow> merge(List<MerchantRows> sources, Comparator<Transaction> order, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> order.compare(a.current(), b.current()));
+        for (MerchantRows source : sources) {
+            if (!source.rows().isEmpty()) {
+                heads.add(new Head(source, 0));
+            }
+        }
+        List<MerchantRow> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(new MerchantRow(head.source().merchantId(), head.current()));
+            if (head.index() + 1 < head.source().rows().size()) {
+                heads.add(new Head(head.source(), head.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private static List<MerchantRows> reversed(List<MerchantRows> sources) {
+        List<MerchantRows> reversed = new ArrayList<>(sources.size());
+        for (MerchantRows source : sources) {
+            List<Transaction> rows = new ArrayList<>(source.rows());
+            Collections.reverse(rows);
+            reversed.add(new MerchantRows(source.merchantId(), source.page(), rows));
+        }
+        return reversed;
+    }
+
+    private static void fill(CrossMerchantPage result, List<MerchantRow> rows) {
+        for (MerchantRow row : rows) {
+            result.getPage().getTransactions().add(row.transaction());
+            result.getRowMerchantIds().add(row.merchantId());
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, crossMerchantExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, long deadlineNanos, String merchantId) {
+        long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // A call still queued on the executor is skipped once its future is cancelled
+            future.cancel(true);
+            log.warn("All-merchants page: merchant {} missed the {} deadline", merchantId, deadline);
+        } catch (ExecutionException e) {
+            log.warn("All-merchants page: merchant {} failed: {}", merchantId, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    record MerchantRows(String merchantId, TransactionPage page, List<Transaction> rows) {
+
+        MerchantRows(String merchantId, TransactionPage page) {
+            this(merchantId, page, page.getTransactions());
+        }
+    }
+
+    record MerchantRow(String merchantId, Transaction transaction) {
+    }
+
+    private record Head(MerchantRows source, int index) {
+
+        Transaction current() {
+            return source.rows().get(index);
+        }
+    }
+}
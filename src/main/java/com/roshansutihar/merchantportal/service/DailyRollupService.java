@@ -0,0 +1,123 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.repository.DailyMerchantRollupRepository;
+import com.roshansutihar.merchantportal.repository.DailyRollupWriter;
+import com.roshansutihar.merchantportal.repository.TransactionSyncStateRepository;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-merchant, per-Chicago-day totals derived from the transaction mirror.
+// The mirror sync refreshes the days it just fetched (including today) after every run, and its nightly pass
+// (TransactionMirrorService.recheckClosedDays) the last transaction-mirror.recheck-days closed days it re-fetched.
+// With the transaction webhook on, TransactionEventWriter also moves the rows in between syncs, so ranges that
+// run up to today can be answered here too (summarizeLive).
+// Every committed change bumps the merchant's version(), which SummaryCache keys its closed ranges by.
+@Service
+public class DailyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailyRollupService.class);
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+
+    private final DailyRollupWriter rollupWriter;
+    private final DailyMerchantRollupRepository rollupRepository;
+    private final TransactionSyncStateRepository syncStateRepository;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Value("${transaction-mirror.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction-webhook.enabled:false}")
+    private boolean webhookEnabled;
+
+    public DailyRollupService(DailyRollupWriter rollupWriter,
+                              DailyMerchantRollupRepository rollupRepository,
+                              TransactionSyncStateRepository syncStateRepository) {
+        this.rollupWriter = rollupWriter;
+        this.rollupRepository = rollupRepository;
+        this.syncStateRepository = syncStateRepository;
+    }
+
+    public void refresh(String merchantId, LocalDate from, LocalDate to) {
+        int days = rollupWriter.refresh(merchantId, from, to);
+        // Only closed ranges are cached by version, so the sync's rebuild of today alone leaves them valid
+        if (from.isBefore(LocalDate.now(CHICAGO_ZONE))) {
+            changed(merchantId);
+        }
+        log.debug("Daily rollups for {} refreshed {} to {} ({} days with activity)", merchantId, from, to, days);
+    }
+
+    public long version(String merchantId) {
+        AtomicLong version = versions.get(merchantId);
+        return version != null ? version.get() : 0L;
+    }
+
+    // Called after the change is committed: a reader that read the old version may still cache the old totals,
+    // but only under that version, which no later read asks for
+    public void changed(String merchantId) {
+        versions.computeIfAbsent(merchantId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    // Only answers for ranges the mirror fully covers; otherwise the caller goes to the payments core
+    public Optional<SummaryResponse> summarize(String merchantId, LocalDate from, LocalDate to) {
+        boolean covered = enabled && syncStateRepository.findById(merchantId)
+                .map(state -> state.covers(from, to))
+                .orElse(false);
+        if (!covered) {
+            return Optional.empty();
+        }
+        return Optional.of(summary(merchantId, from, to));
+    }
+
+    // True when the payments core pushes this merchant's events and the mirror holds every closed day from
+    // `from` on, so today's rows and rollup are current without asking the payments core. A missed new row
+    // is picked up by the next sync (at most transaction-mirror.sync-interval later), a missed change to an older
+    // row by the nightly recheck.
+    public boolean isLive(String merchantId, LocalDate from) {
+        if (!enabled || !webhookEnabled) {
+            return false;
+        }
+        LocalDate today = LocalDate.now(CHICAGO_ZONE);
+        return syncStateRepository.findById(merchantId)
+                .map(state -> state.coversClosedDaysBefore(from, today))
+                .orElse(false);
+    }
+
+    // Ranges that include today, for live merchants only
+    public Optional<SummaryResponse> summarizeLive(String merchantId, LocalDate from, LocalDate to) {
+        return isLive(merchantId, from) ? Optional.of(summary(merchantId, from, to)) : Optional.empty();
+    }
+
+    // Summed rollup rows, acknowledged count included; callers check coverage (isLive, summarize) themselves
+    public DailyMerchantRollupRepository.RollupTotals totals(String merchantId, LocalDate from, LocalDate to) {
+        return rollupRepository.summarize(merchantId, from, to);
+    }
+
+    private SummaryResponse summary(String merchantId, LocalDate from, LocalDate to) {
+        DailyMerchantRollupRepository.RollupTotals totals = totals(merchantId, from, to);
+
+        SummaryResponse summary = new SummaryResponse();
+        summary.setMerchantId(merchantId);
+        summary.setTotalTransactions(totals.getCount() != null ? totals.getCount() : 0L);
+        summary.setTotalAmount(toDouble(totals.getAmount()));
+        summary.setTotalCommission(toDouble(totals.getCommission()));
+        summary.setTotalNetAmount(toDouble(totals.getNet()));
+        summary.setPeriodFrom(from.toString());
+        summary.setPeriodTo(to.toString());
+        return summary;
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
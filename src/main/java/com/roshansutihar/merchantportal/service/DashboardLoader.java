@@ -0,0 +1,183 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.DashboardData;
+import com.roshansutihar.merchantportal.dto.PeriodComparison;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class DashboardLoader {
+
+    public static final String PANEL_TRANSACTIONS = "transactions";
+    public static final String PANEL_TODAY_SUMMARY = "todaySummary";
+    public static final String PANEL_MONTH_SUMMARY = "monthSummary";
+    public static final String PANEL_WEEK_OVER_WEEK = "weekOverWeek";
+    public static final List<String> ALL_PANELS =
+            List.of(PANEL_TRANSACTIONS, PANEL_TODAY_SUMMARY, PANEL_MONTH_SUMMARY, PANEL_WEEK_OVER_WEEK);
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardLoader.class);
+
+    private final ApiService apiService;
+    private final SummaryCache summaryCache;
+    private final AsyncTaskExecutor dashboardExecutor;
+    private final ObjectProvider<ReactiveApiService> reactiveApiService;
+    private final PortalMetrics portalMetrics;
+    private final TransactionMirrorService transactionMirrorService;
+
+    @Value("${dashboard.fan-out.deadline:5s}")
+    private Duration deadline;
+
+    @Value("${dashboard.today.max-rows:1000}")
+    private int todayMaxRows;
+
+    public DashboardLoader(ApiService apiService, SummaryCache summaryCache,
+                           @Qualifier("dashboardExecutor") AsyncTaskExecutor dashboardExecutor,
+                           ObjectProvider<ReactiveApiService> reactiveApiService,
+                           PortalMetrics portalMetrics,
+                           TransactionMirrorService transactionMirrorService) {
+        this.apiService = apiService;
+        this.summaryCache = summaryCache;
+        this.dashboardExecutor = dashboardExecutor;
+        this.reactiveApiService = reactiveApiService;
+        this.portalMetrics = portalMetrics;
+        this.transactionMirrorService = transactionMirrorService;
+    }
+
+    // Runs the dashboard calls concurrently under one overall deadline.
+    // Whatever has not arrived by then is left null and reported as a partial panel.
+    // Today's tiles are folded from the same rows as the table, so there is no separate today-summary call;
+    // when that call misses, both the table and the today tiles are partial. Merchants kept current by the
+    // transaction webhook get today's rows from the mirror and their summaries from the rollups instead.
+    public DashboardData load(String merchantId, LocalDate today) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+
+        TransactionTotals todayTotals = new TransactionTotals();
+        CompletableFuture<TransactionResponse> transactions = submit(() -> transactionMirrorService
+                .findLiveDay(merchantId, today, todayMaxRows, todayTotals)
+                .orElseGet(() -> apiService.streamTransactionsByDateRange(
+                        merchantId, today, today, null, todayMaxRows, todayTotals)));
+        CompletableFuture<SummaryResponse> monthSummary = submit(() -> summaryCache.getMonthToDate(merchantId, today));
+        CompletableFuture<PeriodComparison> weekOverWeek = submit(() -> summaryCache.getWeekOverWeek(merchantId, today));
+
+        DashboardData data = new DashboardData();
+        data.setTodayTransactions(await(transactions, deadlineNanos, PANEL_TRANSACTIONS, merchantId, data));
+        if (data.getTodayTransactions() != null) {
+            data.setTodayTotals(todayTotals);
+            portalMetrics.transactionRows("dashboard", merchantId, todayTotals.getCount());
+        } else {
+            data.getPartialPanels().add(PANEL_TODAY_SUMMARY);
+        }
+        data.setMonthSummary(await(monthSummary, deadlineNanos, PANEL_MONTH_SUMMARY, merchantId, data));
+        data.setWeekOverWeek(await(weekOverWeek, deadlineNanos, PANEL_WEEK_OVER_WEEK, merchantId, data));
+        return data;
+    }
+
+    // Same panels as load() for controllers that return a CompletableFuture. With payments-core.client=reactive
+    // today's transactions come over WebClient and no thread waits on them; the summary panels still go
+    // through SummaryCache on the dashboard executor. With the blocking client this is just load().
+    public CompletableFuture<DashboardData> loadAsync(String merchantId, LocalDate today) {
+        ReactiveApiService reactive = reactiveApiService.getIfAvailable();
+        if (reactive == null) {
+            return CompletableFuture.completedFuture(load(merchantId, today));
+        }
+
+        // The mirror read is JDBC, so it runs on the dashboard executor inside the panel and its deadline
+        TransactionTotals todayTotals = new TransactionTotals();
+        Mono<Optional<TransactionResponse>> transactions = panel(
+                Mono.fromFuture(() -> submit(() -> transactionMirrorService
+                                .findLiveDay(merchantId, today, todayMaxRows, todayTotals)))
+                        .flatMap(liveDay -> liveDay.map(Mono::just).orElseGet(() -> reactive
+                                .streamTransactionsByDateRange(merchantId, today, today, null, todayMaxRows,
+                                        todayTotals))),
+                PANEL_TRANSACTIONS, merchantId);
+        Mono<Optional<SummaryResponse>> monthSummary = panel(
+                Mono.fromFuture(() -> submit(() -> summaryCache.getMonthToDate(merchantId, today))),
+                PANEL_MONTH_SUMMARY, merchantId);
+        Mono<Optional<PeriodComparison>> weekOverWeek = panel(
+                Mono.fromFuture(() -> submit(() -> summaryCache.getWeekOverWeek(merchantId, today))),
+                PANEL_WEEK_OVER_WEEK, merchantId);
+
+        return Mono.zip(transactions, monthSummary, weekOverWeek)
+                .map(panels -> {
+                    DashboardData data = new DashboardData();
+                    data.setTodayTransactions(orPartial(panels.getT1(), PANEL_TRANSACTIONS, data));
+                    if (data.getTodayTransactions() != null) {
+                        data.setTodayTotals(todayTotals);
+                        portalMetrics.transactionRows("dashboard", merchantId, todayTotals.getCount());
+                    } else {
+                        data.getPartialPanels().add(PANEL_TODAY_SUMMARY);
+                    }
+                    data.setMonthSummary(orPartial(panels.getT2(), PANEL_MONTH_SUMMARY, data));
+                    data.setWeekOverWeek(orPartial(panels.getT3(), PANEL_WEEK_OVER_WEEK, data));
+                    return data;
+                })
+                .toFuture();
+    }
+
+    // Each panel gets the full deadline from subscription; they all start together, so this is the same overall budget
+    private <T> Mono<Optional<T>> panel(Mono<T> call, String panel, String merchantId) {
+        return call.map(Optional::of)
+                .timeout(deadline)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    if (e instanceof TimeoutException) {
+                        log.warn("Dashboard panel '{}' for merchant {} missed the {} deadline", panel, merchantId, deadline);
+                    } else {
+                        log.warn("Dashboard panel '{}' for merchant {} failed: {}", panel, merchantId, e.getMessage());
+                    }
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private static <T> T orPartial(Optional<T> value, String panel, DashboardData data) {
+        if (value.isEmpty()) {
+            data.getPartialPanels().add(panel);
+        }
+        return value.orElse(null);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, dashboardExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, long deadlineNanos, String panel,
+                        String merchantId, DashboardData data) {
+        long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Dashboard panel '{}' for merchant {} missed the {} deadline", panel, merchantId, deadline);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard panel '{}' for merchant {} failed: {}", panel, merchantId, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        data.getPartialPanels().add(panel);
+        return null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.roshansutihar.merchantportal.service;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,6 +14,8 @@ import org.springframework.web.client.RestTemplate;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 @Service
 public class KeycloakAdminService {
 
@@ -30,19 +34,36 @@ public class KeycloakAdminService {
     private String adminClientSecret;
 
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
 
-    private String adminToken;
-    private Instant tokenExpiry = Instant.now();
+    // Token and expiry are replaced together in one volatile write
+    private volatile AdminToken adminToken;
+    // A ReentrantLock rather than synchronized: a virtual thread blocked on the token request inside a
+    // synchronized block pins its carrier thread
+    private final ReentrantLock tokenLock = new ReentrantLock();
 
-    public KeycloakAdminService(RestTemplate restTemplate) {
+    public KeycloakAdminService(RestTemplate restTemplate, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
     }
 
-    private synchronized void ensureValidToken() {
-        if (adminToken == null || Instant.now().isAfter(tokenExpiry.minusSeconds(30))) {
-            adminToken = fetchAdminAccessToken();
-            tokenExpiry = Instant.now().plusSeconds(300);
-            log.debug("Fetched new Keycloak admin token");
+    private String ensureValidToken() {
+        AdminToken token = adminToken;
+        if (token != null && token.isFresh()) {
+            return token.value();
+        }
+        tokenLock.lock();
+        try {
+            // Another caller may have refreshed it while we waited for the lock
+            token = adminToken;
+            if (token == null || !token.isFresh()) {
+                token = new AdminToken(fetchAdminAccessToken(), Instant.now().plusSeconds(300));
+                adminToken = token;
+                log.debug("Fetched new Keycloak admin token");
+            }
+            return token.value();
+        } finally {
+            tokenLock.unlock();
         }
     }
 
@@ -60,7 +81,8 @@ public class KeycloakAdminService {
         HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
 
         try {
-            ResponseEntity<Map> response = restTemplate.postForEntity(tokenUrl, request, Map.class);
+            ResponseEntity<Map> response = timed("token",
+                    () -> restTemplate.postForEntity(tokenUrl, request, Map.class));
             Map<String, Object> respBody = response.getBody();
             if (respBody != null && respBody.containsKey("access_token")) {
                 return (String) respBody.get("access_token");
@@ -73,7 +95,7 @@ public class KeycloakAdminService {
     }
 
     public void createMerchantUser(String username, String password, String firstName, String lastName) {
-        ensureValidToken();
+        String token = ensureValidToken();
 
         String url = keycloakUrl + "/admin/realms/" + realm + "/users";
 
@@ -92,12 +114,13 @@ public class KeycloakAdminService {
         userRepresentation.put("credentials", credentials);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(adminToken);
+        headers.setBearerAuth(token);
         headers.setContentType(MediaType.APPLICATION_JSON);
 
         HttpEntity<Map<String, Object>> request = new HttpEntity<>(userRepresentation, headers);
 
-        ResponseEntity<Void> response = restTemplate.exchange(url, HttpMethod.POST, request, Void.class);
+        ResponseEntity<Void> response = timed("create_user",
+                () -> restTemplate.exchange(url, HttpMethod.POST, request, Void.class));
 
         if (response.getStatusCode() != HttpStatus.CREATED) {
             throw new RuntimeException("Failed to create merchant user in Keycloak: " + response.getStatusCode());
@@ -112,15 +135,16 @@ public class KeycloakAdminService {
     }
 
     private void assignRoleToUser(String userId, String roleName) {
-        ensureValidToken();
+        String token = ensureValidToken();
 
         String roleUrl = keycloakUrl + "/admin/realms/" + realm + "/roles/" + roleName;
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(adminToken);
+        headers.setBearerAuth(token);
 
         HttpEntity<Void> roleRequest = new HttpEntity<>(headers);
-        ResponseEntity<Map> roleResponse = restTemplate.exchange(roleUrl, HttpMethod.GET, roleRequest, Map.class);
+        ResponseEntity<Map> roleResponse = timed("get_role",
+                () -> restTemplate.exchange(roleUrl, HttpMethod.GET, roleRequest, Map.class));
 
         Map<String, Object> roleRepresentation = roleResponse.getBody();
         if (roleRepresentation == null) {
@@ -132,10 +156,36 @@ public class KeycloakAdminService {
         List<Map<String, Object>> roles = List.of(roleRepresentation);
 
         HttpEntity<List<Map<String, Object>>> assignRequest = new HttpEntity<>(roles, headers);
-        ResponseEntity<Void> assignResponse = restTemplate.exchange(assignUrl, HttpMethod.POST, assignRequest, Void.class);
+        ResponseEntity<Void> assignResponse = timed("assign_role",
+                () -> restTemplate.exchange(assignUrl, HttpMethod.POST, assignRequest, Void.class));
 
         if (!assignResponse.getStatusCode().is2xxSuccessful()) {
             throw new RuntimeException("Failed to assign role '" + roleName + "' to user");
         }
     }
-}
\ No newline at end of file
+
+    // Times one Keycloak admin call (keycloak.admin.requests) by operation and outcome
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("keycloak.admin.requests")
+                    .description("Keycloak admin API calls by operation and outcome")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private record AdminToken(String value, Instant expiry) {
+
+        boolean isFresh() {
+            return Instant.now().isBefore(expiry.minusSeconds(30));
+        }
+    }
+}
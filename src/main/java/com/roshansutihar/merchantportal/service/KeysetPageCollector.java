@@ -0,0 +1,75 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.request.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Builds one keyset page from rows arriving in any order, holding at most size + 1 rows.
+// Rows already filtered by the source (payments core or SQL) pass through unchanged,
+// so the same collector works whether or not the source honoured the cursor.
+public class KeysetPageCollector {
+
+    private final TransactionCursor cursor;
+    private final PageDirection direction;
+    private final int size;
+    // Head is the row that would drop off first: the furthest from the cursor
+    private final PriorityQueue<Transaction> window;
+
+    public KeysetPageCollector(TransactionCursor cursor, PageDirection direction, int size) {
+        this.cursor = cursor;
+        this.direction = cursor == null ? PageDirection.NEXT : direction;
+        this.size = size;
+        this.window = new PriorityQueue<>(size + 2, this.direction == PageDirection.NEXT
+                ? TransactionCursor.NEWEST_FIRST.reversed()
+                : TransactionCursor.NEWEST_FIRST);
+    }
+
+    public void add(Transaction tx) {
+        if (cursor != null) {
+            int position = cursor.positionOf(tx);
+            if (direction == PageDirection.NEXT ? position <= 0 : position >= 0) {
+                return;
+            }
+        }
+        window.add(tx);
+        if (window.size() > size + 1) {
+            window.poll();
+        }
+    }
+
+    public TransactionPage toPage() {
+        List<Transaction> rows = new ArrayList<>(window);
+        rows.sort(TransactionCursor.NEWEST_FIRST);
+        boolean more = rows.size() > size;
+
+        TransactionPage page = new TransactionPage();
+        if (direction == PageDirection.NEXT) {
+            if (more) {
+                rows = rows.subList(0, size);
+            }
+            page.setTransactions(new ArrayList<>(rows));
+            if (more) {
+                page.setNextCursor(TransactionCursor.of(rows.get(rows.size() - 1)).encode());
+            }
+            if (cursor != null && !rows.isEmpty()) {
+                page.setPrevCursor(TransactionCursor.of(rows.get(0)).encode());
+            }
+        } else {
+            if (more) {
+                rows = rows.subList(rows.size() - size, rows.size());
+            }
+            page.setTransactions(new ArrayList<>(rows));
+            if (more) {
+                page.setPrevCursor(TransactionCursor.of(rows.get(0)).encode());
+            }
+            // Going back always leaves the cursor row itself on a later page
+            page.setNextCursor(rows.isEmpty() ? cursor.encode() : TransactionCursor.of(rows.get(rows.size() - 1)).encode());
+        }
+        return page;
+    }
+}
@@ -0,0 +1,275 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.LiveTiles;
+import com.roshansutihar.merchantportal.dto.LiveTransaction;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Server-sent updates for open dashboards. Every merchant with at least one open dashboard has one feed;
+// each interval the feed reads today's rows once and pushes the rows it hasn't seen before plus the tiles
+// (when they changed) to all of that merchant's tabs. A feed stops polling when its last tab goes away.
+//
+// Events: "tiles" (LiveTiles), "transactions" (new LiveTransaction rows, newest first) and "reload" when the
+// Chicago day rolls over. Unchanged polls send a comment so dead connections are noticed.
+// A "transactions" event's id is the newest createdAt in it; a reconnecting EventSource sends it back as
+// Last-Event-ID and resumes from there rather than from the `since` the page was rendered with.
+// For merchants the transaction webhook keeps current, a poll reads only the local mirror and rollups.
+@Service
+public class LiveDashboardFeed {
+
+    public static final String EVENT_TILES = "tiles";
+    public static final String EVENT_TRANSACTIONS = "transactions";
+    public static final String EVENT_RELOAD = "reload";
+
+    private static final Logger log = LoggerFactory.getLogger(LiveDashboardFeed.class);
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+
+    private final ApiService apiService;
+    private final SummaryCache summaryCache;
+    private final TransactionMirrorService transactionMirrorService;
+    private final AsyncTaskExecutor liveDashboardExecutor;
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    @Value("${dashboard.live.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @Value("${dashboard.today.max-rows:1000}")
+    private int todayMaxRows;
+
+    public LiveDashboardFeed(ApiService apiService, SummaryCache summaryCache,
+                             TransactionMirrorService transactionMirrorService,
+                             @Qualifier("liveDashboardExecutor") AsyncTaskExecutor liveDashboardExecutor,
+                             MeterRegistry meterRegistry) {
+        this.apiService = apiService;
+        this.summaryCache = summaryCache;
+        this.transactionMirrorService = transactionMirrorService;
+        this.liveDashboardExecutor = liveDashboardExecutor;
+        Gauge.builder("portal.dashboard.live.feeds", feeds, Map::size)
+                .description("Merchants with at least one open live dashboard")
+                .register(meterRegistry);
+        Gauge.builder("portal.dashboard.live.subscribers", this, LiveDashboardFeed::subscriberCount)
+                .description("Open live dashboard connections")
+                .register(meterRegistry);
+    }
+
+    // `since` is the newest createdAt the tab already has; rows from then on are sent on the first poll (rows at
+    // exactly `since` too, so one that arrived later with the same timestamp isn't lost; the page skips refs it
+    // already shows)
+    public SseEmitter subscribe(String merchantId, LocalDateTime since) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter, since);
+        feeds.compute(merchantId, (id, feed) -> {
+            Feed target = feed != null ? feed : new Feed();
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        Runnable unsubscribe = () -> unsubscribe(merchantId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    // Starts one poll per active feed and returns without waiting, so the shared scheduler thread is never held
+    // by a slow payments core. A feed whose previous poll is still running sits the round out.
+    @Scheduled(fixedDelayString = "${dashboard.live.interval:5s}")
+    public void pollAll() {
+        feeds.forEach((merchantId, feed) -> {
+            if (!feed.polling.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                liveDashboardExecutor.execute(() -> {
+                    try {
+                        poll(merchantId, feed);
+                    } finally {
+                        feed.polling.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                feed.polling.set(false);
+                log.warn("Live dashboard poll for merchant {} skipped this round: executor full", merchantId);
+            }
+        });
+    }
+
+    // One tab's connection; package-private so tests can record what each tab is sent
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeout.toMillis());
+    }
+
+    public int subscriberCount() {
+        return feeds.values().stream().mapToInt(feed -> feed.subscribers.size()).sum();
+    }
+
+    private void poll(String merchantId, Feed feed) {
+        LocalDate today = LocalDate.now(CHICAGO_ZONE);
+        TransactionTotals totals = new TransactionTotals();
+        TransactionResponse response;
+        BigDecimal monthBeforeToday;
+        try {
+            response = transactionMirrorService.findLiveDay(merchantId, today, todayMaxRows, totals)
+                    .orElseGet(() -> apiService.streamTransactionsByDateRange(
+                            merchantId, today, today, null, todayMaxRows, totals));
+            monthBeforeToday = monthBeforeToday(merchantId, today);
+        } catch (Exception e) {
+            log.warn("Live dashboard poll for merchant {} failed: {}", merchantId, e.getMessage());
+            for (Subscriber subscriber : feed.subscribers) {
+                if (!subscriber.comment("poll failed")) {
+                    unsubscribe(merchantId, subscriber);
+                }
+            }
+            return;
+        }
+
+        List<Transaction> rows = response != null && response.getTransactions() != null
+                ? response.getTransactions() : List.of();
+        LiveTiles tiles = new LiveTiles(totals.getCount(), totals.getTotalAmount(), totals.getAcknowledgedCount(),
+                monthBeforeToday.add(totals.getTotalAmount()), totals.getTotalCommission(), totals.getTotalNet(),
+                totals.isMixedCurrency());
+
+        boolean newDay = feed.day != null && !feed.day.equals(today);
+        boolean tilesChanged = !tiles.equals(feed.tiles);
+        List<LiveTransaction> added = new ArrayList<>();
+        Set<String> refs = new HashSet<>(rows.size() * 2);
+        for (Transaction tx : rows) {
+            refs.add(tx.getTransactionRef());
+            if (!feed.refs.contains(tx.getTransactionRef())) {
+                added.add(LiveTransaction.of(tx));
+            }
+        }
+        feed.day = today;
+        feed.refs = refs;
+        feed.tiles = tiles;
+
+        for (Subscriber subscriber : feed.subscribers) {
+            if (!deliver(subscriber, today, newDay, rows, added, tiles, tilesChanged)) {
+                unsubscribe(merchantId, subscriber);
+            }
+        }
+    }
+
+    // False when the tab has gone away
+    private static boolean deliver(Subscriber subscriber, LocalDate today, boolean newDay, List<Transaction> rows,
+                                   List<LiveTransaction> added, LiveTiles tiles, boolean tilesChanged) {
+        if (newDay) {
+            return subscriber.send(EVENT_RELOAD, today.toString());
+        }
+        if (!subscriber.primed) {
+            // First poll for this tab: whatever arrived after its page was rendered, and the current tiles
+            subscriber.primed = true;
+            List<LiveTransaction> missed = rows.stream()
+                    .filter(tx -> subscriber.since == null
+                            || (tx.getCreatedAt() != null && !tx.getCreatedAt().isBefore(subscriber.since)))
+                    .map(LiveTransaction::of)
+                    .toList();
+            return (missed.isEmpty() || subscriber.sendRows(missed))
+                    && subscriber.send(EVENT_TILES, tiles);
+        }
+        if (added.isEmpty() && !tilesChanged) {
+            return subscriber.comment("no change");
+        }
+        return (added.isEmpty() || subscriber.sendRows(added))
+                && (!tilesChanged || subscriber.send(EVENT_TILES, tiles));
+    }
+
+    // Month-to-date without today: closed days come from SummaryCache, today from the rows just read, so the
+    // monthly tile moves together with the today tiles
+    private BigDecimal monthBeforeToday(String merchantId, LocalDate today) {
+        if (today.getDayOfMonth() == 1) {
+            return BigDecimal.ZERO;
+        }
+        SummaryResponse summary = summaryCache.getSummary(merchantId, today.withDayOfMonth(1), today.minusDays(1));
+        return summary != null && summary.getTotalAmount() != null
+                ? BigDecimal.valueOf(summary.getTotalAmount())
+                : BigDecimal.ZERO;
+    }
+
+    private void unsubscribe(String merchantId, Subscriber subscriber) {
+        feeds.computeIfPresent(merchantId, (id, feed) -> {
+            feed.subscribers.remove(subscriber);
+            return feed.subscribers.isEmpty() ? null : feed;
+        });
+    }
+
+    // Polled by one thread at a time: `polling` is held from submitting a poll until it has finished, which also
+    // publishes day, refs and tiles to the next poll's thread
+    private static final class Feed {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean polling = new AtomicBoolean();
+        private LocalDate day;
+        private Set<String> refs = Set.of();
+        private LiveTiles tiles;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final LocalDateTime since;
+        private boolean primed;
+
+        private Subscriber(SseEmitter emitter, LocalDateTime since) {
+            this.emitter = emitter;
+            this.since = since;
+        }
+
+        private boolean send(String event, Object data) {
+            return write(SseEmitter.event().name(event).data(data));
+        }
+
+        private boolean sendRows(List<LiveTransaction> rows) {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(EVENT_TRANSACTIONS).data(rows);
+            rows.stream()
+                    .map(LiveTransaction::createdAt)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .ifPresent(newest -> event.id(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(newest)));
+            return write(event);
+        }
+
+        private boolean comment(String comment) {
+            return write(SseEmitter.event().comment(comment));
+        }
+
+        // A failed write means the tab is gone (or the emitter already completed)
+        private boolean write(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.MerchantCursor;
+import com.roshansutihar.merchantportal.dto.MerchantDirectoryPage;
+import com.roshansutihar.merchantportal.dto.MerchantListing;
+import com.roshansutihar.merchantportal.dto.MerchantOption;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.repository.MerchantRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Admin merchant directory: keyset pages in store-name order and typeahead suggestions, both optionally
+// narrowed to merchants whose store name or site id contains a search term (three characters or more) or starts
+// with it (shorter terms, which as substrings would match most of the registry with no index to help). Reads the
+// projections in MerchantRepository, so a page costs one indexed query for `size` rows whatever the registry size.
+@Service
+public class MerchantDirectoryService {
+
+    static final int MIN_SUBSTRING_LENGTH = 3;
+
+    private final MerchantRepository merchantRepository;
+
+    public MerchantDirectoryService(MerchantRepository merchantRepository) {
+        this.merchantRepository = merchantRepository;
+    }
+
+    public MerchantDirectoryPage getPage(String query, String cursor, PageDirection direction, int size) {
+        String pattern = pattern(query);
+        PageRequest limit = PageRequest.of(0, size + 1);
+        MerchantCursor position = MerchantCursor.decode(cursor);
+        boolean back = position != null && direction == PageDirection.PREV;
+
+        List<MerchantListing> rows;
+        if (pattern == null) {
+            if (position == null) {
+                rows = merchantRepository.findDirectoryFirstPage(limit);
+            } else if (back) {
+                rows = merchantRepository.findDirectoryPageBefore(position.storeName(), position.merchantId(), limit);
+            } else {
+                rows = merchantRepository.findDirectoryPageAfter(position.storeName(), position.merchantId(), limit);
+            }
+        } else if (position == null) {
+            rows = merchantRepository.findMatchingFirstPage(pattern, limit);
+        } else if (back) {
+            rows = merchantRepository.findMatchingPageBefore(pattern, position.storeName(), position.merchantId(),
+                    limit);
+        } else {
+            rows = merchantRepository.findMatchingPageAfter(pattern, position.storeName(), position.merchantId(),
+                    limit);
+        }
+
+        boolean more = rows.size() > size;
+        List<MerchantListing> merchants = new ArrayList<>(more ? rows.subList(0, size) : rows);
+        MerchantDirectoryPage page = new MerchantDirectoryPage();
+        if (!back) {
+            page.setMerchants(merchants);
+            if (more) {
+                page.setNextCursor(MerchantCursor.of(merchants.get(merchants.size() - 1)).encode());
+            }
+            if (position != null && !merchants.isEmpty()) {
+                page.setPrevCursor(MerchantCursor.of(merchants.get(0)).encode());
+            }
+        } else {
+            // The query walks backwards from the cursor; the page is shown in directory order
+            Collections.reverse(merchants);
+            page.setMerchants(merchants);
+            if (more) {
+                page.setPrevCursor(MerchantCursor.of(merchants.get(0)).encode());
+            }
+            // Going back always leaves the cursor row itself on a later page
+            page.setNextCursor(merchants.isEmpty()
+                    ? position.encode()
+                    : MerchantCursor.of(merchants.get(merchants.size() - 1)).encode());
+        }
+        return page;
+    }
+
+    // Merchants starting with the term first, then (for terms long enough) the ones that only contain it.
+    // Nothing for a blank term: the typeahead only queries once something has been typed.
+    public List<MerchantOption> search(String query, int limit) {
+        String term = normalize(query);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        String prefix = escape(term) + "%";
+        List<MerchantOption> options = merchantRepository.searchOptions(prefix, PageRequest.of(0, limit));
+        if (options.size() >= limit || term.length() < MIN_SUBSTRING_LENGTH) {
+            return options;
+        }
+        List<MerchantOption> all = new ArrayList<>(options);
+        all.addAll(merchantRepository.searchOptionsExcluding("%" + escape(term) + "%", prefix,
+                PageRequest.of(0, limit - options.size())));
+        return all;
+    }
+
+    // LIKE pattern for the term, or null (no filter) for a blank one: anywhere for terms of MIN_SUBSTRING_LENGTH
+    // characters or more, as a prefix for shorter ones
+    static String pattern(String query) {
+        String term = normalize(query);
+        if (term.isEmpty()) {
+            return null;
+        }
+        return term.length() >= MIN_SUBSTRING_LENGTH ? "%" + escape(term) + "%" : escape(term) + "%";
+    }
+
+    private static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // The term is matched literally: LIKE wildcards in it are escaped with the repository's '\'
+    private static String escape(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
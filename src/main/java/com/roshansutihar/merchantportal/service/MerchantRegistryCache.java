@@ -0,0 +1,196 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.roshansutihar.merchantportal.dto.MerchantOption;
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.repository.MerchantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-through copy of the merchants table for the request path: lookups by merchant id (admin pages, webhook)
+// and by site id (every merchant request, the site id being the login name) become hash lookups; the admin
+// pages' merchant count and store-name labels are kept per registry version too. Unknown ids are remembered
+// briefly in small caches of their own (so e.g. admin logins don't query on every page): ids from unauthenticated
+// callers such as the webhook can only churn those, never push real merchants out. The registry changes only
+// through the portal's register / bank-details / rotate-secret actions, which call invalidate(); the ttl bounds
+// how long a change made elsewhere (another portal instance, the database) goes unseen. Loads go through
+// getIfPresent + put like SummaryCache, so no query runs under a Caffeine bin lock.
+//
+// Cached entities are shared between requests and must be treated as read-only; writes load their own copy
+// from MerchantRepository.
+@Component
+public class MerchantRegistryCache {
+
+    private final MerchantRepository merchantRepository;
+    private final Cache<Key, Merchant> byMerchantId;
+    private final Cache<Key, Merchant> bySiteId;
+    private final Cache<Key, Boolean> unknownMerchantIds;
+    private final Cache<Key, Boolean> unknownSiteIds;
+    private final Cache<Long, Map<String, String>> storeNames;
+    private final Cache<Long, Long> count;
+    // Part of every key, so a load that read the table before an invalidate() is never served after it
+    private final AtomicLong version = new AtomicLong();
+
+    public MerchantRegistryCache(MerchantRepository merchantRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${merchant-registry.ttl:10m}") Duration ttl,
+                                 @Value("${merchant-registry.max-size:50000}") long maxSize,
+                                 @Value("${merchant-registry.unknown.ttl:30s}") Duration unknownTtl,
+                                 @Value("${merchant-registry.unknown.max-size:1000}") long unknownMaxSize) {
+        this.merchantRepository = merchantRepository;
+        this.byMerchantId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.bySiteId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.unknownMerchantIds = Caffeine.newBuilder()
+                .maximumSize(unknownMaxSize)
+                .expireAfterWrite(unknownTtl)
+                .recordStats()
+                .build();
+        this.unknownSiteIds = Caffeine.newBuilder()
+                .maximumSize(unknownMaxSize)
+                .expireAfterWrite(unknownTtl)
+                .recordStats()
+                .build();
+        this.storeNames = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.count = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byMerchantId, "merchant.registry.merchant-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, bySiteId, "merchant.registry.site-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownMerchantIds, "merchant.registry.unknown-merchant-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownSiteIds, "merchant.registry.unknown-site-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, storeNames, "merchant.registry.store-names");
+        CaffeineCacheMetrics.monitor(meterRegistry, count, "merchant.registry.count");
+    }
+
+    public Optional<Merchant> findByMerchantId(String merchantId) {
+        if (merchantId == null) {
+            return Optional.empty();
+        }
+        Key key = new Key(version.get(), merchantId);
+        Merchant cached = byMerchantId.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (unknownMerchantIds.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+        Optional<Merchant> merchant = merchantRepository.findByMerchantId(merchantId);
+        if (merchant.isPresent()) {
+            byMerchantId.put(key, merchant.get());
+            bySiteId.put(new Key(key.version(), merchant.get().getSiteId()), merchant.get());
+        } else {
+            unknownMerchantIds.put(key, Boolean.TRUE);
+        }
+        return merchant;
+    }
+
+    public Optional<Merchant> findBySiteId(String siteId) {
+        if (siteId == null) {
+            return Optional.empty();
+        }
+        Key key = new Key(version.get(), siteId);
+        Merchant cached = bySiteId.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (unknownSiteIds.getIfPresent(key) != null) {
+            return Optional.empty();
+        }
+        Optional<Merchant> merchant = merchantRepository.findBySiteId(siteId);
+        if (merchant.isPresent()) {
+            bySiteId.put(key, merchant.get());
+            byMerchantId.put(new Key(key.version(), merchant.get().getMerchantId()), merchant.get());
+        } else {
+            unknownSiteIds.put(key, Boolean.TRUE);
+        }
+        return merchant;
+    }
+
+    // Store name by merchant id for every merchant, in directory order, for pages that fan out over or label
+    // all merchants (cross-merchant transactions, platform KPIs); loaded as a projection, not as entities
+    public Map<String, String> storeNames() {
+        long current = version.get();
+        Map<String, String> names = storeNames.getIfPresent(current);
+        if (names == null) {
+            Map<String, String> loaded = new LinkedHashMap<>();
+            for (MerchantOption option : merchantRepository.findAllOptions()) {
+                loaded.putIfAbsent(option.merchantId(), option.storeName());
+            }
+            names = Collections.unmodifiableMap(loaded);
+            storeNames.put(current, names);
+        }
+        return names;
+    }
+
+    public long count() {
+        long current = version.get();
+        Long merchants = count.getIfPresent(current);
+        if (merchants == null) {
+            merchants = merchantRepository.count();
+            count.put(current, merchants);
+        }
+        return merchants;
+    }
+
+    // Called after any write to the merchants table
+    public void invalidate() {
+        version.incrementAndGet();
+        byMerchantId.invalidateAll();
+        bySiteId.invalidateAll();
+        unknownMerchantIds.invalidateAll();
+        unknownSiteIds.invalidateAll();
+        storeNames.invalidateAll();
+        count.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", version.get());
+        stats.put("byMerchantId", describe(byMerchantId));
+        stats.put("bySiteId", describe(bySiteId));
+        stats.put("unknownMerchantIds", describe(unknownMerchantIds));
+        stats.put("unknownSiteIds", describe(unknownSiteIds));
+        stats.put("storeNames", describe(storeNames));
+        stats.put("count", describe(count));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("size", cache.estimatedSize());
+        described.put("hits", stats.hitCount());
+        described.put("misses", stats.missCount());
+        described.put("evictions", stats.evictionCount());
+        described.put("hitRate", stats.hitRate());
+        return described;
+    }
+
+    private record Key(long version, String id) {
+    }
+}
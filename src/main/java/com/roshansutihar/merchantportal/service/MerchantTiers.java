@@ -0,0 +1,77 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roshansutihar.merchantportal.repository.DailyMerchantRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+// Buckets merchants into a fixed set of tiers by their transaction count over the last 30 closed days,
+// read from the daily rollups. Meters are tagged with the tier rather than the merchant id, so the number
+// of series doesn't grow with the merchant registry.
+@Component
+public class MerchantTiers {
+
+    private static final Logger log = LoggerFactory.getLogger(MerchantTiers.class);
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+
+    // Request attribute a controller sets once the request is authorized for the merchant (see MetricsConfig)
+    public static final String MERCHANT_ID_ATTRIBUTE = MerchantTiers.class.getName() + ".merchantId";
+
+    public static final String NONE = "none";
+    public static final String UNKNOWN = "unknown";
+    public static final String SMALL = "small";
+    public static final String MID = "mid";
+    public static final String LARGE = "large";
+
+    private final DailyMerchantRollupRepository rollupRepository;
+    private final long midTransactions;
+    private final long largeTransactions;
+    private final Cache<String, String> tiers;
+
+    public MerchantTiers(DailyMerchantRollupRepository rollupRepository,
+                         @Value("${metrics.merchant-tier.mid-transactions:1000}") long midTransactions,
+                         @Value("${metrics.merchant-tier.large-transactions:20000}") long largeTransactions,
+                         @Value("${metrics.merchant-tier.ttl:1h}") Duration ttl) {
+        this.rollupRepository = rollupRepository;
+        this.midTransactions = midTransactions;
+        this.largeTransactions = largeTransactions;
+        this.tiers = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public String tierOf(String merchantId) {
+        if (merchantId == null || merchantId.isBlank()) {
+            return NONE;
+        }
+        // Not cache.get(key, loader): the DB lookup would run inside a map lock and pin a virtual thread
+        String tier = tiers.getIfPresent(merchantId);
+        if (tier == null) {
+            tier = lookup(merchantId);
+            tiers.put(merchantId, tier);
+        }
+        return tier;
+    }
+
+    private String lookup(String merchantId) {
+        LocalDate yesterday = LocalDate.now(CHICAGO_ZONE).minusDays(1);
+        try {
+            Long count = rollupRepository.summarize(merchantId, yesterday.minusDays(29), yesterday).getCount();
+            if (count == null) {
+                return UNKNOWN;
+            }
+            return count >= largeTransactions ? LARGE : count >= midTransactions ? MID : SMALL;
+        } catch (Exception e) {
+            log.debug("Merchant tier lookup failed for {}: {}", merchantId, e.getMessage());
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.roshansutihar.merchantportal.service;
+
+// Payments-core operations that each get their own circuit breaker
+public enum PaymentsCoreEndpoint {
+    TRANSACTIONS(true),
+    SUMMARY(true),
+    REGISTER(false),
+    ROTATE_SECRET(false);
+
+    private final boolean read;
+
+    PaymentsCoreEndpoint(boolean read) {
+        this.read = read;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+}
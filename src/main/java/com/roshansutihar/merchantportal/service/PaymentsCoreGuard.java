@@ -0,0 +1,258 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roshansutihar.merchantportal.dto.DataAsOf;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Wraps payments-core calls in a per-endpoint circuit breaker.
+// Reads remember their last good response per request key and serve a copy of it, marked with
+// dataAsOf, while the breaker is open or when the call fails. Writes just fail fast.
+// Every call is timed per endpoint and outcome (payments.core.requests); each breaker's state and transitions
+// are exported per endpoint (payments.core.circuit.state, payments.core.circuit.transitions).
+@Component
+public class PaymentsCoreGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentsCoreGuard.class);
+
+    private final Map<PaymentsCoreEndpoint, CircuitBreaker> breakers = new EnumMap<>(PaymentsCoreEndpoint.class);
+    private final Cache<String, LastGood> lastGood;
+    private final Map<PaymentsCoreEndpoint, AtomicLong> staleServed = new EnumMap<>(PaymentsCoreEndpoint.class);
+    private final MeterRegistry meterRegistry;
+
+    public PaymentsCoreGuard(
+            MeterRegistry meterRegistry,
+            @Value("${payments-core.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${payments-core.breaker.open-duration:30s}") Duration openDuration,
+            @Value("${payments-core.last-good.max-weight:200000}") long lastGoodMaxWeight,
+            @Value("${payments-core.last-good.ttl:24h}") Duration lastGoodTtl) {
+        this.meterRegistry = meterRegistry;
+        for (PaymentsCoreEndpoint endpoint : PaymentsCoreEndpoint.values()) {
+            CircuitBreaker breaker = new CircuitBreaker(endpoint.name(), failureThreshold, openDuration);
+            breakers.put(endpoint, breaker);
+            Gauge.builder("payments.core.circuit.open", breaker,
+                            b -> b.getState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                    .description("1 while the endpoint's circuit is open")
+                    .tag("endpoint", tagValue(endpoint))
+                    .register(meterRegistry);
+            // One series per state, so HALF_OPEN doesn't read as CLOSED the way it does on circuit.open
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                String stateTag = state.name().toLowerCase();
+                Gauge.builder("payments.core.circuit.state", breaker, b -> b.getState() == state ? 1 : 0)
+                        .description("1 while the endpoint's circuit is in this state")
+                        .tag("endpoint", tagValue(endpoint))
+                        .tag("state", stateTag)
+                        .register(meterRegistry);
+                FunctionCounter.builder("payments.core.circuit.transitions", breaker, b -> b.transitionsInto(state))
+                        .description("Times the endpoint's circuit moved into this state")
+                        .tag("endpoint", tagValue(endpoint))
+                        .tag("state", stateTag)
+                        .register(meterRegistry);
+            }
+            AtomicLong served = new AtomicLong();
+            staleServed.put(endpoint, served);
+            FunctionCounter.builder("payments.core.stale.served", served, AtomicLong::get)
+                    .description("Reads answered from the last good copy")
+                    .tag("endpoint", tagValue(endpoint))
+                    .register(meterRegistry);
+        }
+        // Weighted by row count so a few wide transaction ranges can't crowd out everything else
+        this.lastGood = Caffeine.newBuilder()
+                .maximumWeight(lastGoodMaxWeight)
+                .weigher((String key, LastGood entry) -> entry.weight())
+                .expireAfterWrite(lastGoodTtl)
+                .build();
+    }
+
+    public <T extends DataAsOf> T read(PaymentsCoreEndpoint endpoint, String key, Supplier<T> call) {
+        String cacheKey = endpoint.name() + ' ' + key;
+        try {
+            T response = call(endpoint, call);
+            if (response != null) {
+                lastGood.put(cacheKey, new LastGood(response, Instant.now()));
+            }
+            return response;
+        } catch (RuntimeException e) {
+            LastGood previous = lastGood.getIfPresent(cacheKey);
+            if (previous == null || isClientError(e)) {
+                throw e;
+            }
+            staleServed.get(endpoint).incrementAndGet();
+            log.warn("Serving {} from {} for {}: {}", endpoint, previous.fetchedAt(), key, e.getMessage());
+            return staleCopy(previous);
+        }
+    }
+
+    public <T> T call(PaymentsCoreEndpoint endpoint, Supplier<T> call) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        if (!breaker.tryAcquire()) {
+            shortCircuited(endpoint).increment();
+            throw unavailable(endpoint);
+        }
+        CircuitBreaker.State before = breaker.getState();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.get();
+            record(endpoint, breaker, before, sample, null);
+            return result;
+        } catch (RuntimeException e) {
+            record(endpoint, breaker, before, sample, e);
+            throw e;
+        }
+    }
+
+    // Reactive counterparts of read/call for ReactiveApiService; the breakers and last-good copies are shared
+    public <T extends DataAsOf> Mono<T> readReactive(PaymentsCoreEndpoint endpoint, String key, Mono<T> call) {
+        String cacheKey = endpoint.name() + ' ' + key;
+        return callReactive(endpoint, call)
+                .doOnNext(response -> lastGood.put(cacheKey, new LastGood(response, Instant.now())))
+                .onErrorResume(e -> {
+                    LastGood previous = lastGood.getIfPresent(cacheKey);
+                    if (previous == null || isClientError(e)) {
+                        return Mono.error(e);
+                    }
+                    staleServed.get(endpoint).incrementAndGet();
+                    log.warn("Serving {} from {} for {}: {}", endpoint, previous.fetchedAt(), key, e.getMessage());
+                    return Mono.just(staleCopy(previous));
+                });
+    }
+
+    public <T> Mono<T> callReactive(PaymentsCoreEndpoint endpoint, Mono<T> call) {
+        return Mono.defer(() -> {
+            CircuitBreaker breaker = breakers.get(endpoint);
+            if (!breaker.tryAcquire()) {
+                shortCircuited(endpoint).increment();
+                return Mono.error(unavailable(endpoint));
+            }
+            CircuitBreaker.State before = breaker.getState();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(result -> record(endpoint, breaker, before, sample, null))
+                    .doOnError(e -> record(endpoint, breaker, before, sample, e))
+                    .doOnCancel(() -> cancelled(endpoint, breaker, sample));
+        });
+    }
+
+    public <T> Flux<T> callReactive(PaymentsCoreEndpoint endpoint, Flux<T> call) {
+        return Flux.defer(() -> {
+            CircuitBreaker breaker = breakers.get(endpoint);
+            if (!breaker.tryAcquire()) {
+                shortCircuited(endpoint).increment();
+                return Flux.error(unavailable(endpoint));
+            }
+            CircuitBreaker.State before = breaker.getState();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnComplete(() -> record(endpoint, breaker, before, sample, null))
+                    .doOnError(e -> record(endpoint, breaker, before, sample, e))
+                    .doOnCancel(() -> cancelled(endpoint, breaker, sample));
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        breakers.forEach((endpoint, breaker) -> stats.put(endpoint.name(), breaker.stats()));
+        stats.put("staleServed", staleServed.values().stream().mapToLong(AtomicLong::get).sum());
+        stats.put("lastGoodEntries", lastGood.estimatedSize());
+        return stats;
+    }
+
+    private void record(PaymentsCoreEndpoint endpoint, CircuitBreaker breaker, CircuitBreaker.State before,
+                        Timer.Sample sample, Throwable error) {
+        if (error == null || isClientError(error)) {
+            breaker.onSuccess();
+        } else {
+            breaker.onFailure();
+        }
+        sample.stop(timer(endpoint, error == null ? "success" : isClientError(error) ? "client_error" : "error"));
+        logTransition(breaker, before);
+    }
+
+    private void cancelled(PaymentsCoreEndpoint endpoint, CircuitBreaker breaker, Timer.Sample sample) {
+        breaker.onCancelled();
+        sample.stop(timer(endpoint, "cancelled"));
+    }
+
+    // Histogram buckets so latency percentiles can be aggregated across instances in Prometheus
+    private Timer timer(PaymentsCoreEndpoint endpoint, String outcome) {
+        return Timer.builder("payments.core.requests")
+                .description("Payments-core calls by endpoint and outcome")
+                .tag("endpoint", tagValue(endpoint))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter shortCircuited(PaymentsCoreEndpoint endpoint) {
+        return Counter.builder("payments.core.short.circuited")
+                .description("Calls refused because the endpoint's circuit was open")
+                .tag("endpoint", tagValue(endpoint))
+                .register(meterRegistry);
+    }
+
+    private static String tagValue(PaymentsCoreEndpoint endpoint) {
+        return endpoint.name().toLowerCase();
+    }
+
+    // A 4xx means the core answered; that's the caller's problem, not an outage
+    private static boolean isClientError(Throwable e) {
+        return e instanceof HttpClientErrorException
+                || (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+
+    private static PaymentsCoreUnavailableException unavailable(PaymentsCoreEndpoint endpoint) {
+        return new PaymentsCoreUnavailableException(endpoint,
+                "Payments service is temporarily unavailable (" + endpoint + " circuit open)", null);
+    }
+
+    private void logTransition(CircuitBreaker breaker, CircuitBreaker.State before) {
+        CircuitBreaker.State after = breaker.getState();
+        if (after != before) {
+            log.warn("Payments-core circuit {} moved {} -> {}", breaker.getName(), before, after);
+        }
+    }
+
+    // Cached instances are shared, so the marker goes on a shallow copy
+    @SuppressWarnings("unchecked")
+    private static <T extends DataAsOf> T staleCopy(LastGood previous) {
+        T copy = (T) BeanUtils.instantiateClass(previous.response().getClass());
+        BeanUtils.copyProperties(previous.response(), copy);
+        copy.setDataAsOf(previous.fetchedAt());
+        return copy;
+    }
+
+    private record LastGood(DataAsOf response, Instant fetchedAt) {
+        int weight() {
+            if (response instanceof TransactionResponse transactions && transactions.getTransactions() != null) {
+                return 1 + transactions.getTransactions().size();
+            }
+            if (response instanceof TransactionPage page) {
+                return 1 + page.getTransactions().size();
+            }
+            return 1;
+        }
+    }
+}
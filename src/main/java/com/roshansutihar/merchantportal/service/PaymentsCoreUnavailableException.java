@@ -0,0 +1,17 @@
+package com.roshansutihar.merchantportal.service;
+
+// Thrown instead of calling the payments core while its breaker is open (or when a read
+// failed and there is no earlier response to fall back to)
+public class PaymentsCoreUnavailableException extends RuntimeException {
+
+    private final PaymentsCoreEndpoint endpoint;
+
+    public PaymentsCoreUnavailableException(PaymentsCoreEndpoint endpoint, String message, Throwable cause) {
+        super(message, cause);
+        this.endpoint = endpoint;
+    }
+
+    public PaymentsCoreEndpoint getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,175 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roshansutihar.merchantportal.dto.MerchantKpi;
+import com.roshansutihar.merchantportal.dto.PlatformKpis;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Platform-wide KPIs for the admin page. Every merchant in the payments-core registry gets its period summary
+// through SummaryCache (rollups for closed days, the core for today) on the bounded crossMerchantExecutor,
+// and the results are reduced into platform totals and top-N rankings. Complete results are cached per period;
+// concurrent views of the same period share one computation.
+@Service
+public class PlatformKpiService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformKpiService.class);
+
+    private static final Comparator<MerchantKpi> BY_VOLUME = Comparator.comparing(MerchantKpi::grossVolume)
+            .thenComparing(MerchantKpi::merchantId, Comparator.reverseOrder());
+    private static final Comparator<MerchantKpi> BY_TRANSACTIONS = Comparator.comparingLong(MerchantKpi::transactions)
+            .thenComparing(MerchantKpi::merchantId, Comparator.reverseOrder());
+
+    private final ApiService apiService;
+    private final SummaryCache summaryCache;
+    private final AsyncTaskExecutor crossMerchantExecutor;
+    private final Cache<Period, PlatformKpis> kpis;
+    private final SingleFlight<Period> computations = new SingleFlight<>();
+
+    @Value("${admin.kpis.deadline:30s}")
+    private Duration deadline;
+
+    @Value("${admin.kpis.top-n:10}")
+    private int topN;
+
+    public PlatformKpiService(ApiService apiService,
+                              SummaryCache summaryCache,
+                              @Qualifier("crossMerchantExecutor") AsyncTaskExecutor crossMerchantExecutor,
+                              @Value("${admin.kpis.ttl:5m}") Duration ttl,
+                              @Value("${admin.kpis.max-size:200}") long maxSize) {
+        this.apiService = apiService;
+        this.summaryCache = summaryCache;
+        this.crossMerchantExecutor = crossMerchantExecutor;
+        this.kpis = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public PlatformKpis getKpis(LocalDate from, LocalDate to) {
+        Period period = new Period(from, to);
+        PlatformKpis cached = kpis.getIfPresent(period);
+        if (cached != null) {
+            return cached;
+        }
+        PlatformKpis computed = computations.execute(period, () -> compute(from, to));
+        // Partial or stale figures are shown once but not kept, so the next view tries again
+        if (!computed.isPartial() && computed.getDataAsOf() == null) {
+            kpis.put(period, computed);
+        }
+        return computed;
+    }
+
+    private PlatformKpis compute(LocalDate from, LocalDate to) {
+        long started = System.nanoTime();
+        long deadlineNanos = started + deadline.toNanos();
+        List<String> merchantIds = apiService.getMerchantIds();
+
+        Map<String, CompletableFuture<SummaryResponse>> pending = new LinkedHashMap<>();
+        for (String merchantId : merchantIds) {
+            pending.put(merchantId, submit(() -> summaryCache.getSummary(merchantId, from, to)));
+        }
+
+        PlatformKpis result = new PlatformKpis();
+        result.setFrom(from);
+        result.setTo(to);
+        result.setMerchantCount(merchantIds.size());
+        List<MerchantKpi> active = new ArrayList<>();
+        pending.forEach((merchantId, future) -> {
+            SummaryResponse summary = await(future, deadlineNanos, merchantId);
+            if (summary == null) {
+                result.getMissingMerchantIds().add(merchantId);
+                return;
+            }
+            long transactions = summary.getTotalTransactions() != null ? summary.getTotalTransactions() : 0L;
+            BigDecimal gross = decimal(summary.getTotalAmount());
+            BigDecimal commission = decimal(summary.getTotalCommission());
+            result.setTotalTransactions(result.getTotalTransactions() + transactions);
+            result.setGrossVolume(result.getGrossVolume().add(gross));
+            result.setCommission(result.getCommission().add(commission));
+            result.setNetVolume(result.getNetVolume().add(decimal(summary.getTotalNetAmount())));
+            if (summary.getDataAsOf() != null
+                    && (result.getDataAsOf() == null || summary.getDataAsOf().isBefore(result.getDataAsOf()))) {
+                result.setDataAsOf(summary.getDataAsOf());
+            }
+            if (transactions > 0) {
+                active.add(new MerchantKpi(merchantId, transactions, gross, commission));
+            }
+        });
+
+        result.setActiveMerchantCount(active.size());
+        result.setTopByVolume(top(active, BY_VOLUME, topN));
+        result.setTopByTransactions(top(active, BY_TRANSACTIONS, topN));
+        result.setComputedAt(Instant.now());
+        log.info("Platform KPIs for {} to {}: {} merchants ({} missing) in {} ms", from, to, merchantIds.size(),
+                result.getMissingMerchantIds().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return result;
+    }
+
+    // Bounded min-heap: keeps the n largest by `order` without sorting every merchant
+    static List<MerchantKpi> top(List<MerchantKpi> merchants, Comparator<MerchantKpi> order, int n) {
+        PriorityQueue<MerchantKpi> heap = new PriorityQueue<>(n + 1, order);
+        for (MerchantKpi merchant : merchants) {
+            heap.add(merchant);
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        }
+        List<MerchantKpi> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+
+    private static BigDecimal decimal(Double value) {
+        return value != null ? BigDecimal.valueOf(value) : BigDecimal.ZERO;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, crossMerchantExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, long deadlineNanos, String merchantId) {
+        long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Platform KPIs: merchant {} missed the {} deadline", merchantId, deadline);
+        } catch (ExecutionException e) {
+            log.warn("Platform KPIs: merchant {} failed: {}", merchantId, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private record Period(LocalDate from, LocalDate to) {
+    }
+}
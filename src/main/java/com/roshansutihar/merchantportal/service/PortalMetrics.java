@@ -0,0 +1,33 @@
+package com.roshansutihar.merchantportal.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Portal meters that Actuator doesn't provide itself. Merchant-level meters carry the merchant's tier,
+// never its id (see MerchantTiers).
+@Component
+public class PortalMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final MerchantTiers merchantTiers;
+
+    public PortalMetrics(MeterRegistry meterRegistry, MerchantTiers merchantTiers) {
+        this.meterRegistry = meterRegistry;
+        this.merchantTiers = merchantTiers;
+    }
+
+    // Rows in a transaction list handed to a view; `source` is mirror, core or dashboard
+    public void transactionRows(String source, String merchantId, long rows) {
+        DistributionSummary.builder("portal.transactions.rows")
+                .description("Rows per transaction list served")
+                .baseUnit("rows")
+                .tag("source", source)
+                .tag("merchant.tier", merchantTiers.tierOf(merchantId))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(100_000.0)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
@@ -0,0 +1,217 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.MerchantResponse;
+import com.roshansutihar.merchantportal.response.SecretRotationResponse;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// WebClient implementation of the ApiService payments-core operations, enabled with payments-core.client=reactive.
+// Nothing here blocks a thread while waiting on the core: transaction rows are decoded as the bytes arrive
+// and only as fast as the subscriber requests them. Uses the same URLs, circuit breakers and last-good copies
+// as ApiService, so switching the property back and forth doesn't change what the core sees.
+@Service
+@ConditionalOnProperty(name = "payments-core.client", havingValue = "reactive")
+public class ReactiveApiService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveApiService.class);
+
+    @Value("${PAYMENTS_CORE_BASE_URL}")
+    private String baseUrl;
+
+    private final WebClient paymentsCoreWebClient;
+    private final ObjectMapper objectMapper;
+    private final PaymentsCoreGuard paymentsCoreGuard;
+
+    // Identical concurrent reads share one upstream exchange, as with ApiService's SingleFlight
+    private final ConcurrentMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveApiService(WebClient paymentsCoreWebClient, ObjectMapper objectMapper,
+                              PaymentsCoreGuard paymentsCoreGuard) {
+        this.paymentsCoreWebClient = paymentsCoreWebClient;
+        this.objectMapper = objectMapper;
+        this.paymentsCoreGuard = paymentsCoreGuard;
+    }
+
+    public Mono<List<String>> getMerchantIds() {
+        return paymentsCoreWebClient.get()
+                .uri(baseUrl + "/api/v1/merchants/ids")
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<String>>() {});
+    }
+
+    // Every transaction in the range, decoded incrementally. Rows can't be replayed,
+    // so like ApiService.forEachTransaction there is no stale fallback; an open circuit fails fast.
+    public Flux<Transaction> getTransactions(String merchantId, LocalDate from, LocalDate to, String status) {
+        String finalUrl = ApiService.transactionsUrl(baseUrl, merchantId, from, to, status).toUriString();
+        return paymentsCoreGuard.callReactive(PaymentsCoreEndpoint.TRANSACTIONS, transactions(finalUrl))
+                .doOnError(e -> log.error("API call FAILED for getTransactions (merchantId={}): {}",
+                        merchantId, e.getMessage()));
+    }
+
+    public Mono<TransactionResponse> getTransactionsByDateRange(String merchantId, LocalDate from, LocalDate to,
+                                                                String status) {
+        String finalUrl = ApiService.transactionsUrl(baseUrl, merchantId, from, to, status).toUriString();
+        log.info("Calling external API (reactive): GET {}", finalUrl);
+
+        return coalesce(finalUrl, paymentsCoreGuard.readReactive(PaymentsCoreEndpoint.TRANSACTIONS, finalUrl,
+                transactions(finalUrl)
+                        .collectList()
+                        .map(rows -> {
+                            TransactionResponse response = new TransactionResponse();
+                            response.setMerchantId(merchantId);
+                            response.setTransactions(rows);
+                            response.setTotalCount((long) rows.size());
+                            response.setTotalAmount(TransactionTotals.of(rows).getTotalAmount().doubleValue());
+                            log.info("API success - Range transactions for {}: {} items", merchantId, rows.size());
+                            return response;
+                        })));
+    }
+
+    // Same contract as ApiService.streamTransactionsByDateRange: every row is folded into the totals,
+    // only the first maxRows are kept for display.
+    public Mono<TransactionResponse> streamTransactionsByDateRange(String merchantId, LocalDate from, LocalDate to,
+                                                                   String status, int maxRows,
+                                                                   TransactionTotals totals) {
+        String finalUrl = ApiService.transactionsUrl(baseUrl, merchantId, from, to, status).toUriString();
+        log.info("Calling external API (reactive, streaming): GET {}", finalUrl);
+
+        Mono<StreamedRange> streamed = coalesce("stream " + maxRows + " " + finalUrl,
+                getTransactions(merchantId, from, to, status)
+                        .reduceWith(() -> StreamedRange.empty(maxRows), (range, tx) -> range.add(tx, maxRows)));
+        return streamed.map(range -> {
+            log.info("API success - Streamed {} transactions for {} (kept {})",
+                    range.totals().getCount(), merchantId, range.kept().size());
+            totals.merge(range.totals());
+            TransactionResponse result = new TransactionResponse();
+            result.setMerchantId(merchantId);
+            result.setTransactions(range.kept());
+            result.setTotalCount(range.totals().getCount());
+            result.setTotalAmount(range.totals().getTotalAmount().doubleValue());
+            return result;
+        });
+    }
+
+    // One keyset page, newest first; see ApiService.getTransactionPage
+    public Mono<TransactionPage> getTransactionPage(String merchantId, LocalDate from, LocalDate to, String status,
+                                                    String cursor, PageDirection direction, int size) {
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        UriComponentsBuilder builder = ApiService.transactionsUrl(baseUrl, merchantId, from, to, status)
+                .queryParam("size", size + 1);
+        if (position != null) {
+            builder.queryParam("cursor", position.encode())
+                    .queryParam("direction", direction.name().toLowerCase());
+        }
+        String finalUrl = builder.toUriString();
+        log.info("Calling external API (reactive, page): GET {}", finalUrl);
+
+        return coalesce(finalUrl, paymentsCoreGuard.readReactive(PaymentsCoreEndpoint.TRANSACTIONS, finalUrl,
+                Mono.defer(() -> {
+                    KeysetPageCollector collector = new KeysetPageCollector(position, direction, size);
+                    return transactions(finalUrl)
+                            .doOnNext(collector::add)
+                            .then(Mono.fromSupplier(collector::toPage));
+                })));
+    }
+
+    public Mono<SummaryResponse> getSummary(String merchantId, LocalDate from, LocalDate to) {
+        String finalUrl = ApiService.summaryUrl(baseUrl, merchantId, from, to).toUriString();
+        log.info("Calling external API (reactive, summary): GET {}", finalUrl);
+
+        return coalesce(finalUrl, paymentsCoreGuard.readReactive(PaymentsCoreEndpoint.SUMMARY, finalUrl,
+                paymentsCoreWebClient.get()
+                        .uri(URI.create(finalUrl))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .retrieve()
+                        .bodyToMono(SummaryResponse.class)));
+    }
+
+    public Mono<MerchantResponse> registerMerchant(Map<String, Object> request) {
+        return paymentsCoreGuard.callReactive(PaymentsCoreEndpoint.REGISTER,
+                paymentsCoreWebClient.post()
+                        .uri(baseUrl + "/api/v1/merchants/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(MerchantResponse.class));
+    }
+
+    public Mono<String> rotateSecretKey(String merchantId) {
+        return paymentsCoreGuard.callReactive(PaymentsCoreEndpoint.ROTATE_SECRET,
+                        paymentsCoreWebClient.post()
+                                .uri(baseUrl + "/api/v1/merchants/" + merchantId + "/rotate-secret")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .retrieve()
+                                .bodyToMono(SecretRotationResponse.class))
+                .map(SecretRotationResponse::getNewSecretKey)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Failed to rotate secret key: empty response")));
+    }
+
+    // Response bytes are pulled one buffer at a time (prefetch 1), so a slow subscriber
+    // slows the socket reads instead of queueing decoded rows in memory
+    private Flux<Transaction> transactions(String finalUrl) {
+        return Flux.using(() -> new TransactionStreamDecoder(objectMapper),
+                decoder -> paymentsCoreWebClient.get()
+                        .uri(URI.create(finalUrl))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class)
+                        .concatMapIterable(decoder::feed, 1)
+                        .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.endOfInput()))),
+                TransactionStreamDecoder::close);
+    }
+
+    // The first subscriber for a key starts the exchange; later ones join it until it completes.
+    // Errors are shared with everyone already waiting, but the entry is dropped so the next call retries.
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> coalesce(String key, Mono<T> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<T>> self = new AtomicReference<>();
+            Mono<T> shared = call.doFinally(signal -> inFlight.remove(key, self.get())).cache();
+            self.set(shared);
+            Mono<?> existing = inFlight.putIfAbsent(key, shared);
+            return existing != null ? (Mono<T>) existing : shared;
+        });
+    }
+
+    private record StreamedRange(List<Transaction> kept, TransactionTotals totals) {
+
+        static StreamedRange empty(int maxRows) {
+            return new StreamedRange(new ArrayList<>(Math.min(maxRows, 1024)), new TransactionTotals());
+        }
+
+        StreamedRange add(Transaction tx, int maxRows) {
+            totals.add(tx);
+            if (kept.size() < maxRows) {
+                kept.add(tx);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.repository.SiteIdBlockWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Issues the 5-digit site IDs (the merchants' login names). IDs come from blocks of 100 claimed in site_id_blocks
+// (V7): a claim reads which of the block's IDs merchants already have, and the rest are handed out in random order
+// from memory. Allocation is a deque poll; the database is asked at most once per block, whatever the fill level.
+//
+// A claim is a lease. This instance stops using a block after half the lease, and only then can another instance
+// claim it, re-reading the used IDs first; so two instances never hand out the same ID, and IDs that were never
+// registered (a crashed instance, a failed registration) become available again once the lease runs out.
+// merchants.site_id stays UNIQUE as the last line of defence.
+@Service
+public class SiteIdAllocator {
+
+    static final int MIN_SITE_ID = 1;
+    static final int MAX_SITE_ID = 99999;
+    static final int BLOCK_SIZE = 100;
+
+    private final SiteIdBlockWriter blockWriter;
+    private final Duration lease;
+    private final Random random = new Random();
+    // Not synchronized, so a registration waiting here during a claim doesn't pin a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<String> free = new ArrayDeque<>(BLOCK_SIZE);
+    private long usableUntil;
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong claims = new AtomicLong();
+    private final AtomicLong exhaustedBlocks = new AtomicLong();
+
+    public SiteIdAllocator(SiteIdBlockWriter blockWriter,
+                           @Value("${site-ids.lease:10m}") Duration lease) {
+        this.blockWriter = blockWriter;
+        this.lease = lease;
+    }
+
+    // An unused site ID; IllegalStateException once all of them belong to merchants
+    public String allocate() {
+        lock.lock();
+        try {
+            if (System.nanoTime() - usableUntil > 0) {
+                free.clear();
+            }
+            while (free.isEmpty()) {
+                claimBlock();
+            }
+            allocated.incrementAndGet();
+            return free.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("allocated", allocated.get());
+        stats.put("claims", claims.get());
+        stats.put("exhaustedBlocks", exhaustedBlocks.get());
+        lock.lock();
+        try {
+            stats.put("freeInBlock", free.size());
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    // Fills `free` from the next claimable block, or marks that block exhausted and leaves `free` empty
+    private void claimBlock() {
+        // Measured from before the claim, so this instance always lets go before the database lease ends
+        long claimedAt = System.nanoTime();
+        Integer block = blockWriter.claim(lease);
+        if (block == null) {
+            throw new IllegalStateException("No site ID available: all " + MAX_SITE_ID
+                    + " are in use or held by registrations in progress");
+        }
+        claims.incrementAndGet();
+
+        int first = Math.max(MIN_SITE_ID, block * BLOCK_SIZE);
+        int last = Math.min(MAX_SITE_ID, block * BLOCK_SIZE + BLOCK_SIZE - 1);
+        Set<String> used = new HashSet<>(blockWriter.usedBetween(format(first), format(last)));
+        List<String> ids = new ArrayList<>(BLOCK_SIZE);
+        for (int number = first; number <= last; number++) {
+            String siteId = format(number);
+            if (!used.contains(siteId)) {
+                ids.add(siteId);
+            }
+        }
+        if (ids.isEmpty()) {
+            blockWriter.markExhausted(block);
+            exhaustedBlocks.incrementAndGet();
+            return;
+        }
+        Collections.shuffle(ids, random);
+        free.addAll(ids);
+        usableUntil = claimedAt + lease.toNanos() / 2;
+    }
+
+    // Pads with zeros: 00001, 01234, etc.
+    static String format(int number) {
+        return String.format("%05d", number);
+    }
+}
@@ -0,0 +1,188 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.roshansutihar.merchantportal.dto.DataAsOf;
+import com.roshansutihar.merchantportal.dto.PeriodComparison;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Caches payments-core summaries per merchant and Chicago-day range.
+// Closed days are read from the daily rollups when the mirror covers them (one row per day),
+// otherwise from the payments core. Anything touching today is split into a closed prefix plus a short-lived
+// "live" part. For merchants the transaction webhook keeps current, the live part is read from the rollups on
+// every call instead.
+// Closed days still change (late settlements, refunds), so closed ranges are keyed by the merchant's rollup
+// version: a re-check rebuild or a webhook event moves the merchant to a fresh key once committed. Other
+// instances' writes and payments-core corrections to unmirrored days don't bump it; closed.ttl bounds those.
+// Totals for a single status (getStatusSummary) are split and cached the same way, keyed by the status too.
+@Service
+public class SummaryCache {
+
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+
+    private final ApiService apiService;
+    private final DailyRollupService dailyRollupService;
+    private final Cache<SummaryKey, SummaryResponse> closedRanges;
+    private final Cache<SummaryKey, SummaryResponse> liveRanges;
+    private final Duration closedDayGrace;
+
+    public SummaryCache(
+            ApiService apiService,
+            DailyRollupService dailyRollupService,
+            @Value("${summary-cache.closed.max-size:50000}") long closedMaxSize,
+            @Value("${summary-cache.closed.ttl:6h}") Duration closedTtl,
+            @Value("${summary-cache.live.ttl:30s}") Duration liveTtl,
+            @Value("${summary-cache.live.max-size:10000}") long liveMaxSize,
+            @Value("${summary-cache.closed-day-grace:15m}") Duration closedDayGrace) {
+        this.apiService = apiService;
+        this.dailyRollupService = dailyRollupService;
+        this.closedDayGrace = closedDayGrace;
+        this.closedRanges = Caffeine.newBuilder()
+                .maximumSize(closedMaxSize)
+                .expireAfterWrite(closedTtl)
+                .recordStats()
+                .build();
+        this.liveRanges = Caffeine.newBuilder()
+                .maximumSize(liveMaxSize)
+                .expireAfterWrite(liveTtl)
+                .recordStats()
+                .build();
+    }
+
+    public SummaryResponse getSummary(String merchantId, LocalDate from, LocalDate to) {
+        return split(from, to, (f, t) -> closed(merchantId, f, t), (f, t) -> live(merchantId, f, t));
+    }
+
+    // Totals for the rows with `status` only. The summary endpoint has no status parameter, so `loader` totals
+    // each part (the mirror, or a streamed payments-core range); the closed part is kept under the rollup
+    // version like getSummary's, the live part for live.ttl.
+    public SummaryResponse getStatusSummary(String merchantId, LocalDate from, LocalDate to, String status,
+                                            BiFunction<LocalDate, LocalDate, SummaryResponse> loader) {
+        return split(from, to,
+                (f, t) -> fresh(closedRanges,
+                        new SummaryKey(merchantId, f, t, status, dailyRollupService.version(merchantId)),
+                        key -> loader.apply(f, t)),
+                (f, t) -> fresh(liveRanges, new SummaryKey(merchantId, f, t, status, 0L),
+                        key -> loader.apply(f, t)));
+    }
+
+    public SummaryResponse getMonthToDate(String merchantId, LocalDate today) {
+        return getSummary(merchantId, today.withDayOfMonth(1), today);
+    }
+
+    // The seven days ending today against the seven days before them
+    public PeriodComparison getWeekOverWeek(String merchantId, LocalDate today) {
+        LocalDate weekStart = today.minusDays(6);
+        return new PeriodComparison(
+                getSummary(merchantId, weekStart, today),
+                getSummary(merchantId, weekStart.minusDays(7), weekStart.minusDays(1)));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("closed", describe(closedRanges));
+        stats.put("live", describe(liveRanges));
+        return stats;
+    }
+
+    private SummaryResponse split(LocalDate from, LocalDate to,
+                                  BiFunction<LocalDate, LocalDate, SummaryResponse> closed,
+                                  BiFunction<LocalDate, LocalDate, SummaryResponse> live) {
+        // A day only counts as closed a little after Chicago midnight, so late postings still land
+        LocalDate firstOpenDay = ZonedDateTime.now(CHICAGO_ZONE).minus(closedDayGrace).toLocalDate();
+
+        if (to.isBefore(firstOpenDay)) {
+            return closed.apply(from, to);
+        }
+        if (!from.isBefore(firstOpenDay)) {
+            return live.apply(from, to);
+        }
+        return merge(closed.apply(from, firstOpenDay.minusDays(1)), live.apply(firstOpenDay, to));
+    }
+
+    private SummaryResponse closed(String merchantId, LocalDate from, LocalDate to) {
+        // Read before loading, so totals loaded before a rebuild commits are cached under the old version only
+        long version = dailyRollupService.version(merchantId);
+        return fresh(closedRanges, new SummaryKey(merchantId, from, to, "", version),
+                key -> dailyRollupService.summarize(merchantId, from, to)
+                        .orElseGet(() -> apiService.getSummary(merchantId, from, to)));
+    }
+
+    private SummaryResponse live(String merchantId, LocalDate from, LocalDate to) {
+        Optional<SummaryResponse> local = dailyRollupService.summarizeLive(merchantId, from, to);
+        if (local.isPresent()) {
+            return local.get();
+        }
+        return fresh(liveRanges, new SummaryKey(merchantId, from, to, "", 0L),
+                key -> apiService.getSummary(merchantId, from, to));
+    }
+
+    // A stale fallback (dataAsOf set) is returned once but not kept, so the next view tries the core again.
+    // Loaded outside the cache rather than with get(key, loader): Caffeine computes inside a map bin lock,
+    // which would pin a virtual thread's carrier for the whole payments-core call. Concurrent misses for
+    // the same range still share one upstream call through ApiService's single-flight.
+    private static SummaryResponse fresh(Cache<SummaryKey, SummaryResponse> cache, SummaryKey key,
+                                         Function<SummaryKey, SummaryResponse> loader) {
+        SummaryResponse response = cache.getIfPresent(key);
+        if (response == null) {
+            response = loader.apply(key);
+            if (response != null && response.getDataAsOf() == null) {
+                cache.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    // Cached instances are shared, so merging always builds a new response
+    private static SummaryResponse merge(SummaryResponse closed, SummaryResponse live) {
+        if (closed == null) {
+            return live;
+        }
+        if (live == null) {
+            return closed;
+        }
+        SummaryResponse merged = new SummaryResponse();
+        merged.setMerchantId(live.getMerchantId() != null ? live.getMerchantId() : closed.getMerchantId());
+        merged.setTotalAmount(add(closed.getTotalAmount(), live.getTotalAmount()));
+        merged.setTotalCommission(add(closed.getTotalCommission(), live.getTotalCommission()));
+        merged.setTotalNetAmount(add(closed.getTotalNetAmount(), live.getTotalNetAmount()));
+        merged.setTotalTransactions((closed.getTotalTransactions() != null ? closed.getTotalTransactions() : 0L)
+                + (live.getTotalTransactions() != null ? live.getTotalTransactions() : 0L));
+        merged.setPeriodFrom(closed.getPeriodFrom());
+        merged.setPeriodTo(live.getPeriodTo());
+        merged.setDataAsOf(DataAsOf.oldest(closed, live));
+        return merged;
+    }
+
+    private static Double add(Double a, Double b) {
+        return (a != null ? a : 0.0) + (b != null ? b : 0.0);
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("size", cache.estimatedSize());
+        described.put("hits", stats.hitCount());
+        described.put("misses", stats.missCount());
+        described.put("evictions", stats.evictionCount());
+        described.put("hitRate", stats.hitRate());
+        return described;
+    }
+
+    // status is "" for every status
+    record SummaryKey(String merchantId, LocalDate from, LocalDate to, String status, long version) {
+    }
+}
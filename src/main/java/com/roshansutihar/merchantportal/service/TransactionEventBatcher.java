@@ -0,0 +1,190 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.TransactionEventResult;
+import com.roshansutihar.merchantportal.repository.TransactionEventWriter;
+import com.roshansutihar.merchantportal.request.TransactionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Group commit for webhook deliveries. A delivery queues its events and then either becomes the writer (when no
+// write is running) or waits for the current writer to finish and tries again. The writer takes everything
+// queued, up to batch-events, into one TransactionEventWriter call: under a burst many deliveries share one
+// set of JDBC batches and one commit, while a lone delivery on an idle portal is written straight away.
+// submit() returns only once the delivery's events are committed, so acknowledging it to the payments core is safe.
+// Merchants whose rollups an event moved are reported to DailyRollupService after the commit.
+@Service
+public class TransactionEventBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionEventBatcher.class);
+
+    private final TransactionEventWriter writer;
+    private final DailyRollupService dailyRollupService;
+    private final int batchEvents;
+    private final Duration timeout;
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writing = new ReentrantLock();
+    // Completed (and replaced) after every write, waking the deliveries that were waiting for the writer
+    private final AtomicReference<CompletableFuture<Void>> round = new AtomicReference<>(new CompletableFuture<>());
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final LongAccumulator largestCommit = new LongAccumulator(Math::max, 0);
+
+    public TransactionEventBatcher(TransactionEventWriter writer,
+                                   DailyRollupService dailyRollupService,
+                                   @Value("${transaction-webhook.batch-events:5000}") int batchEvents,
+                                   @Value("${transaction-webhook.write-timeout:10s}") Duration timeout) {
+        this.writer = writer;
+        this.dailyRollupService = dailyRollupService;
+        this.batchEvents = batchEvents;
+        this.timeout = timeout;
+    }
+
+    // A delivery that times out here may still be written by a later round; a redelivery is then ignored
+    public TransactionEventResult submit(String merchantId, List<TransactionEvent> delivery)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        Pending pending = new Pending(merchantId, delivery);
+        queue.add(pending);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!pending.result.isDone()) {
+            // Read before trying the lock, so a writer that holds it now completes this round after releasing it
+            CompletableFuture<Void> current = round.get();
+            if (writing.tryLock()) {
+                try {
+                    writeQueued();
+                } finally {
+                    writing.unlock();
+                    round.getAndSet(new CompletableFuture<>()).complete(null);
+                }
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException("Webhook delivery not written within " + timeout);
+            }
+            try {
+                CompletableFuture.anyOf(pending.result, current).get(remaining, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                // The delivery failed; reported by the get() below
+            }
+        }
+        return pending.result.get();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("deliveries", deliveries.get());
+        stats.put("events", events.get());
+        stats.put("commits", commits.get());
+        stats.put("largestCommitEvents", largestCommit.get());
+        stats.put("failedDeliveries", failures.get());
+        return stats;
+    }
+
+    private void writeQueued() {
+        List<Pending> batch = new ArrayList<>();
+        int queued = 0;
+        Pending next;
+        while (queued < batchEvents && (next = queue.poll()) != null) {
+            batch.add(next);
+            queued += next.events.size();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            // Retried one delivery at a time so a delivery that can't be written doesn't fail the others
+            log.warn("Webhook commit of {} deliveries failed, retrying them one by one: {}", batch.size(),
+                    e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    write(List.of(pending));
+                } catch (RuntimeException single) {
+                    fail(pending, single);
+                }
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        Map<String, List<TransactionEvent>> byMerchant = new LinkedHashMap<>();
+        int total = 0;
+        for (Pending pending : batch) {
+            byMerchant.computeIfAbsent(pending.merchantId, id -> new ArrayList<>()).addAll(pending.events);
+            total += pending.events.size();
+        }
+        Map<String, boolean[]> applied = writer.apply(byMerchant);
+        applied.forEach((merchantId, flags) -> {
+            for (boolean flag : flags) {
+                if (flag) {
+                    dailyRollupService.changed(merchantId);
+                    return;
+                }
+            }
+        });
+
+        commits.incrementAndGet();
+        largestCommit.accumulate(total);
+        // Each delivery's flags follow the ones of the deliveries queued before it for the same merchant
+        Map<String, Integer> offsets = new HashMap<>();
+        for (Pending pending : batch) {
+            boolean[] flags = applied.get(pending.merchantId);
+            int offset = offsets.getOrDefault(pending.merchantId, 0);
+            int count = 0;
+            for (int i = 0; i < pending.events.size(); i++) {
+                if (flags != null && flags[offset + i]) {
+                    count++;
+                }
+            }
+            offsets.put(pending.merchantId, offset + pending.events.size());
+            deliveries.incrementAndGet();
+            events.addAndGet(pending.events.size());
+            pending.result.complete(new TransactionEventResult(pending.events.size(), count,
+                    pending.events.size() - count));
+        }
+    }
+
+    private void fail(Pending pending, RuntimeException e) {
+        failures.incrementAndGet();
+        log.warn("Webhook delivery for merchant {} ({} events) could not be written: {}",
+                pending.merchantId, pending.events.size(), e.getMessage());
+        pending.result.completeExceptionally(e);
+    }
+
+    private static final class Pending {
+        private final String merchantId;
+        private final List<TransactionEvent> events;
+        private final CompletableFuture<TransactionEventResult> result = new CompletableFuture<>();
+
+        private Pending(String merchantId, List<TransactionEvent> events) {
+            this.merchantId = merchantId;
+            this.events = events;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roshansutihar.merchantportal.dto.ExportFormat;
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+// Writes a transaction range row by row; nothing beyond one mirror page (or one parsed row) is held in memory
+@Service
+public class TransactionExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final String CSV_HEADER =
+            "created_at,transaction_ref,amount,commission_amount,net_amount,currency,status,completed_at,settlement_date\n";
+
+    // One shape for every timestamp column; LocalDateTime.toString() drops zero seconds
+    private static final DateTimeFormatter CSV_TIMESTAMP = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+
+    private final TransactionQueryService transactionQueryService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.page-size:1000}")
+    private int pageSize;
+
+    @Value("${export.flush-every:500}")
+    private int flushEvery;
+
+    public TransactionExportService(TransactionQueryService transactionQueryService, ObjectMapper objectMapper) {
+        this.transactionQueryService = transactionQueryService;
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(String merchantId, LocalDate from, LocalDate to, String status,
+                       ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, 8192, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        long[] rows = {0};
+        try {
+            transactionQueryService.forEachTransaction(merchantId, from, to, status, pageSize, tx -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(writer, tx);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(tx));
+                        writer.write('\n');
+                    }
+                    // Push bytes to the client regularly so large exports download progressively
+                    if (++rows[0] % flushEvery == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        out.flush();
+        log.info("Exported {} transactions for merchant {} ({} to {}, {})", rows[0], merchantId, from, to, format);
+    }
+
+    private static void writeCsvRow(Writer writer, Transaction tx) throws IOException {
+        writer.write(csv(tx.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(tx.getTransactionRef()));
+        writer.write(',');
+        writer.write(csv(tx.getAmount()));
+        writer.write(',');
+        writer.write(csv(tx.getCommissionAmount()));
+        writer.write(',');
+        writer.write(csv(tx.getNetAmount()));
+        writer.write(',');
+        writer.write(csv(tx.getCurrency()));
+        writer.write(',');
+        writer.write(csv(tx.getStatus()));
+        writer.write(',');
+        writer.write(csv(tx.getCompletedAt()));
+        writer.write(',');
+        writer.write(csv(tx.getSettlementDate()));
+        writer.write('\n');
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        // Amounts in plain notation: String.valueOf(Double) switches to 1.23456789E7 from ten million up
+        String text = switch (value) {
+            case LocalDateTime dateTime -> CSV_TIMESTAMP.format(dateTime);
+            case Double amount -> BigDecimal.valueOf(amount).toPlainString();
+            default -> String.valueOf(value);
+        };
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
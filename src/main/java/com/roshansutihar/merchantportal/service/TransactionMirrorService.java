@@ -0,0 +1,422 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.entity.Merchant;
+import com.roshansutihar.merchantportal.entity.MirroredTransaction;
+import com.roshansutihar.merchantportal.entity.TransactionSyncState;
+import com.roshansutihar.merchantportal.repository.DailyMerchantRollupRepository;
+import com.roshansutihar.merchantportal.repository.MerchantRepository;
+import com.roshansutihar.merchantportal.repository.MirroredTransactionReader;
+import com.roshansutihar.merchantportal.repository.MirroredTransactionRepository;
+import com.roshansutihar.merchantportal.repository.TransactionMirrorWriter;
+import com.roshansutihar.merchantportal.repository.TransactionSyncStateRepository;
+import com.roshansutihar.merchantportal.repository.TransactionSyncStateWriter;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Keeps a local copy of each merchant's transactions so historical views don't hit the payments core.
+// Each sync fetches closed days once, in full, when they close (or on the initial backfill); the days still open
+// are fetched from the newest mirrored createdAt on, so a cycle only downloads what is new. Once a night the last
+// recheck-days closed days are fetched again, so status and settlement changes made after a day closed (SETTLED,
+// FAILED, refunds) reach the mirror and the rollups rebuilt from it. Windows are streamed (ApiService
+// forEachTransaction) and upserted in batches as they are parsed, bypassing the response caches.
+// With several portal instances, each merchant's sync state row is claimed first (TransactionSyncStateWriter), so
+// one instance syncs a given merchant at a time.
+@Service
+public class TransactionMirrorService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionMirrorService.class);
+    private static final ZoneId CHICAGO_ZONE = ZoneId.of("America/Chicago");
+    private static final int UPSERT_BATCH = 500;
+
+    private final ApiService apiService;
+    private final MerchantRepository merchantRepository;
+    private final MirroredTransactionRepository mirroredTransactionRepository;
+    private final MirroredTransactionReader mirroredTransactionReader;
+    private final TransactionSyncStateRepository syncStateRepository;
+    private final TransactionSyncStateWriter syncStateWriter;
+    private final TransactionMirrorWriter mirrorWriter;
+    private final DailyRollupService dailyRollupService;
+
+    @Value("${transaction-mirror.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction-mirror.initial-backfill-days:90}")
+    private int initialBackfillDays;
+
+    @Value("${transaction-mirror.fetch-window-days:7}")
+    private int fetchWindowDays;
+
+    @Value("${transaction-mirror.closed-day-grace:15m}")
+    private Duration closedDayGrace;
+
+    @Value("${transaction-mirror.recheck-days:3}")
+    private int recheckDays;
+
+    @Value("${transaction-mirror.watermark-overlap:2m}")
+    private Duration watermarkOverlap;
+
+    @Value("${transaction-mirror.claim-lease:15m}")
+    private Duration claimLease;
+
+    public TransactionMirrorService(
+            ApiService apiService,
+            MerchantRepository merchantRepository,
+            MirroredTransactionRepository mirroredTransactionRepository,
+            MirroredTransactionReader mirroredTransactionReader,
+            TransactionSyncStateRepository syncStateRepository,
+            TransactionSyncStateWriter syncStateWriter,
+            TransactionMirrorWriter mirrorWriter,
+            DailyRollupService dailyRollupService) {
+        this.apiService = apiService;
+        this.merchantRepository = merchantRepository;
+        this.mirroredTransactionRepository = mirroredTransactionRepository;
+        this.mirroredTransactionReader = mirroredTransactionReader;
+        this.syncStateRepository = syncStateRepository;
+        this.syncStateWriter = syncStateWriter;
+        this.mirrorWriter = mirrorWriter;
+        this.dailyRollupService = dailyRollupService;
+    }
+
+    @Scheduled(fixedDelayString = "${transaction-mirror.sync-interval:PT5M}",
+            initialDelayString = "${transaction-mirror.initial-delay:PT1M}")
+    public void syncAll() {
+        if (!enabled) {
+            return;
+        }
+        for (Merchant merchant : merchantRepository.findAll()) {
+            String merchantId = merchant.getMerchantId();
+            try {
+                withClaim(merchantId, () -> syncMerchant(merchantId));
+            } catch (Exception e) {
+                log.warn("Transaction mirror sync failed for merchant {}: {}", merchantId, e.getMessage());
+            }
+        }
+    }
+
+    // The nightly pass. The rollups are rebuilt even when the fetch fails, as a backstop for merchants whose syncs
+    // have been failing. A merchant whose claim is held (a sync running at that moment) is skipped for the night;
+    // each closed day is rechecked on recheck-days nights, so one skipped night leaves the others.
+    @Scheduled(cron = "${daily-rollup.closed-day-cron:0 30 0 * * *}", zone = "America/Chicago")
+    public void recheckClosedDays() {
+        if (!enabled) {
+            return;
+        }
+        for (TransactionSyncState state : syncStateRepository.findAll()) {
+            if (state.getMirroredFrom() == null || state.getSyncedThrough() == null) {
+                continue;
+            }
+            String merchantId = state.getMerchantId();
+            try {
+                withClaim(merchantId, () -> recheckMerchant(merchantId));
+            } catch (Exception e) {
+                log.warn("Closed-day recheck failed for merchant {}: {}", merchantId, e.getMessage());
+            }
+        }
+    }
+
+    public void syncMerchant(String merchantId) {
+        ZonedDateTime now = ZonedDateTime.now(CHICAGO_ZONE);
+        LocalDate today = now.toLocalDate();
+        // Days before this one are treated as closed once the grace period after midnight has passed
+        LocalDate lastClosedDay = now.minus(closedDayGrace).toLocalDate().minusDays(1);
+        LocalDate firstOpenDay = lastClosedDay.plusDays(1);
+
+        TransactionSyncState state = syncStateRepository.findById(merchantId)
+                .orElseGet(() -> new TransactionSyncState(merchantId));
+        MirrorBatch batch = new MirrorBatch(merchantId);
+
+        // Closed days not copied yet: the initial backfill, or the days that closed since the last run
+        LocalDate from = state.getSyncedThrough() != null
+                ? state.getSyncedThrough().plusDays(1)
+                : today.minusDays(initialBackfillDays);
+        fetchDays(batch, from, lastClosedDay);
+
+        // Open days from the watermark on. The overlap picks up rows committed after a newer one was already
+        // read; rows fetched twice are upserted as no-ops
+        LocalDateTime openFromUtc = ApiService.utcRangeStart(firstOpenDay).toLocalDateTime();
+        if (state.getLastCreatedAt() != null) {
+            LocalDateTime watermark = state.getLastCreatedAt().minus(watermarkOverlap);
+            if (watermark.isAfter(openFromUtc)) {
+                openFromUtc = watermark;
+            }
+        }
+        batch.startWindow();
+        apiService.forEachTransactionSince(merchantId, openFromUtc, today, batch);
+        batch.flush();
+
+        // Rebuild the rollups for every day this run fetched into, today included
+        dailyRollupService.refresh(merchantId, from.isBefore(firstOpenDay) ? from : firstOpenDay, today);
+
+        if (state.getMirroredFrom() == null) {
+            state.setMirroredFrom(from);
+        }
+        if (!lastClosedDay.isBefore(from.minusDays(1))) {
+            state.setSyncedThrough(lastClosedDay);
+        }
+        if (batch.newest != null
+                && (state.getLastCreatedAt() == null || batch.newest.isAfter(state.getLastCreatedAt()))) {
+            state.setLastCreatedAt(batch.newest);
+        }
+        state.setLastRunAt(Instant.now());
+        syncStateRepository.save(state);
+
+        log.info("Transaction mirror sync for {}: {} rows written, synced through {}",
+                merchantId, batch.written, state.getSyncedThrough());
+    }
+
+    // Re-fetches the last recheck-days closed days that the mirror already holds and rebuilds their rollups
+    void recheckMerchant(String merchantId) {
+        TransactionSyncState state = syncStateRepository.findById(merchantId).orElse(null);
+        if (state == null || state.getMirroredFrom() == null || state.getSyncedThrough() == null) {
+            return;
+        }
+        LocalDate lastClosedDay = ZonedDateTime.now(CHICAGO_ZONE).minus(closedDayGrace).toLocalDate().minusDays(1);
+        LocalDate to = state.getSyncedThrough().isBefore(lastClosedDay) ? state.getSyncedThrough() : lastClosedDay;
+        LocalDate from = to.minusDays(recheckDays - 1L);
+        if (from.isBefore(state.getMirroredFrom())) {
+            from = state.getMirroredFrom();
+        }
+
+        MirrorBatch batch = new MirrorBatch(merchantId);
+        try {
+            fetchDays(batch, from, to);
+        } catch (Exception e) {
+            log.warn("Closed-day recheck fetch failed for merchant {}: {}", merchantId, e.getMessage());
+        }
+        dailyRollupService.refresh(merchantId, from, to);
+        log.info("Closed-day recheck for {}: {} to {}, {} rows written", merchantId, from, to, batch.written);
+    }
+
+    private void fetchDays(MirrorBatch batch, LocalDate from, LocalDate to) {
+        for (LocalDate windowStart = from; !windowStart.isAfter(to); windowStart = windowStart.plusDays(fetchWindowDays)) {
+            LocalDate windowEnd = windowStart.plusDays(fetchWindowDays - 1L);
+            if (windowEnd.isAfter(to)) {
+                windowEnd = to;
+            }
+            batch.startWindow();
+            apiService.forEachTransaction(batch.merchantId, windowStart, windowEnd, null, batch);
+            batch.flush();
+        }
+    }
+
+    private void withClaim(String merchantId, Runnable work) {
+        OffsetDateTime claim = syncStateWriter.claim(merchantId, claimLease);
+        if (claim == null) {
+            log.debug("Transaction mirror for {} is being synced by another instance", merchantId);
+            return;
+        }
+        try {
+            work.run();
+        } finally {
+            syncStateWriter.release(merchantId, claim);
+        }
+    }
+
+    // Upserts streamed rows UPSERT_BATCH at a time as they are parsed, so a window is never held whole, and
+    // tracks the newest createdAt seen for the watermark
+    private final class MirrorBatch implements Consumer<Transaction> {
+
+        private final String merchantId;
+        private final List<Transaction> rows = new ArrayList<>(UPSERT_BATCH);
+        // When the current window's request was sent; TransactionMirrorWriter keeps rows with a later webhook event
+        private Instant fetchedAt;
+        private LocalDateTime newest;
+        private int written;
+
+        private MirrorBatch(String merchantId) {
+            this.merchantId = merchantId;
+        }
+
+        void startWindow() {
+            fetchedAt = Instant.now();
+        }
+
+        @Override
+        public void accept(Transaction tx) {
+            if (tx.getCreatedAt() != null && (newest == null || tx.getCreatedAt().isAfter(newest))) {
+                newest = tx.getCreatedAt();
+            }
+            rows.add(tx);
+            if (rows.size() == UPSERT_BATCH) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                written += mirrorWriter.upsert(merchantId, rows, fetchedAt);
+                rows.clear();
+            }
+        }
+    }
+
+    // Every row in the range, newest first, folded into `totals` as it is read and capped at `maxRows` for display,
+    // like ApiService.streamTransactionsByDateRange; empty when the mirror doesn't cover the range
+    public Optional<TransactionResponse> streamMirrored(String merchantId, LocalDate from, LocalDate to, String status,
+                                                        int maxRows, TransactionTotals totals) {
+        if (!isCovered(merchantId, from, to)) {
+            return Optional.empty();
+        }
+        List<Transaction> kept = new ArrayList<>(Math.min(maxRows, 1024));
+        TransactionTotals rangeTotals = new TransactionTotals();
+        mirroredTransactionReader.forEach(merchantId, ApiService.utcRangeStart(from).toLocalDateTime(),
+                ApiService.utcRangeEnd(to).toLocalDateTime(), status, tx -> {
+                    rangeTotals.add(tx);
+                    if (kept.size() < maxRows) {
+                        kept.add(tx);
+                    }
+                });
+        totals.merge(rangeTotals);
+
+        TransactionResponse response = new TransactionResponse();
+        response.setMerchantId(merchantId);
+        response.setTransactions(kept);
+        response.setTotalCount(rangeTotals.getCount());
+        response.setTotalAmount(rangeTotals.getTotalAmount().doubleValue());
+        return Optional.of(response);
+    }
+
+    // Totals for the rows with `status`, for ranges the mirror covers
+    public Optional<SummaryResponse> summarizeStatus(String merchantId, LocalDate from, LocalDate to, String status) {
+        if (!isCovered(merchantId, from, to)) {
+            return Optional.empty();
+        }
+        MirroredTransactionRepository.Sums totals = mirroredTransactionRepository.summarizeStatus(merchantId,
+                ApiService.utcRangeStart(from).toLocalDateTime(), ApiService.utcRangeEnd(to).toLocalDateTime(), status);
+
+        SummaryResponse summary = new SummaryResponse();
+        summary.setMerchantId(merchantId);
+        summary.setTotalTransactions(totals != null && totals.getCount() != null ? totals.getCount() : 0L);
+        summary.setTotalAmount(toDouble(totals != null ? totals.getAmount() : null));
+        summary.setTotalCommission(toDouble(totals != null ? totals.getCommission() : null));
+        summary.setTotalNetAmount(toDouble(totals != null ? totals.getNet() : null));
+        summary.setPeriodFrom(from.toString());
+        summary.setPeriodTo(to.toString());
+        return Optional.of(summary);
+    }
+
+    public Optional<TransactionPage> findMirroredPage(String merchantId, LocalDate from, LocalDate to, String status,
+                                                      String cursor, PageDirection direction, int size) {
+        if (!isCovered(merchantId, from, to)) {
+            return Optional.empty();
+        }
+        LocalDateTime fromUtc = ApiService.utcRangeStart(from).toLocalDateTime();
+        LocalDateTime toUtc = ApiService.utcRangeEnd(to).toLocalDateTime();
+        String statusFilter = status != null && !status.isEmpty() ? status : null;
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        List<MirroredTransaction> rows;
+        if (position == null) {
+            rows = mirroredTransactionRepository.findFirstPage(merchantId, fromUtc, toUtc, statusFilter, limit);
+        } else if (direction == PageDirection.PREV) {
+            rows = mirroredTransactionRepository.findPageBefore(merchantId, fromUtc, toUtc, statusFilter,
+                    position.createdAt(), position.transactionRef(), limit);
+        } else {
+            rows = mirroredTransactionRepository.findPageAfter(merchantId, fromUtc, toUtc, statusFilter,
+                    position.createdAt(), position.transactionRef(), limit);
+        }
+
+        KeysetPageCollector collector = new KeysetPageCollector(position, direction, size);
+        rows.forEach(row -> collector.add(toTransaction(row)));
+        return Optional.of(collector.toPage());
+    }
+
+    // Today for merchants the transaction webhook keeps current (DailyRollupService.isLive), shaped like
+    // ApiService.streamTransactionsByDateRange: the newest `maxRows` rows, with `totals` covering the whole day.
+    // The totals come from the day's rollup row and a per-currency grouped query, so however busy the day only
+    // `maxRows` rows leave the database. Empty for other merchants.
+    public Optional<TransactionResponse> findLiveDay(String merchantId, LocalDate day, int maxRows,
+                                                     TransactionTotals totals) {
+        if (!dailyRollupService.isLive(merchantId, day)) {
+            return Optional.empty();
+        }
+        LocalDateTime fromUtc = ApiService.utcRangeStart(day).toLocalDateTime();
+        LocalDateTime toUtc = ApiService.utcRangeEnd(day).toLocalDateTime();
+        List<MirroredTransaction> rows = maxRows > 0
+                ? mirroredTransactionRepository.findFirstPage(merchantId, fromUtc, toUtc, null,
+                        PageRequest.of(0, maxRows))
+                : List.of();
+
+        DailyMerchantRollupRepository.RollupTotals rollup = dailyRollupService.totals(merchantId, day, day);
+        TransactionTotals dayTotals = new TransactionTotals();
+        dayTotals.addSummed(count(rollup.getCount()), toCents(rollup.getAmount()), toCents(rollup.getCommission()),
+                toCents(rollup.getNet()), count(rollup.getAcknowledged()));
+        for (MirroredTransactionRepository.CurrencySums currency
+                : mirroredTransactionRepository.summarizeByCurrency(merchantId, fromUtc, toUtc)) {
+            dayTotals.addSummedCurrency(currency.getCurrency(), count(currency.getCount()),
+                    toCents(currency.getAmount()), toCents(currency.getCommission()), toCents(currency.getNet()));
+        }
+        totals.merge(dayTotals);
+
+        TransactionResponse response = new TransactionResponse();
+        response.setMerchantId(merchantId);
+        response.setTransactions(rows.stream().map(TransactionMirrorService::toTransaction).toList());
+        response.setTotalCount(dayTotals.getCount());
+        response.setTotalAmount(dayTotals.getTotalAmount().doubleValue());
+        return Optional.of(response);
+    }
+
+    private boolean isCovered(String merchantId, LocalDate from, LocalDate to) {
+        return enabled && syncStateRepository.findById(merchantId)
+                .map(state -> state.covers(from, to))
+                .orElse(false);
+    }
+
+    static Transaction toTransaction(MirroredTransaction row) {
+        Transaction tx = new Transaction();
+        tx.setSessionId(row.getSessionId());
+        tx.setTransactionRef(row.getTransactionRef());
+        tx.setAmount(toNullableDouble(row.getAmount()));
+        tx.setCurrency(row.getCurrency());
+        tx.setStatus(row.getStatus());
+        tx.setCreatedAt(row.getCreatedAt());
+        tx.setCompletedAt(row.getCompletedAt());
+        tx.setCommissionAmount(toNullableDouble(row.getCommissionAmount()));
+        tx.setNetAmount(toNullableDouble(row.getNetAmount()));
+        tx.setSettlementDate(row.getSettlementDate());
+        return tx;
+    }
+
+    private static Double toNullableDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
+    private static long count(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    // Same rounding as TransactionTotals applies to the payments core's two-decimal amounts
+    private static long toCents(BigDecimal value) {
+        return value != null ? value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0L;
+    }
+}
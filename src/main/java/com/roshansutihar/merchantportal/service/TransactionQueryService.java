@@ -0,0 +1,105 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Read path for transaction lists: served from the local mirror when it covers the range,
+// otherwise from the payments core.
+@Service
+public class TransactionQueryService {
+
+    private final ApiService apiService;
+    private final TransactionMirrorService transactionMirrorService;
+    private final SummaryCache summaryCache;
+    private final PortalMetrics portalMetrics;
+
+    public TransactionQueryService(ApiService apiService, TransactionMirrorService transactionMirrorService,
+                                   SummaryCache summaryCache, PortalMetrics portalMetrics) {
+        this.apiService = apiService;
+        this.transactionMirrorService = transactionMirrorService;
+        this.summaryCache = summaryCache;
+        this.portalMetrics = portalMetrics;
+    }
+
+    // Totals for the same rows the list shows, from SummaryCache either way, so paging through a range doesn't
+    // total it again on every page
+    public SummaryResponse getSummary(String merchantId, LocalDate from, LocalDate to, String status) {
+        if (status == null || status.isEmpty()) {
+            return summaryCache.getSummary(merchantId, from, to);
+        }
+        return summaryCache.getStatusSummary(merchantId, from, to, status,
+                (partFrom, partTo) -> totalStatus(merchantId, partFrom, partTo, status));
+    }
+
+    // The mirror sums the status in one query; otherwise the payments-core range is streamed with the filter
+    // applied and folded without keeping any rows (the summary endpoint has no status parameter)
+    private SummaryResponse totalStatus(String merchantId, LocalDate from, LocalDate to, String status) {
+        Optional<SummaryResponse> mirrored = transactionMirrorService.summarizeStatus(merchantId, from, to, status);
+        if (mirrored.isPresent()) {
+            return mirrored.get();
+        }
+        TransactionTotals totals = new TransactionTotals();
+        apiService.streamTransactionsByDateRange(merchantId, from, to, status, 0, totals);
+
+        SummaryResponse summary = new SummaryResponse();
+        summary.setMerchantId(merchantId);
+        summary.setTotalTransactions(totals.getCount());
+        summary.setTotalAmount(totals.getTotalAmount().doubleValue());
+        summary.setTotalCommission(totals.getTotalCommission().doubleValue());
+        summary.setTotalNetAmount(totals.getTotalNet().doubleValue());
+        summary.setPeriodFrom(from.toString());
+        summary.setPeriodTo(to.toString());
+        return summary;
+    }
+
+    // Whole range folded into `totals` while it is read, only the first maxRows rows kept: streamed from the
+    // mirror's cursor when it covers the range, otherwise from the payments-core response
+    public TransactionResponse streamTransactions(String merchantId, LocalDate from, LocalDate to, String status,
+                                                  int maxRows, TransactionTotals totals) {
+        Optional<TransactionResponse> mirrored = transactionMirrorService.streamMirrored(
+                merchantId, from, to, status, maxRows, totals);
+        TransactionResponse response = mirrored.orElseGet(() -> apiService.streamTransactionsByDateRange(
+                merchantId, from, to, status, maxRows, totals));
+        int rows = response != null && response.getTransactions() != null ? response.getTransactions().size() : 0;
+        portalMetrics.transactionRows(mirrored.isPresent() ? "mirror" : "core", merchantId, rows);
+        return response;
+    }
+
+    // Visits every row in the range without holding the result set: keyset pages from the mirror,
+    // or a single streamed pass over the payments-core response.
+    public void forEachTransaction(String merchantId, LocalDate from, LocalDate to, String status,
+                                   int pageSize, Consumer<Transaction> sink) {
+        Optional<TransactionPage> page = transactionMirrorService.findMirroredPage(
+                merchantId, from, to, status, null, PageDirection.NEXT, pageSize);
+        if (page.isEmpty()) {
+            apiService.forEachTransaction(merchantId, from, to, status, sink);
+            return;
+        }
+        while (page.isPresent()) {
+            page.get().getTransactions().forEach(sink);
+            String next = page.get().getNextCursor();
+            page = next != null
+                    ? transactionMirrorService.findMirroredPage(merchantId, from, to, status, next, PageDirection.NEXT, pageSize)
+                    : Optional.empty();
+        }
+    }
+
+    public TransactionPage getTransactionPage(String merchantId, LocalDate from, LocalDate to, String status,
+                                              String cursor, PageDirection direction, int size) {
+        Optional<TransactionPage> mirrored = transactionMirrorService.findMirroredPage(
+                merchantId, from, to, status, cursor, direction, size);
+        TransactionPage page = mirrored
+                .orElseGet(() -> apiService.getTransactionPage(merchantId, from, to, status, cursor, direction, size));
+        portalMetrics.transactionRows(mirrored.isPresent() ? "mirror" : "core", merchantId, page.getTransactions().size());
+        return page;
+    }
+}
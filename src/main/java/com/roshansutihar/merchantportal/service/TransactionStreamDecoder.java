@@ -0,0 +1,111 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Incremental reader for the payments-core transactions payload: bytes are fed in as they arrive and
+// each row of the "transactions" array is returned as soon as its closing brace has been seen.
+// Other fields are skipped. One instance per response; not thread-safe.
+final class TransactionStreamDecoder implements AutoCloseable {
+
+    private static final int ARRAY_DEPTH = 2;
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private int depth;
+    private String field;
+    private boolean inTransactions;
+    private TokenBuffer row;
+
+    TransactionStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    List<Transaction> feed(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            feeder.feedInput(bytes, 0, bytes.length);
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    List<Transaction> endOfInput() {
+        feeder.endOfInput();
+        try {
+            List<Transaction> rows = drain();
+            if (depth != 0) {
+                throw new RestClientException("Truncated transaction payload from payments core");
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // nothing held beyond the fed bytes
+        }
+    }
+
+    private List<Transaction> drain() throws IOException {
+        List<Transaction> rows = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (depth == 0 && token != JsonToken.START_OBJECT) {
+                throw new RestClientException("Unexpected transaction payload from payments core");
+            }
+            if (row == null && inTransactions && depth == ARRAY_DEPTH && token == JsonToken.START_OBJECT) {
+                row = new TokenBuffer(objectMapper, false);
+            }
+            if (row != null) {
+                row.copyCurrentEvent(parser);
+            }
+            if (token.isStructStart()) {
+                if (depth == 1 && token == JsonToken.START_ARRAY && "transactions".equals(field)) {
+                    inTransactions = true;
+                }
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+                if (row != null && depth == ARRAY_DEPTH) {
+                    rows.add(objectMapper.readValue(row.asParser(objectMapper), Transaction.class));
+                    row = null;
+                } else if (depth == 1) {
+                    inTransactions = false;
+                }
+            } else if (token == JsonToken.FIELD_NAME && depth == 1) {
+                field = parser.currentName();
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,98 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Payments-core read responses that came with an ETag or Last-Modified, kept per URL with those validators.
+// The next read of the URL is sent with If-None-Match / If-Modified-Since; on 304 the cached, already parsed
+// object is returned, so an unchanged historical range costs neither the download nor the JSON parse.
+@Component
+public class ValidatedResponseCache {
+
+    private final Cache<String, Validated> entries;
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong modified = new AtomicLong();
+
+    public ValidatedResponseCache(
+            @Value("${payments-core.validated-cache.max-weight:200000}") long maxWeight,
+            @Value("${payments-core.validated-cache.ttl:6h}") Duration ttl) {
+        // Weighted by row count like the last-good copies; idle ranges drop out after the ttl
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String url, Validated entry) -> entry.weight())
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // `exchange` performs the GET with the given request headers; callers keep their own client and error handling
+    public <T> T read(String url, Class<T> type, Function<HttpHeaders, ResponseEntity<T>> exchange) {
+        Validated previous = entries.getIfPresent(url);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (previous != null) {
+            if (previous.etag() != null) {
+                headers.setIfNoneMatch(previous.etag());
+            }
+            if (previous.lastModified() >= 0) {
+                headers.setIfModifiedSince(previous.lastModified());
+            }
+        }
+
+        ResponseEntity<T> response = exchange.apply(headers);
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            if (previous == null || !type.isInstance(previous.body())) {
+                // Only possible if the core answers 304 to an unconditional request
+                throw new RestClientException("Unexpected 304 from payments core for " + url);
+            }
+            notModified.incrementAndGet();
+            return type.cast(previous.body());
+        }
+
+        T body = response.getBody();
+        String etag = response.getHeaders().getETag();
+        long lastModified = response.getHeaders().getLastModified();
+        if (previous != null) {
+            modified.incrementAndGet();
+        }
+        if (body != null && (etag != null || lastModified >= 0)) {
+            entries.put(url, new Validated(body, etag, lastModified));
+        } else {
+            entries.invalidate(url);
+        }
+        return body;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.estimatedSize());
+        stats.put("notModified", notModified.get());
+        stats.put("modified", modified.get());
+        stats.put("evictions", entries.stats().evictionCount());
+        return stats;
+    }
+
+    private record Validated(Object body, String etag, long lastModified) {
+        int weight() {
+            if (body instanceof TransactionResponse transactions && transactions.getTransactions() != null) {
+                return 1 + transactions.getTransactions().size();
+            }
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.roshansutihar.merchantportal.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+// HMAC-SHA256 signatures on payments-core webhook deliveries.
+// The portal only keeps the masked secret key, so deliveries are signed with a key derived from the full one:
+//   signing key = hex(HMAC-SHA256(secret key, "merchant-portal-webhook-v1"))
+//   X-Webhook-Timestamp: epoch seconds
+//   X-Webhook-Signature: sha256=hex(HMAC-SHA256(hex-decoded signing key, timestamp + "." + raw body))
+// The payments core holds the full secret and derives the same key; the portal stores only the derived key,
+// which can't be turned back into the secret the merchant uses against the payments core.
+public final class WebhookSignatures {
+
+    public static final String TIMESTAMP_HEADER = "X-Webhook-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SCHEME = "sha256=";
+    private static final byte[] KEY_CONTEXT = "merchant-portal-webhook-v1".getBytes(StandardCharsets.UTF_8);
+    private static final HexFormat HEX = HexFormat.of();
+
+    private WebhookSignatures() {
+    }
+
+    // Called wherever the full secret key is seen (registration, rotation); null in, null out
+    public static String signingKey(String secretKey) {
+        if (secretKey == null || secretKey.isEmpty()) {
+            return null;
+        }
+        return HEX.formatHex(hmac(secretKey.getBytes(StandardCharsets.UTF_8), KEY_CONTEXT));
+    }
+
+    public static String sign(String signingKey, long timestamp, byte[] body) {
+        Mac mac = mac(HEX.parseHex(signingKey));
+        mac.update((timestamp + ".").getBytes(StandardCharsets.UTF_8));
+        return SCHEME + HEX.formatHex(mac.doFinal(body));
+    }
+
+    // False for a missing key or header, a timestamp outside `tolerance` of now (replays of old captures),
+    // or a signature that doesn't match; the comparison is constant-time
+    public static boolean verify(String signingKey, String timestampHeader, String signatureHeader, byte[] body,
+                                 Duration tolerance, Instant now) {
+        if (signingKey == null || timestampHeader == null || signatureHeader == null) {
+            return false;
+        }
+        long timestamp;
+        try {
+            timestamp = Long.parseLong(timestampHeader.trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (Math.abs(now.getEpochSecond() - timestamp) > tolerance.toSeconds()) {
+            return false;
+        }
+        byte[] expected = sign(signingKey, timestamp, body).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signatureHeader.trim().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] hmac(byte[] key, byte[] message) {
+        return mac(key).doFinal(message);
+    }
+
+    private static Mac mac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+-- Local copy of payments-core transactions, filled incrementally by the portal's sync job.
+-- created_at is stored exactly as the payments core reports it (UTC wall-clock time).
+CREATE TABLE merchant_transactions (
+    merchant_id VARCHAR(255) NOT NULL,
+    transaction_ref VARCHAR(255) NOT NULL,
+    session_id VARCHAR(255),
+    amount NUMERIC(19,4),
+    currency VARCHAR(3),
+    status VARCHAR(50),
+    commission_amount NUMERIC(19,4),
+    net_amount NUMERIC(19,4),
+    created_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP,
+    settlement_date TIMESTAMP,
+    synced_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (merchant_id, transaction_ref)
+);
+
+CREATE INDEX idx_merchant_transactions_merchant_created
+    ON merchant_transactions(merchant_id, created_at DESC, transaction_ref DESC);
+
+CREATE INDEX idx_merchant_transactions_merchant_status_created
+    ON merchant_transactions(merchant_id, status, created_at DESC);
+
+-- Per-merchant sync watermark: the mirror is complete for Chicago days mirrored_from..synced_through
+CREATE TABLE transaction_sync_state (
+    merchant_id VARCHAR(255) PRIMARY KEY,
+    mirrored_from DATE,
+    synced_through DATE,
+    last_created_at TIMESTAMP,
+    last_run_at TIMESTAMP WITH TIME ZONE
+);
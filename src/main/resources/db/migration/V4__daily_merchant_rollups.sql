@@ -0,0 +1,25 @@
+-- One row per merchant per Chicago day, rebuilt from merchant_transactions by the portal.
+-- Range summaries read these rows instead of re-aggregating transactions.
+CREATE TABLE daily_merchant_rollups (
+    merchant_id VARCHAR(255) NOT NULL,
+    rollup_date DATE NOT NULL,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    gross_amount NUMERIC(19,4) NOT NULL DEFAULT 0,
+    commission_amount NUMERIC(19,4) NOT NULL DEFAULT 0,
+    net_amount NUMERIC(19,4) NOT NULL DEFAULT 0,
+    refreshed_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (merchant_id, rollup_date)
+);
+
+-- Backfill from whatever the mirror already holds; created_at is UTC wall-clock time
+INSERT INTO daily_merchant_rollups (merchant_id, rollup_date, transaction_count, gross_amount,
+                                    commission_amount, net_amount)
+SELECT merchant_id,
+       (created_at AT TIME ZONE 'UTC' AT TIME ZONE 'America/Chicago')::date,
+       COUNT(*),
+       COALESCE(SUM(amount), 0),
+       COALESCE(SUM(commission_amount), 0),
+       COALESCE(SUM(net_amount), 0)
+FROM merchant_transactions
+GROUP BY 1, 2;
@@ -0,0 +1,25 @@
+-- Transaction events pushed by the payments core (POST /webhooks/transactions/{merchantId}).
+
+-- HMAC key for the merchant's webhook signatures, derived from the full secret key when it is issued or rotated
+-- (merchants.secret_key only keeps the masked form). NULL until then; such merchants' deliveries are refused.
+ALTER TABLE merchants
+ADD COLUMN IF NOT EXISTS webhook_signing_key TEXT;
+
+-- Event time of the last webhook event applied to the row, so a late, older event can't overwrite a newer state.
+-- Rows written by the pull sync leave it unchanged.
+ALTER TABLE merchant_transactions
+ADD COLUMN IF NOT EXISTS event_at TIMESTAMP WITH TIME ZONE;
+
+-- Lets the today tiles (acknowledged count included) come straight from the rollups
+ALTER TABLE daily_merchant_rollups
+ADD COLUMN IF NOT EXISTS acknowledged_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE daily_merchant_rollups r
+SET acknowledged_count = a.acknowledged
+FROM (SELECT merchant_id,
+             (created_at AT TIME ZONE 'UTC' AT TIME ZONE 'America/Chicago')::date AS rollup_date,
+             COUNT(*) AS acknowledged
+      FROM merchant_transactions
+      WHERE UPPER(status) = 'ACKNOWLEDGED'
+      GROUP BY 1, 2) a
+WHERE r.merchant_id = a.merchant_id AND r.rollup_date = a.rollup_date;
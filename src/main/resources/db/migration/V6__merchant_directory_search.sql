@@ -0,0 +1,12 @@
+-- Admin merchant directory (/admin/merchants) and the merchant typeahead on /admin/transactions.
+
+-- Keyset pages in store-name order; merchant_id breaks ties between stores with the same name
+CREATE INDEX IF NOT EXISTS idx_merchants_store_name_key ON merchants (LOWER(store_name), merchant_id);
+
+-- Substring search ('%term%') on store name and site id. A btree can only serve prefixes; trigram indexes
+-- serve any position once the term is three characters long.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_merchants_store_name_trgm ON merchants USING gin (LOWER(store_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_merchants_site_id_trgm ON merchants USING gin (site_id gin_trgm_ops);
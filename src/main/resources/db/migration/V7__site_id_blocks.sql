@@ -0,0 +1,18 @@
+-- Site ID allocation (SiteIdAllocator). The 5-digit site IDs are split into blocks of 100: block n covers
+-- n*100 .. n*100+99 (00000 itself is never issued). A portal instance claims a whole block at a time and hands
+-- its free IDs out from memory, so registrations don't probe the merchants table ID by ID.
+CREATE TABLE site_id_blocks (
+    block_no INTEGER PRIMARY KEY,
+    -- Random claim order, so consecutive registrations don't get neighbouring IDs
+    position INTEGER NOT NULL,
+    -- Start of the current claim; NULL or older than the lease means any instance may claim the block
+    claimed_at TIMESTAMP WITH TIME ZONE,
+    -- Every ID in the block belongs to a merchant
+    exhausted BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+INSERT INTO site_id_blocks (block_no, position)
+SELECT block_no, ROW_NUMBER() OVER (ORDER BY random())
+FROM generate_series(0, 999) AS block_no;
+
+CREATE INDEX idx_site_id_blocks_claimable ON site_id_blocks (position) WHERE NOT exhausted;
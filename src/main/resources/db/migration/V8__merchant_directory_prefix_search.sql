@@ -0,0 +1,6 @@
+-- Short search terms (one or two characters) in the admin merchant directory and typeahead are matched as
+-- prefixes ('term%'); trigrams can't serve them. text_pattern_ops lets a btree answer LIKE 'term%' whatever
+-- the database collation.
+CREATE INDEX IF NOT EXISTS idx_merchants_store_name_prefix ON merchants (LOWER(store_name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_merchants_site_id_prefix ON merchants (site_id text_pattern_ops);
@@ -0,0 +1,3 @@
+-- Which portal instance is syncing a merchant's mirror: claimed_at is set by the instance that claims the row and
+-- cleared when its sync ends. A claim older than transaction-mirror.claim-lease is treated as abandoned.
+ALTER TABLE transaction_sync_state ADD COLUMN claimed_at TIMESTAMP WITH TIME ZONE;
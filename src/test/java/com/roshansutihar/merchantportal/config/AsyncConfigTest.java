@@ -0,0 +1,71 @@
+package com.roshansutihar.merchantportal.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncConfigTest {
+
+    private static final int CONCURRENCY = 4;
+    private static final int MERCHANTS = 3000;
+
+    @Test
+    void throttledExecutorTakesEveryTaskAtOnceAndRunsAtMostTheLimit() throws Exception {
+        SimpleAsyncTaskExecutor executor = AsyncConfig.throttledVirtualThreadExecutor("test-", CONCURRENCY);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        LongAccumulator peak = new LongAccumulator(Math::max, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        // More merchants than any queue used to hold; submitting must not wait for the blocked calls
+        long started = System.nanoTime();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < MERCHANTS; i++) {
+            int merchant = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                peak.accumulate(running.incrementAndGet());
+                calls.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return merchant;
+            }, executor));
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(futures).noneMatch(CompletableFuture::isCompletedExceptionally);
+
+        // The caller's deadline passes: everything still waiting for a slot is cancelled and never calls out
+        Thread.sleep(100);
+        futures.forEach(future -> future.cancel(true));
+        release.countDown();
+        Thread.sleep(500);
+
+        assertThat(peak.get()).isEqualTo(CONCURRENCY);
+        assertThat(calls.get()).isEqualTo(CONCURRENCY);
+    }
+
+    @Test
+    void waitingTasksRunAsSlotsFreeUp() throws Exception {
+        SimpleAsyncTaskExecutor executor = AsyncConfig.throttledVirtualThreadExecutor("test-", CONCURRENCY);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int merchant = i;
+            futures.add(CompletableFuture.supplyAsync(() -> merchant, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(futures).allMatch(future -> !future.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,100 @@
+package com.roshansutihar.merchantportal.dto;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionTotalsTest {
+
+    @Test
+    void sumsAreExactCentsWhateverTheDoubleNoise() {
+        // 0.1 + 0.2 is 0.30000000000000004 in double arithmetic
+        TransactionTotals totals = TransactionTotals.of(List.of(
+                transaction(0.1, "USD", "SETTLED"), transaction(0.2, "USD", "SETTLED")));
+
+        assertThat(totals.getAmountCents()).isEqualTo(30L);
+        assertThat(totals.getTotalAmount()).isEqualTo(new BigDecimal("0.30"));
+        assertThat(totals.getTotalCommission()).isEqualTo(new BigDecimal("0.01"));
+        assertThat(totals.getTotalNet()).isEqualTo(new BigDecimal("0.29"));
+    }
+
+    @Test
+    void rowsWithoutAmountStatusOrCurrencyStillCount() {
+        Transaction empty = new Transaction();
+        TransactionTotals totals = TransactionTotals.of(List.of(empty, transaction(5.0, "USD", "SETTLED")));
+
+        assertThat(totals.getCount()).isEqualTo(2L);
+        assertThat(totals.getTotalAmount()).isEqualTo(new BigDecimal("5.00"));
+        assertThat(totals.getStatusCounts()).containsExactly(Map.entry("SETTLED", 1L), Map.entry("UNKNOWN", 1L));
+        assertThat(totals.getCurrencyTotals()).containsOnlyKeys("UNKNOWN", "USD");
+        assertThat(totals.getCurrencyTotals().get("UNKNOWN").getCount()).isEqualTo(1L);
+        assertThat(totals.getCurrencyTotals().get("UNKNOWN").getTotalAmount()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(TransactionTotals.of(null).getCount()).isZero();
+    }
+
+    @Test
+    void statusesAreCountedIgnoringCase() {
+        TransactionTotals totals = TransactionTotals.of(List.of(
+                transaction(1.0, "USD", "acknowledged"), transaction(1.0, "USD", "ACKNOWLEDGED"),
+                transaction(1.0, "USD", "Settled")));
+
+        assertThat(totals.getStatusCounts()).containsExactly(Map.entry("ACKNOWLEDGED", 2L), Map.entry("SETTLED", 1L));
+        assertThat(totals.getAcknowledgedCount()).isEqualTo(2L);
+        assertThat(totals.getStatusCount("settled")).isEqualTo(1L);
+        assertThat(totals.getStatusCount("FAILED")).isZero();
+    }
+
+    @Test
+    void mixedCurrencyOnlyOnceASecondCurrencyShowsUp() {
+        TransactionTotals totals = new TransactionTotals();
+        assertThat(totals.isMixedCurrency()).isFalse();
+        totals.add(transaction(10.0, "USD", "SETTLED"));
+        totals.add(transaction(2.5, "USD", "SETTLED"));
+        assertThat(totals.isMixedCurrency()).isFalse();
+
+        totals.add(transaction(4.0, "EUR", "SETTLED"));
+        assertThat(totals.isMixedCurrency()).isTrue();
+        assertThat(totals.getCurrencyTotals().get("USD").getTotalAmount()).isEqualTo(new BigDecimal("12.50"));
+        assertThat(totals.getCurrencyTotals().get("EUR").getTotalAmount()).isEqualTo(new BigDecimal("4.00"));
+    }
+
+    @Test
+    void summedTotalsAndMergesAddUpLikeRows() {
+        TransactionTotals summed = new TransactionTotals();
+        summed.addSummed(10, 10_000, 300, 9_700, 4);
+        summed.addSummedCurrency("USD", 10, 10_000, 300, 9_700);
+
+        TransactionTotals rows = TransactionTotals.of(List.of(
+                transaction(20.0, "USD", "acknowledged"), transaction(7.0, "EUR", "SETTLED")));
+        summed.merge(rows);
+
+        assertThat(summed.getCount()).isEqualTo(12L);
+        assertThat(summed.getTotalAmount()).isEqualTo(new BigDecimal("127.00"));
+        assertThat(summed.getTotalCommission()).isEqualTo(new BigDecimal("3.81"));
+        assertThat(summed.getAcknowledgedCount()).isEqualTo(5L);
+        assertThat(summed.getStatusCounts()).containsEntry("ACKNOWLEDGED", 5L).containsEntry("SETTLED", 1L);
+        assertThat(summed.getCurrencyTotals().get("USD").getCount()).isEqualTo(11L);
+        assertThat(summed.getCurrencyTotals().get("USD").getTotalAmount()).isEqualTo(new BigDecimal("120.00"));
+        assertThat(summed.isMixedCurrency()).isTrue();
+
+        // The merged-in totals are left as they were
+        assertThat(rows.getCount()).isEqualTo(2L);
+        assertThat(rows.getAcknowledgedCount()).isEqualTo(1L);
+    }
+
+    // Commission 3% rounded to the cent, the rest net
+    private static Transaction transaction(double amount, String currency, String status) {
+        Transaction tx = new Transaction();
+        tx.setAmount(amount);
+        tx.setCommissionAmount(Math.round(amount * 3) / 100d);
+        tx.setNetAmount(amount - Math.round(amount * 3) / 100d);
+        tx.setCurrency(currency);
+        tx.setStatus(status);
+        return tx;
+    }
+}
@@ -0,0 +1,140 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.request.TransactionEvent;
+import com.roshansutihar.merchantportal.support.PostgresSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against a real Postgres: the rollup arithmetic is split between the writer and the upsert's SQL
+@EnabledIfEnvironmentVariable(named = "POSTGRES_URL", matches = ".+")
+class TransactionEventWriterTest {
+
+    private static final String MERCHANT = "MCH-EVENTS";
+    // 15:00 UTC is 09:00 in Chicago, so these stay on the same calendar day
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 2, 15, 0);
+    private static final LocalDate DAY = CREATED.toLocalDate();
+    private static final Instant EVENT_AT = Instant.parse("2026-03-02T15:00:05Z");
+
+    private PostgresSchema database;
+    private TransactionEventWriter eventWriter;
+
+    @BeforeEach
+    void setUp() {
+        database = PostgresSchema.create();
+        eventWriter = new TransactionEventWriter(database.jdbcTemplate());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void redeliveredEventsAreSkipped() {
+        TransactionEvent created = event(EVENT_AT, tx("TXN-1", "ACKNOWLEDGED", 10.0, CREATED));
+
+        // Delivered twice in one batch, then again in a later one
+        assertThat(eventWriter.apply(Map.of(MERCHANT, List.of(created, created))).get(MERCHANT))
+                .containsExactly(true, false);
+        assertThat(eventWriter.apply(Map.of(MERCHANT, List.of(created))).get(MERCHANT)).containsExactly(false);
+
+        assertThat(rollup(DAY)).isEqualTo(new Rollup(1, new BigDecimal("10.0000"), new BigDecimal("0.3000"),
+                new BigDecimal("9.7000"), 1));
+    }
+
+    @Test
+    void eventsOlderThanTheStoredStateAreRejected() {
+        TransactionEvent settled = event(EVENT_AT.plusSeconds(60), tx("TXN-1", "SETTLED", 12.5, CREATED));
+        TransactionEvent acknowledged = event(EVENT_AT, tx("TXN-1", "ACKNOWLEDGED", 10.0, CREATED));
+
+        eventWriter.apply(Map.of(MERCHANT, List.of(settled)));
+        assertThat(eventWriter.apply(Map.of(MERCHANT, List.of(acknowledged))).get(MERCHANT)).containsExactly(false);
+
+        assertThat(status("TXN-1")).isEqualTo("SETTLED");
+        assertThat(rollup(DAY)).isEqualTo(new Rollup(1, new BigDecimal("12.5000"), new BigDecimal("0.3750"),
+                new BigDecimal("12.1250"), 0));
+    }
+
+    @Test
+    void statusChangesMoveTheAcknowledgedCount() {
+        eventWriter.apply(Map.of(MERCHANT, List.of(
+                event(EVENT_AT, tx("TXN-1", "ACKNOWLEDGED", 10.0, CREATED)),
+                event(EVENT_AT, tx("TXN-2", "ACKNOWLEDGED", 20.0, CREATED)))));
+        assertThat(rollup(DAY).acknowledged()).isEqualTo(2);
+
+        eventWriter.apply(Map.of(MERCHANT, List.of(
+                event(EVENT_AT.plusSeconds(60), tx("TXN-1", "SETTLED", 10.0, CREATED)))));
+
+        assertThat(rollup(DAY)).isEqualTo(new Rollup(2, new BigDecimal("30.0000"), new BigDecimal("0.9000"),
+                new BigDecimal("29.1000"), 1));
+    }
+
+    @Test
+    void movingCreatedAtToAnotherDayMovesTheRowsContribution() {
+        LocalDateTime later = CREATED.plusDays(2);
+        eventWriter.apply(Map.of(MERCHANT, List.of(
+                event(EVENT_AT, tx("TXN-1", "ACKNOWLEDGED", 10.0, CREATED)),
+                event(EVENT_AT, tx("TXN-2", "SETTLED", 20.0, CREATED)))));
+
+        assertThat(eventWriter.apply(Map.of(MERCHANT, List.of(
+                event(EVENT_AT.plusSeconds(60), tx("TXN-1", "ACKNOWLEDGED", 10.0, later))))).get(MERCHANT))
+                .containsExactly(true);
+
+        assertThat(rollup(DAY)).isEqualTo(new Rollup(1, new BigDecimal("20.0000"), new BigDecimal("0.6000"),
+                new BigDecimal("19.4000"), 0));
+        assertThat(rollup(later.toLocalDate())).isEqualTo(new Rollup(1, new BigDecimal("10.0000"),
+                new BigDecimal("0.3000"), new BigDecimal("9.7000"), 1));
+    }
+
+    private Rollup rollup(LocalDate day) {
+        return database.jdbcTemplate().queryForObject("""
+                        SELECT transaction_count, gross_amount, commission_amount, net_amount, acknowledged_count
+                        FROM daily_merchant_rollups WHERE merchant_id = ? AND rollup_date = ?
+                        """,
+                (rs, rowNum) -> new Rollup(rs.getLong(1), rs.getBigDecimal(2), rs.getBigDecimal(3),
+                        rs.getBigDecimal(4), rs.getLong(5)),
+                MERCHANT, Date.valueOf(day));
+    }
+
+    private String status(String ref) {
+        return database.jdbcTemplate().queryForObject("SELECT status FROM merchant_transactions "
+                + "WHERE merchant_id = ? AND transaction_ref = ?", String.class, MERCHANT, ref);
+    }
+
+    // 3% commission, worked out in decimal so a redelivery reads back equal to what was stored
+    private static Transaction tx(String ref, String status, double amount, LocalDateTime createdAt) {
+        BigDecimal commission = BigDecimal.valueOf(amount).multiply(new BigDecimal("0.03"));
+        Transaction tx = new Transaction();
+        tx.setTransactionRef(ref);
+        tx.setStatus(status);
+        tx.setAmount(amount);
+        tx.setCommissionAmount(commission.doubleValue());
+        tx.setNetAmount(BigDecimal.valueOf(amount).subtract(commission).doubleValue());
+        tx.setCurrency("USD");
+        tx.setCreatedAt(createdAt);
+        return tx;
+    }
+
+    private static TransactionEvent event(Instant occurredAt, Transaction tx) {
+        TransactionEvent event = new TransactionEvent();
+        event.setOccurredAt(occurredAt);
+        event.setTransaction(tx);
+        return event;
+    }
+
+    private record Rollup(long count, BigDecimal gross, BigDecimal commission, BigDecimal net, long acknowledged) {
+    }
+}
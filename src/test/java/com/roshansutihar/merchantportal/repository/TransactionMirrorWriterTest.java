@@ -0,0 +1,91 @@
+package com.roshansutihar.merchantportal.repository;
+
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.request.TransactionEvent;
+import com.roshansutihar.merchantportal.support.PostgresSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against a real Postgres: the guard under test is in the upsert's SQL
+@EnabledIfEnvironmentVariable(named = "POSTGRES_URL", matches = ".+")
+class TransactionMirrorWriterTest {
+
+    private static final String MERCHANT = "MCH-RACE";
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 2, 15, 0);
+
+    private PostgresSchema database;
+    private TransactionMirrorWriter mirrorWriter;
+    private TransactionEventWriter eventWriter;
+    private DailyRollupWriter rollupWriter;
+
+    @BeforeEach
+    void setUp() {
+        database = PostgresSchema.create();
+        mirrorWriter = new TransactionMirrorWriter(database.jdbcTemplate());
+        eventWriter = new TransactionEventWriter(database.jdbcTemplate());
+        rollupWriter = new DailyRollupWriter(database.jdbcTemplate());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.close();
+    }
+
+    @Test
+    void syncFetchedBeforeAnEventDoesNotUndoIt() {
+        mirrorWriter.upsert(MERCHANT, List.of(tx("TXN-1", "ACKNOWLEDGED", 10.0)), Instant.now());
+
+        // The sync sends its request, then the event is committed, then the sync's (older) response is written
+        Instant fetchedAt = Instant.now();
+        Transaction stale = tx("TXN-1", "ACKNOWLEDGED", 10.0);
+        eventWriter.apply(Map.of(MERCHANT, List.of(event(fetchedAt.plusMillis(5), tx("TXN-1", "SETTLED", 12.5)))));
+        mirrorWriter.upsert(MERCHANT, List.of(stale), fetchedAt);
+        rollupWriter.refresh(MERCHANT, CREATED.toLocalDate().minusDays(1), CREATED.toLocalDate().plusDays(1));
+
+        assertThat(row("status")).isEqualTo("SETTLED");
+        assertThat(database.jdbcTemplate().queryForObject(
+                "SELECT gross_amount FROM daily_merchant_rollups WHERE merchant_id = ?", Double.class, MERCHANT))
+                .isEqualTo(12.5);
+    }
+
+    @Test
+    void syncFetchedAfterAnEventStillRepairsTheRow() {
+        Instant eventAt = Instant.now();
+        eventWriter.apply(Map.of(MERCHANT, List.of(event(eventAt, tx("TXN-1", "ACKNOWLEDGED", 10.0)))));
+
+        mirrorWriter.upsert(MERCHANT, List.of(tx("TXN-1", "SETTLED", 12.5)), eventAt.plusSeconds(1));
+
+        assertThat(row("status")).isEqualTo("SETTLED");
+    }
+
+    private String row(String column) {
+        return database.jdbcTemplate().queryForObject("SELECT " + column + " FROM merchant_transactions "
+                + "WHERE merchant_id = ? AND transaction_ref = 'TXN-1'", String.class, MERCHANT);
+    }
+
+    private static Transaction tx(String ref, String status, double amount) {
+        Transaction tx = new Transaction();
+        tx.setTransactionRef(ref);
+        tx.setStatus(status);
+        tx.setAmount(amount);
+        tx.setCurrency("USD");
+        tx.setCreatedAt(CREATED);
+        return tx;
+    }
+
+    private static TransactionEvent event(Instant occurredAt, Transaction tx) {
+        TransactionEvent event = new TransactionEvent();
+        event.setOccurredAt(occurredAt);
+        event.setTransaction(tx);
+        return event;
+    }
+}
@@ -0,0 +1,96 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import com.roshansutihar.merchantportal.support.PaymentsCoreStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiServiceConditionalReadTest {
+
+    private static final String MERCHANT_ID = "MCH-1";
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+
+    private PaymentsCoreStandIn paymentsCore;
+    private ApiService apiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        paymentsCore = PaymentsCoreStandIn.start();
+        paymentsCore.setEtags(true);
+        paymentsCore.addTransactions(MERCHANT_ID, List.of(transaction("TXN_0001"), transaction("TXN_0002")));
+
+        apiService = new ApiService(new RestTemplate(), JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build(),
+                new PaymentsCoreGuard(new SimpleMeterRegistry(), 5, Duration.ofSeconds(30), 10_000,
+                        Duration.ofHours(1)),
+                new ValidatedResponseCache(10_000, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(apiService, "baseUrl", paymentsCore.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentsCore.close();
+    }
+
+    @Test
+    void unchangedRangeIsRevalidatedAndReused() {
+        TransactionResponse first = apiService.getTransactionsByDateRange(MERCHANT_ID, DAY, DAY, null);
+        TransactionResponse second = apiService.getTransactionsByDateRange(MERCHANT_ID, DAY, DAY, null);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getTransactions()).hasSize(2);
+        assertThat(paymentsCore.fullResponses()).isEqualTo(1);
+        assertThat(paymentsCore.notModifiedResponses()).isEqualTo(1);
+    }
+
+    @Test
+    void changedRangeIsDownloadedAgain() {
+        TransactionResponse first = apiService.getTransactionsByDateRange(MERCHANT_ID, DAY, DAY, null);
+        paymentsCore.addTransactions(MERCHANT_ID, List.of(transaction("TXN_0003")));
+
+        TransactionResponse second = apiService.getTransactionsByDateRange(MERCHANT_ID, DAY, DAY, null);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTransactions()).hasSize(3);
+        assertThat(paymentsCore.fullResponses()).isEqualTo(2);
+        assertThat(paymentsCore.notModifiedResponses()).isZero();
+    }
+
+    @Test
+    void responsesWithoutValidatorsAreNotCached() {
+        paymentsCore.setEtags(false);
+
+        apiService.getTransactionsByDateRange(MERCHANT_ID, DAY, DAY, null);
+        apiService.getTransactionsByDateRange(MERCHANT_ID, DAY, DAY, null);
+
+        assertThat(paymentsCore.fullResponses()).isEqualTo(2);
+        assertThat(paymentsCore.notModifiedResponses()).isZero();
+    }
+
+    private static Transaction transaction(String ref) {
+        Transaction tx = new Transaction();
+        tx.setCreatedAt(ApiService.utcRangeStart(DAY).toLocalDateTime().plusHours(1));
+        tx.setTransactionRef(ref);
+        tx.setAmount(10.0);
+        tx.setCommissionAmount(0.3);
+        tx.setNetAmount(9.7);
+        tx.setStatus("SETTLED");
+        return tx;
+    }
+}
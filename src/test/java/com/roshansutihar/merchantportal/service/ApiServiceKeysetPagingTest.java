@@ -0,0 +1,113 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.support.PaymentsCoreStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiServiceKeysetPagingTest {
+
+    private static final String MERCHANT_ID = "MCH-1";
+    private static final int ROWS = 237;
+    private static final int PAGE_SIZE = 50;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("America/Chicago"));
+    private PaymentsCoreStandIn paymentsCore;
+    private ApiService apiService;
+    private List<String> expectedOrder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        paymentsCore = PaymentsCoreStandIn.start();
+
+        LocalDateTime dayStartUtc = ApiService.utcRangeStart(today).toLocalDateTime();
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Transaction tx = new Transaction();
+            // Pairs of rows share a timestamp so the transactionRef tie-break is exercised
+            tx.setCreatedAt(dayStartUtc.plusMinutes(i / 2));
+            tx.setTransactionRef(String.format("TXN_%04d", i));
+            tx.setAmount(10.0);
+            tx.setCommissionAmount(0.3);
+            tx.setNetAmount(9.7);
+            tx.setStatus(i % 3 == 0 ? "SETTLED" : "ACKNOWLEDGED");
+            rows.add(tx);
+        }
+        paymentsCore.addTransactions(MERCHANT_ID, rows);
+        expectedOrder = rows.stream().sorted(TransactionCursor.NEWEST_FIRST).map(Transaction::getTransactionRef).toList();
+
+        apiService = new ApiService(new RestTemplate(), JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build(),
+                new PaymentsCoreGuard(new SimpleMeterRegistry(), 5, Duration.ofSeconds(30), 10_000,
+                        Duration.ofHours(1)),
+                new ValidatedResponseCache(10_000, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(apiService, "baseUrl", paymentsCore.baseUrl());
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentsCore.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void walksEveryRowOnceNewestFirst(boolean coreHonoursPaging) {
+        paymentsCore.setHonourPaging(coreHonoursPaging);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = apiService.getTransactionPage(
+                    MERCHANT_ID, today, today, null, cursor, PageDirection.NEXT, PAGE_SIZE);
+            assertThat(page.getTransactions()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            page.getTransactions().forEach(tx -> seen.add(tx.getTransactionRef()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expectedOrder);
+        assertThat(pages).isEqualTo((ROWS + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void prevCursorReturnsThePreviousPage(boolean coreHonoursPaging) {
+        paymentsCore.setHonourPaging(coreHonoursPaging);
+
+        TransactionPage first = apiService.getTransactionPage(
+                MERCHANT_ID, today, today, null, null, PageDirection.NEXT, PAGE_SIZE);
+        TransactionPage second = apiService.getTransactionPage(
+                MERCHANT_ID, today, today, null, first.getNextCursor(), PageDirection.NEXT, PAGE_SIZE);
+        TransactionPage back = apiService.getTransactionPage(
+                MERCHANT_ID, today, today, null, second.getPrevCursor(), PageDirection.PREV, PAGE_SIZE);
+
+        assertThat(first.hasPrev()).isFalse();
+        assertThat(back.getTransactions()).extracting(Transaction::getTransactionRef)
+                .containsExactlyElementsOf(first.getTransactions().stream().map(Transaction::getTransactionRef).toList());
+        assertThat(back.hasPrev()).isFalse();
+        assertThat(back.getNextCursor()).isEqualTo(first.getNextCursor());
+    }
+}
@@ -0,0 +1,77 @@
+package com.roshansutihar.merchantportal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_FOR = Duration.ofMillis(50);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndClosesAfterOneGoodTrial() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("SUMMARY", 3, OPEN_FOR);
+        fail(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        // Once the open period is over exactly one caller gets through
+        Thread.sleep(OPEN_FOR.toMillis() * 2);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.stats()).containsEntry("rejected", 2L);
+    }
+
+    @Test
+    void failedTrialOpensTheCircuitAgain() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("SUMMARY", 3, OPEN_FOR);
+        for (int i = 0; i < 3; i++) {
+            fail(breaker);
+        }
+        Thread.sleep(OPEN_FOR.toMillis() * 2);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // A single failure in half-open is enough, and the open period starts over
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void cancelledTrialLetsTheNextCallerTry() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("TRANSACTIONS", 1, OPEN_FOR);
+        fail(breaker);
+        Thread.sleep(OPEN_FOR.toMillis() * 2);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onCancelled();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void successInBetweenResetsTheFailureCount() {
+        CircuitBreaker breaker = new CircuitBreaker("SUMMARY", 2, OPEN_FOR);
+        fail(breaker);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+    }
+}
@@ -0,0 +1,122 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.CrossMerchantPage;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.dto.TransactionPage;
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CrossMerchantTransactionServiceTest {
+
+    private static final int PAGE_SIZE = 7;
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+
+    private final Map<String, List<Transaction>> rowsByMerchant = new LinkedHashMap<>();
+    private final Map<Transaction, String> merchantOf = new LinkedHashMap<>();
+    private final List<String> failing = new ArrayList<>();
+    private CrossMerchantTransactionService service;
+    private List<String> merchantIds;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(7);
+        LocalDateTime start = DAY.atStartOfDay();
+        for (int m = 0; m < 5; m++) {
+            String merchantId = "MCH-" + m;
+            List<Transaction> rows = new ArrayList<>();
+            // Uneven sizes, including an empty merchant, and coarse timestamps so rows tie across merchants
+            for (int i = 0; i < m * 9; i++) {
+                Transaction tx = new Transaction();
+                tx.setCreatedAt(start.plusMinutes(random.nextInt(20)));
+                tx.setTransactionRef(String.format("TXN_%d_%03d", m, i));
+                rows.add(tx);
+                merchantOf.put(tx, merchantId);
+            }
+            rowsByMerchant.put(merchantId, rows);
+        }
+        merchantIds = new ArrayList<>(rowsByMerchant.keySet());
+
+        TransactionQueryService pages = new TransactionQueryService(null, null, null, null) {
+            @Override
+            public TransactionPage getTransactionPage(String merchantId, LocalDate from, LocalDate to, String status,
+                                                      String cursor, PageDirection direction, int size) {
+                if (failing.contains(merchantId)) {
+                    throw new IllegalStateException("payments core down for " + merchantId);
+                }
+                KeysetPageCollector collector = new KeysetPageCollector(TransactionCursor.decode(cursor), direction, size);
+                rowsByMerchant.get(merchantId).forEach(collector::add);
+                return collector.toPage();
+            }
+        };
+        service = new CrossMerchantTransactionService(pages, new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "deadline", Duration.ofSeconds(5));
+    }
+
+    @Test
+    void pagesForwardAndBackInGlobalNewestFirstOrder() {
+        List<Transaction> expected = new ArrayList<>(merchantOf.keySet());
+        expected.sort(TransactionCursor.NEWEST_FIRST);
+
+        List<CrossMerchantPage> forward = new ArrayList<>();
+        List<Transaction> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CrossMerchantPage page = service.getPage(merchantIds, DAY, DAY, null, cursor, PageDirection.NEXT, PAGE_SIZE);
+            assertThat(page.getPage().getTransactions()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            for (int i = 0; i < page.getPage().getTransactions().size(); i++) {
+                Transaction tx = page.getPage().getTransactions().get(i);
+                assertThat(page.getRowMerchantIds().get(i)).isEqualTo(merchantOf.get(tx));
+            }
+            seen.addAll(page.getPage().getTransactions());
+            forward.add(page);
+            cursor = page.getPage().getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(forward.get(0).getPage().hasPrev()).isFalse();
+
+        // Walk back from the last page and expect the same pages in reverse
+        List<List<Transaction>> backward = new ArrayList<>();
+        cursor = forward.get(forward.size() - 1).getPage().getPrevCursor();
+        while (cursor != null) {
+            CrossMerchantPage page = service.getPage(merchantIds, DAY, DAY, null, cursor, PageDirection.PREV, PAGE_SIZE);
+            backward.add(page.getPage().getTransactions());
+            cursor = page.getPage().getPrevCursor();
+        }
+        Collections.reverse(backward);
+        List<List<Transaction>> expectedBackward = forward.subList(0, forward.size() - 1).stream()
+                .map(page -> page.getPage().getTransactions())
+                .toList();
+        assertThat(backward).isEqualTo(expectedBackward);
+    }
+
+    @Test
+    void failingMerchantIsReportedAndTheRestAreMerged() {
+        failing.add("MCH-3");
+
+        CrossMerchantPage page = service.getPage(merchantIds, DAY, DAY, null, null, PageDirection.NEXT, 100);
+
+        assertThat(page.getMissingMerchantIds()).containsExactly("MCH-3");
+        assertThat(page.isPartial()).isTrue();
+        assertThat(page.getRowMerchantIds()).doesNotContain("MCH-3");
+        assertThat(page.getPage().getTransactions())
+                .hasSize(merchantOf.size() - rowsByMerchant.get("MCH-3").size())
+                .isSortedAccordingTo(TransactionCursor.NEWEST_FIRST);
+    }
+}
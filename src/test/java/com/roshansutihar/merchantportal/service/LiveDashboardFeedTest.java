@@ -0,0 +1,231 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.LiveTransaction;
+import com.roshansutihar.merchantportal.dto.TransactionTotals;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveDashboardFeedTest {
+
+    private static final String MERCHANT = "MCH-LIVE";
+    private static final LocalDate TODAY = LocalDate.now(ZoneId.of("America/Chicago"));
+
+    // Today's rows as payments core returns them, newest first
+    private final List<Transaction> rows = new CopyOnWriteArrayList<>();
+    private Runnable duringFetch = () -> { };
+    private LiveDashboardFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        ApiService apiService = new ApiService(null, null, null, null) {
+            @Override
+            public TransactionResponse streamTransactionsByDateRange(String merchantId, LocalDate from, LocalDate to,
+                                                                     String status, int maxRows,
+                                                                     TransactionTotals totals) {
+                duringFetch.run();
+                rows.forEach(totals::add);
+                TransactionResponse response = new TransactionResponse();
+                response.setMerchantId(merchantId);
+                response.setTransactions(List.copyOf(rows));
+                return response;
+            }
+        };
+        SummaryCache summaryCache = new SummaryCache(null, null, 1, Duration.ofHours(1), Duration.ofSeconds(1), 1,
+                Duration.ZERO) {
+            @Override
+            public SummaryResponse getSummary(String merchantId, LocalDate from, LocalDate to) {
+                return new SummaryResponse();
+            }
+        };
+        // Not a webhook merchant, so every poll goes to payments core
+        TransactionMirrorService mirror = new TransactionMirrorService(null, null, null, null, null, null, null, null) {
+            @Override
+            public Optional<TransactionResponse> findLiveDay(String merchantId, LocalDate day, int maxRows,
+                                                             TransactionTotals totals) {
+                return Optional.empty();
+            }
+        };
+        // Polls run inline, so pollAll() has finished delivering when it returns
+        feed = new LiveDashboardFeed(apiService, summaryCache, mirror, new TaskExecutorAdapter(Runnable::run),
+                new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter newEmitter() {
+                return new RecordingEmitter();
+            }
+        };
+        ReflectionTestUtils.setField(feed, "todayMaxRows", 100);
+    }
+
+    @Test
+    void tabJoiningWhileTheFeedIsPollingGetsWhatItsPageMissed() {
+        rows.add(tx("TX-1", 12, 0));
+        RecordingEmitter first = subscribe(null);
+        feed.pollAll();
+        assertThat(first.take()).extracting(Sent::event).containsExactly("transactions", "tiles");
+
+        // The second tab's page already showed TX-2; it connects while the feed is fetching
+        rows.add(0, tx("TX-2", 12, 5));
+        rows.add(0, tx("TX-3", 12, 10));
+        List<RecordingEmitter> joined = new ArrayList<>();
+        duringFetch = () -> {
+            duringFetch = () -> { };
+            joined.add(subscribe(LocalDateTime.of(TODAY, LocalTime.of(12, 10))));
+        };
+        feed.pollAll();
+
+        List<Sent> firstTab = first.take();
+        assertThat(firstTab).extracting(Sent::event).containsExactly("transactions", "tiles");
+        assertThat(firstTab.get(0).data()).isEqualTo("TX-3,TX-2");
+        List<Sent> second = joined.get(0).take();
+        assertThat(second).extracting(Sent::event).containsExactly("transactions", "tiles");
+        assertThat(second.get(0).data()).isEqualTo("TX-3");
+
+        feed.pollAll();
+        assertThat(first.take()).extracting(Sent::comment).containsExactly("no change");
+        assertThat(joined.get(0).take()).extracting(Sent::comment).containsExactly("no change");
+    }
+
+    @Test
+    void reconnectResumesFromTheLastEventId() {
+        rows.add(tx("TX-2", 11, 30));
+        rows.add(tx("TX-1", 11, 0));
+        RecordingEmitter tab = subscribe(null);
+        feed.pollAll();
+        Sent delivered = tab.take().get(0);
+        assertThat(delivered.data()).isEqualTo("TX-2,TX-1");
+        assertThat(delivered.id()).isEqualTo(TODAY + "T11:30:00");
+
+        // The connection drops and EventSource reconnects with the id it last saw, as LiveDashboardController
+        // turns the Last-Event-ID header into `since`
+        tab.complete();
+        rows.add(0, tx("TX-3", 11, 45));
+        RecordingEmitter reconnected = subscribe(LocalDateTime.parse(delivered.id()));
+        feed.pollAll();
+
+        // TX-2 shares the resume timestamp, so it is sent again for the page to skip; TX-1 is not
+        List<Sent> resumed = reconnected.take();
+        assertThat(resumed).extracting(Sent::event).containsExactly("transactions", "tiles");
+        assertThat(resumed.get(0).data()).isEqualTo("TX-3,TX-2");
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unchangedPollSendsOnlyAComment() {
+        rows.add(tx("TX-1", 9, 0));
+        RecordingEmitter tab = subscribe(null);
+        feed.pollAll();
+        tab.take();
+
+        feed.pollAll();
+
+        assertThat(tab.take()).containsExactly(new Sent(null, null, null, "no change"));
+    }
+
+    @Test
+    void dayRolloverTellsEveryTabToReload() {
+        rows.add(tx("TX-1", 9, 0));
+        RecordingEmitter first = subscribe(null);
+        RecordingEmitter second = subscribe(null);
+        feed.pollAll();
+        first.take();
+        second.take();
+
+        // As if the previous poll ran before Chicago midnight
+        Map<?, ?> feeds = (Map<?, ?>) ReflectionTestUtils.getField(feed, "feeds");
+        ReflectionTestUtils.setField(feeds.get(MERCHANT), "day", TODAY.minusDays(1));
+        feed.pollAll();
+
+        Sent reload = new Sent("reload", null, TODAY.toString(), null);
+        assertThat(first.take()).containsExactly(reload);
+        assertThat(second.take()).containsExactly(reload);
+    }
+
+    private RecordingEmitter subscribe(LocalDateTime since) {
+        return (RecordingEmitter) feed.subscribe(MERCHANT, since);
+    }
+
+    private static Transaction tx(String ref, int hour, int minute) {
+        Transaction tx = new Transaction();
+        tx.setTransactionRef(ref);
+        tx.setAmount(10.0);
+        tx.setCurrency("USD");
+        tx.setStatus("ACKNOWLEDGED");
+        tx.setCreatedAt(LocalDateTime.of(TODAY, LocalTime.of(hour, minute)));
+        return tx;
+    }
+
+    // One SSE event as written to the wire; rows are shown by their refs
+    private record Sent(String event, String id, String data, String comment) {
+
+        private static Sent parse(String text) {
+            String event = null;
+            String id = null;
+            String data = null;
+            String comment = null;
+            for (String line : text.split("\n")) {
+                if (line.startsWith("event:")) {
+                    event = line.substring("event:".length());
+                } else if (line.startsWith("id:")) {
+                    id = line.substring("id:".length());
+                } else if (line.startsWith("data:")) {
+                    data = line.substring("data:".length());
+                } else if (line.startsWith(":")) {
+                    comment = line.substring(1);
+                }
+            }
+            return new Sent(event, id, data, comment);
+        }
+    }
+
+    // Records what the feed sends instead of writing to a response; once completed, a send fails like a closed tab
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Sent> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (completed) {
+                throw new IllegalStateException("Emitter already completed");
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData() instanceof List<?> list
+                    ? list.stream().map(row -> ((LiveTransaction) row).transactionRef())
+                            .collect(Collectors.joining(","))
+                    : part.getData()));
+            sent.add(Sent.parse(text.toString()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        // What was sent since the last call
+        private List<Sent> take() {
+            List<Sent> taken = List.copyOf(sent);
+            sent.clear();
+            return taken;
+        }
+    }
+}
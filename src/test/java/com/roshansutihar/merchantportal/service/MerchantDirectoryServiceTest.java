@@ -0,0 +1,177 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.MerchantDirectoryPage;
+import com.roshansutihar.merchantportal.dto.MerchantListing;
+import com.roshansutihar.merchantportal.dto.MerchantOption;
+import com.roshansutihar.merchantportal.dto.PageDirection;
+import com.roshansutihar.merchantportal.repository.MerchantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MerchantDirectoryServiceTest {
+
+    private static final int PAGE_SIZE = 4;
+    private static final Comparator<MerchantListing> DIRECTORY_ORDER = Comparator
+            .comparing((MerchantListing m) -> m.storeName().toLowerCase(Locale.ROOT))
+            .thenComparing(MerchantListing::merchantId);
+
+    private final List<MerchantListing> merchants = new ArrayList<>();
+    private final List<String> patterns = new ArrayList<>();
+    private MerchantDirectoryService service;
+
+    @BeforeEach
+    void setUp() {
+        // Repeated and differently-cased store names, so the merchant id has to break ties
+        String[] names = {"Corner Cafe", "corner cafe", "Bakery", "Zoo Shop", "100% Juice", "Deli", "Bakery",
+                "Books & Co", "Arcade", "Deli", "Market_One", "Market One"};
+        for (int i = 0; i < names.length; i++) {
+            merchants.add(listing(String.format("MCH-%02d", i), String.format("%05d", 10000 + i * 7), names[i]));
+        }
+        service = new MerchantDirectoryService(inMemoryRepository());
+    }
+
+    @Test
+    void pagingForwardThenBackVisitsEveryMerchantOnceInDirectoryOrder() {
+        List<MerchantListing> expected = merchants.stream().sorted(DIRECTORY_ORDER).toList();
+
+        List<MerchantDirectoryPage> forward = new ArrayList<>();
+        MerchantDirectoryPage page = service.getPage("", null, PageDirection.NEXT, PAGE_SIZE);
+        forward.add(page);
+        while (page.hasNext()) {
+            page = service.getPage("", page.getNextCursor(), PageDirection.NEXT, PAGE_SIZE);
+            forward.add(page);
+        }
+        assertThat(forward.get(0).hasPrev()).isFalse();
+        assertThat(forward.stream().flatMap(p -> p.getMerchants().stream()).toList()).isEqualTo(expected);
+
+        // Previous from the last page retraces the same pages
+        for (int i = forward.size() - 1; i > 0; i--) {
+            MerchantDirectoryPage back = service.getPage("", forward.get(i).getPrevCursor(), PageDirection.PREV,
+                    PAGE_SIZE);
+            assertThat(back.getMerchants()).isEqualTo(forward.get(i - 1).getMerchants());
+            assertThat(back.hasPrev()).isEqualTo(i - 1 > 0);
+            assertThat(back.getNextCursor()).isEqualTo(forward.get(i - 1).getNextCursor());
+        }
+    }
+
+    @Test
+    void searchMatchesStoreNameOrSiteIdAnywhereIgnoringCase() {
+        MerchantDirectoryPage page = service.getPage("  DELI ", null, PageDirection.NEXT, PAGE_SIZE);
+        assertThat(page.getMerchants()).extracting(MerchantListing::merchantId).containsExactly("MCH-05", "MCH-09");
+        assertThat(page.hasNext()).isFalse();
+
+        assertThat(service.getPage("0021", null, PageDirection.NEXT, PAGE_SIZE).getMerchants())
+                .extracting(MerchantListing::merchantId).containsExactly("MCH-03");
+    }
+
+    @Test
+    void searchTermsAreMatchedLiterally() {
+        assertThat(service.getPage("100%", null, PageDirection.NEXT, PAGE_SIZE).getMerchants())
+                .extracting(MerchantListing::storeName).containsExactly("100% Juice");
+        assertThat(service.getPage("market_", null, PageDirection.NEXT, PAGE_SIZE).getMerchants())
+                .extracting(MerchantListing::storeName).containsExactly("Market_One");
+        assertThat(patterns).contains("%100\\%%", "%market\\_%");
+    }
+
+    @Test
+    void shortTermsOnlyMatchTheStartOfANameOrSiteId() {
+        // "co" is also inside "Books & Co", but two letters only match as a prefix
+        assertThat(service.getPage("co", null, PageDirection.NEXT, PAGE_SIZE).getMerchants())
+                .extracting(MerchantListing::merchantId).containsExactly("MCH-00", "MCH-01");
+        assertThat(service.getPage("ok", null, PageDirection.NEXT, PAGE_SIZE).getMerchants()).isEmpty();
+        assertThat(service.getPage("ook", null, PageDirection.NEXT, PAGE_SIZE).getMerchants())
+                .extracting(MerchantListing::storeName).containsExactly("Books & Co");
+        assertThat(patterns).contains("co%", "ok%", "%ook%");
+    }
+
+    @Test
+    void typeaheadListsPrefixMatchesBeforeOtherMatches() {
+        merchants.add(listing("MCH-20", "10200", "Cafe Corner"));
+
+        assertThat(service.search("caf", 10)).extracting(MerchantOption::merchantId)
+                .containsExactly("MCH-20", "MCH-00", "MCH-01");
+        // The second query only fills what the first left over
+        assertThat(service.search("caf", 1)).extracting(MerchantOption::merchantId).containsExactly("MCH-20");
+        assertThat(service.search("ca", 10)).extracting(MerchantOption::merchantId).containsExactly("MCH-20");
+    }
+
+    @Test
+    void blankSearchListsEverythingAndSuggestsNothing() {
+        assertThat(MerchantDirectoryService.pattern("   ")).isNull();
+        assertThat(service.search(" ", 10)).isEmpty();
+    }
+
+    private static MerchantListing listing(String merchantId, String siteId, String storeName) {
+        return new MerchantListing(merchantId, siteId, storeName, "https://example.test/callback", "PERCENTAGE",
+                null, null, null, "000123456", "011000015", null);
+    }
+
+    // Answers the directory queries from `merchants` the way the JPQL in MerchantRepository does
+    private MerchantRepository inMemoryRepository() {
+        return (MerchantRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MerchantRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findDirectoryFirstPage" -> query(null, m -> true, false, (Pageable) args[0]);
+                    case "findDirectoryPageAfter" -> query(null, after((String) args[0], (String) args[1]), false,
+                            (Pageable) args[2]);
+                    case "findDirectoryPageBefore" -> query(null, before((String) args[0], (String) args[1]), true,
+                            (Pageable) args[2]);
+                    case "findMatchingFirstPage" -> query((String) args[0], m -> true, false, (Pageable) args[1]);
+                    case "findMatchingPageAfter" -> query((String) args[0], after((String) args[1], (String) args[2]),
+                            false, (Pageable) args[3]);
+                    case "findMatchingPageBefore" -> query((String) args[0],
+                            before((String) args[1], (String) args[2]), true, (Pageable) args[3]);
+                    case "searchOptions" -> options(query((String) args[0], m -> true, false, (Pageable) args[1]));
+                    case "searchOptionsExcluding" -> options(query((String) args[0],
+                            matches((String) args[1]).negate(), false, (Pageable) args[2]));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private List<MerchantListing> query(String pattern, Predicate<MerchantListing> position, boolean descending,
+                                        Pageable pageable) {
+        patterns.add(pattern);
+        Predicate<MerchantListing> matches = pattern == null ? m -> true : matches(pattern);
+        List<MerchantListing> rows = new ArrayList<>(merchants.stream()
+                .filter(matches.and(position))
+                .sorted(DIRECTORY_ORDER)
+                .toList());
+        if (descending) {
+            Collections.reverse(rows);
+        }
+        return rows.subList(0, Math.min(pageable.getPageSize(), rows.size()));
+    }
+
+    // The two pattern shapes the service builds: '%term%' and 'term%'
+    private static Predicate<MerchantListing> matches(String pattern) {
+        boolean anywhere = pattern.startsWith("%");
+        String term = pattern.substring(anywhere ? 1 : 0, pattern.length() - 1).replaceAll("\\\\(.)", "$1");
+        return m -> {
+            String name = m.storeName().toLowerCase(Locale.ROOT);
+            return anywhere ? name.contains(term) || m.siteId().contains(term)
+                    : name.startsWith(term) || m.siteId().startsWith(term);
+        };
+    }
+
+    private static Predicate<MerchantListing> after(String cursorName, String cursorId) {
+        return m -> DIRECTORY_ORDER.compare(m, listing(cursorId, "", cursorName)) > 0;
+    }
+
+    private static Predicate<MerchantListing> before(String cursorName, String cursorId) {
+        return m -> DIRECTORY_ORDER.compare(m, listing(cursorId, "", cursorName)) < 0;
+    }
+
+    private static List<MerchantOption> options(List<MerchantListing> rows) {
+        return rows.stream().map(m -> new MerchantOption(m.merchantId(), m.siteId(), m.storeName())).toList();
+    }
+}
@@ -0,0 +1,144 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentsCoreGuardTest {
+
+    private static final String KEY = "MCH-1 2025-03-01 2025-03-31";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentsCoreGuard guard = new PaymentsCoreGuard(meterRegistry, 2, Duration.ofMinutes(1), 1_000,
+            Duration.ofHours(1));
+
+    @Test
+    void clientErrorsAreAnswersAndNeverOpenTheCircuit() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> guard.call(PaymentsCoreEndpoint.SUMMARY, () -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            })).isInstanceOf(HttpClientErrorException.class);
+        }
+        assertThat(state(PaymentsCoreEndpoint.SUMMARY)).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(guard.call(PaymentsCoreEndpoint.SUMMARY, () -> "ok")).isEqualTo("ok");
+        assertThat(meterRegistry.get("payments.core.requests").tag("outcome", "client_error").timer().count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuitForThatEndpointOnly() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> down = () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        };
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> guard.call(PaymentsCoreEndpoint.SUMMARY, down))
+                    .isInstanceOf(HttpServerErrorException.class);
+        }
+
+        assertThatThrownBy(() -> guard.call(PaymentsCoreEndpoint.SUMMARY, down))
+                .isInstanceOf(PaymentsCoreUnavailableException.class);
+        assertThat(calls).hasValue(2);
+        assertThat(meterRegistry.get("payments.core.circuit.open").tag("endpoint", "summary").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(guard.call(PaymentsCoreEndpoint.TRANSACTIONS, () -> "rows")).isEqualTo("rows");
+    }
+
+    @Test
+    void failedReadsServeAMarkedCopyOfTheLastGoodResponse() {
+        SummaryResponse live = guard.read(PaymentsCoreEndpoint.SUMMARY, KEY, () -> summary(10L));
+        assertThat(live.getDataAsOf()).isNull();
+
+        // A 4xx is the core's answer, so the last good copy doesn't stand in for it
+        assertThatThrownBy(() -> guard.read(PaymentsCoreEndpoint.SUMMARY, KEY, () -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        })).isInstanceOf(HttpClientErrorException.class);
+
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<SummaryResponse> down = () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        };
+        SummaryResponse stale = guard.read(PaymentsCoreEndpoint.SUMMARY, KEY, down);
+        assertThat(stale).isNotSameAs(live);
+        assertThat(stale.getTotalTransactions()).isEqualTo(10L);
+        assertThat(stale.getDataAsOf()).isNotNull();
+        assertThat(live.getDataAsOf()).isNull();
+
+        // Open circuit: still served, without calling out
+        guard.read(PaymentsCoreEndpoint.SUMMARY, KEY, down);
+        assertThat(guard.read(PaymentsCoreEndpoint.SUMMARY, KEY, down).getDataAsOf()).isEqualTo(stale.getDataAsOf());
+        assertThat(calls).hasValue(2);
+        assertThat(guard.stats()).containsEntry("staleServed", 3L);
+        assertThat(meterRegistry.get("payments.core.stale.served").tag("endpoint", "summary").functionCounter()
+                .count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("payments.core.stale.served").tag("endpoint", "transactions")
+                .functionCounter().count()).isZero();
+
+        // Nothing remembered for another key
+        assertThatThrownBy(() -> guard.read(PaymentsCoreEndpoint.SUMMARY, "MCH-2 2025-03-01 2025-03-31", down))
+                .isInstanceOf(PaymentsCoreUnavailableException.class);
+    }
+
+    @Test
+    void stateAndTransitionsAreExportedPerEndpoint() throws Exception {
+        // Its own registry: meters registered again under the same tags would return the first guard's
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PaymentsCoreGuard guard = new PaymentsCoreGuard(registry, 1, Duration.ofMillis(50), 1_000,
+                Duration.ofHours(1));
+        assertThatThrownBy(() -> guard.call(PaymentsCoreEndpoint.SUMMARY, () -> {
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        })).isInstanceOf(HttpServerErrorException.class);
+        assertThat(stateGauge(registry, "open")).isEqualTo(1.0);
+
+        // While the trial call is in flight the circuit is half-open, which circuit.open can't show
+        Thread.sleep(100);
+        double[] during = new double[3];
+        guard.call(PaymentsCoreEndpoint.SUMMARY, () -> {
+            during[0] = stateGauge(registry, "half_open");
+            during[1] = stateGauge(registry, "closed");
+            during[2] = registry.get("payments.core.circuit.open").tag("endpoint", "summary").gauge().value();
+            return "ok";
+        });
+        assertThat(during).containsExactly(1.0, 0.0, 0.0);
+        assertThat(stateGauge(registry, "closed")).isEqualTo(1.0);
+
+        assertThat(transitions(registry, "open")).isEqualTo(1.0);
+        assertThat(transitions(registry, "half_open")).isEqualTo(1.0);
+        assertThat(transitions(registry, "closed")).isEqualTo(1.0);
+    }
+
+    private static double stateGauge(SimpleMeterRegistry registry, String state) {
+        return registry.get("payments.core.circuit.state").tag("endpoint", "summary").tag("state", state)
+                .gauge().value();
+    }
+
+    private static double transitions(SimpleMeterRegistry registry, String state) {
+        return registry.get("payments.core.circuit.transitions").tag("endpoint", "summary").tag("state", state)
+                .functionCounter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private CircuitBreaker.State state(PaymentsCoreEndpoint endpoint) {
+        return (CircuitBreaker.State) ((Map<String, Object>) guard.stats().get(endpoint.name())).get("state");
+    }
+
+    private static SummaryResponse summary(long transactions) {
+        SummaryResponse summary = new SummaryResponse();
+        summary.setMerchantId("MCH-1");
+        summary.setTotalTransactions(transactions);
+        return summary;
+    }
+}
@@ -0,0 +1,110 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.MerchantKpi;
+import com.roshansutihar.merchantportal.dto.PlatformKpis;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlatformKpiServiceTest {
+
+    private static final int MERCHANTS = 1000;
+    private static final LocalDate FROM = LocalDate.of(2025, 6, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 6, 30);
+
+    private final List<String> failing = new ArrayList<>();
+    private final AtomicInteger summaryCalls = new AtomicInteger();
+    private PlatformKpiService service;
+
+    @BeforeEach
+    void setUp() {
+        List<String> merchantIds = new ArrayList<>();
+        for (int m = 0; m < MERCHANTS; m++) {
+            merchantIds.add(String.format("MCH-%04d", m));
+        }
+        ApiService apiService = new ApiService(null, null, null, null) {
+            @Override
+            public List<String> getMerchantIds() {
+                return merchantIds;
+            }
+        };
+        // Merchant m made m transactions of $10 at 2% commission; every tenth merchant had none
+        SummaryCache summaryCache = new SummaryCache(null, null, 1, Duration.ofHours(1), Duration.ofSeconds(1), 1, Duration.ZERO) {
+            @Override
+            public SummaryResponse getSummary(String merchantId, LocalDate from, LocalDate to) {
+                summaryCalls.incrementAndGet();
+                if (failing.contains(merchantId)) {
+                    throw new IllegalStateException("payments core down for " + merchantId);
+                }
+                int m = Integer.parseInt(merchantId.substring(4));
+                long transactions = m % 10 == 0 ? 0 : m;
+                SummaryResponse summary = new SummaryResponse();
+                summary.setMerchantId(merchantId);
+                summary.setTotalTransactions(transactions);
+                summary.setTotalAmount(transactions * 10.0);
+                summary.setTotalCommission(transactions * 0.2);
+                summary.setTotalNetAmount(transactions * 9.8);
+                return summary;
+            }
+        };
+        service = new PlatformKpiService(apiService, summaryCache, new SimpleAsyncTaskExecutor(),
+                Duration.ofMinutes(5), 10);
+        ReflectionTestUtils.setField(service, "deadline", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(service, "topN", 3);
+    }
+
+    @Test
+    void reducesEveryMerchantIntoTotalsAndRankings() {
+        PlatformKpis kpis = service.getKpis(FROM, TO);
+
+        long expectedTransactions = 0;
+        for (int m = 0; m < MERCHANTS; m++) {
+            expectedTransactions += m % 10 == 0 ? 0 : m;
+        }
+        assertThat(kpis.getMerchantCount()).isEqualTo(MERCHANTS);
+        assertThat(kpis.getActiveMerchantCount()).isEqualTo(MERCHANTS - MERCHANTS / 10);
+        assertThat(kpis.getTotalTransactions()).isEqualTo(expectedTransactions);
+        assertThat(kpis.getGrossVolume()).isEqualByComparingTo(BigDecimal.valueOf(expectedTransactions * 10));
+        assertThat(kpis.isPartial()).isFalse();
+        assertThat(kpis.getTopByVolume()).extracting(MerchantKpi::merchantId)
+                .containsExactly("MCH-0999", "MCH-0998", "MCH-0997");
+        assertThat(kpis.getTopByTransactions()).extracting(MerchantKpi::merchantId)
+                .containsExactly("MCH-0999", "MCH-0998", "MCH-0997");
+    }
+
+    @Test
+    void completeResultsAreCachedPerPeriod() {
+        service.getKpis(FROM, TO);
+        service.getKpis(FROM, TO);
+
+        assertThat(summaryCalls).hasValue(MERCHANTS);
+
+        service.getKpis(FROM, FROM);
+        assertThat(summaryCalls).hasValue(2 * MERCHANTS);
+    }
+
+    @Test
+    void failingMerchantIsReportedAndNotCached() {
+        failing.add("MCH-0999");
+
+        PlatformKpis kpis = service.getKpis(FROM, TO);
+
+        assertThat(kpis.getMissingMerchantIds()).containsExactly("MCH-0999");
+        assertThat(kpis.getTopByVolume()).extracting(MerchantKpi::merchantId)
+                .containsExactly("MCH-0998", "MCH-0997", "MCH-0996");
+
+        service.getKpis(FROM, TO);
+        assertThat(summaryCalls).hasValue(2 * MERCHANTS);
+    }
+}
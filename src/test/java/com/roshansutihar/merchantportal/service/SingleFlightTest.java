@@ -0,0 +1,72 @@
+package com.roshansutihar.merchantportal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    @Test
+    void concurrentCallersForTheSameKeyShareOneCall() throws Exception {
+        SingleFlight<String> flights = new SingleFlight<>();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> flights.execute("MCH-1 today", () -> {
+                    upstreamCalls.incrementAndGet();
+                    await(release);
+                    return "rows";
+                })));
+            }
+            // Let every caller arrive while the first call is still in flight
+            while ((long) flights.stats().get("collapsed") < CALLERS - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("rows");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(flights.stats()).containsEntry("executed", 1L).containsEntry("collapsed", (long) CALLERS - 1);
+    }
+
+    @Test
+    void failuresAreSharedAndTheNextCallStartsFresh() {
+        SingleFlight<String> flights = new SingleFlight<>();
+
+        assertThatThrownBy(() -> flights.execute("k", () -> {
+            throw new IllegalStateException("core down");
+        })).hasMessage("core down");
+
+        assertThat(flights.<String>execute("k", () -> "ok")).isEqualTo("ok");
+        assertThat(flights.stats()).containsEntry("executed", 2L).containsEntry("inFlight", 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.repository.SiteIdBlockWriter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SiteIdAllocatorTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(10);
+    private static final int DECILE = SiteIdAllocator.MAX_SITE_ID / 10;
+
+    @Test
+    void allocatesTheWholeIdSpaceAtAFlatCost() {
+        InMemoryBlocks blocks = new InMemoryBlocks();
+        SiteIdAllocator allocator = new SiteIdAllocator(blocks, LEASE);
+
+        Set<String> issued = new HashSet<>();
+        long[] nanos = new long[10];
+        int[] claims = new int[10];
+        for (int decile = 0; decile < 10; decile++) {
+            int claimsBefore = blocks.claims.get();
+            long started = System.nanoTime();
+            int count = decile < 9 ? DECILE : SiteIdAllocator.MAX_SITE_ID - 9 * DECILE;
+            for (int i = 0; i < count; i++) {
+                String siteId = allocator.allocate();
+                assertThat(issued.add(siteId)).as("issued twice: %s", siteId).isTrue();
+                blocks.register(siteId);
+            }
+            nanos[decile] = System.nanoTime() - started;
+            claims[decile] = blocks.claims.get() - claimsBefore;
+        }
+
+        assertThat(issued).hasSize(SiteIdAllocator.MAX_SITE_ID)
+                .allMatch(id -> id.length() == 5 && !id.equals("00000"));
+        assertThatThrownBy(allocator::allocate).isInstanceOf(IllegalStateException.class);
+
+        // The database is asked once per block however full the space is, where random probing needs ever more
+        // existsBySiteId round trips as it fills
+        for (int decile = 0; decile < 10; decile++) {
+            assertThat(claims[decile]).as("claims in decile %d", decile)
+                    .isLessThanOrEqualTo(DECILE / SiteIdAllocator.BLOCK_SIZE + 1);
+        }
+        // Generous bound against timing noise; probing slows down by orders of magnitude over the last decile
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long median = sorted[5];
+        assertThat(nanos[9]).as("last decile vs median decile (ns): %s", Arrays.toString(nanos))
+                .isLessThan(median * 5 + Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void instancesSharingTheBlocksNeverIssueTheSameId() throws Exception {
+        InMemoryBlocks blocks = new InMemoryBlocks();
+        List<SiteIdAllocator> instances = List.of(
+                new SiteIdAllocator(blocks, LEASE), new SiteIdAllocator(blocks, LEASE));
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                SiteIdAllocator allocator = instances.get(t % 2);
+                workers.add(pool.submit(() -> {
+                    while (true) {
+                        String siteId;
+                        try {
+                            siteId = allocator.allocate();
+                        } catch (IllegalStateException e) {
+                            return;
+                        }
+                        if (!issued.add(siteId)) {
+                            duplicates.incrementAndGet();
+                        }
+                        blocks.register(siteId);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(duplicates.get()).isZero();
+        assertThat(issued).hasSize(SiteIdAllocator.MAX_SITE_ID);
+    }
+
+    @Test
+    void idsLeftInAnAbandonedBlockAreIssuedAfterTheLease() throws Exception {
+        Duration lease = Duration.ofSeconds(1);
+        InMemoryBlocks blocks = new InMemoryBlocks();
+        SiteIdAllocator crashed = new SiteIdAllocator(blocks, lease);
+        // Issued and registered, issued but never registered, and never issued
+        String registered = crashed.allocate();
+        blocks.register(registered);
+        String abandoned = crashed.allocate();
+        int block = Integer.parseInt(registered) / SiteIdAllocator.BLOCK_SIZE;
+
+        SiteIdAllocator other = new SiteIdAllocator(blocks, lease);
+        Set<String> fromBlock = new HashSet<>();
+        // While the lease lasts the other instance takes different blocks
+        for (int i = 0; i < 3 * SiteIdAllocator.BLOCK_SIZE; i++) {
+            String siteId = other.allocate();
+            assertThat(Integer.parseInt(siteId) / SiteIdAllocator.BLOCK_SIZE).isNotEqualTo(block);
+            blocks.register(siteId);
+        }
+
+        // Claims go in block order, so once the lease has run out the abandoned block is the first claimable one
+        Thread.sleep(lease.toMillis() + 100);
+        SiteIdAllocator restarted = new SiteIdAllocator(blocks, lease);
+        for (int i = 0; i < SiteIdAllocator.BLOCK_SIZE; i++) {
+            String siteId = restarted.allocate();
+            if (Integer.parseInt(siteId) / SiteIdAllocator.BLOCK_SIZE == block) {
+                fromBlock.add(siteId);
+            }
+        }
+        assertThat(fromBlock).doesNotContain(registered).contains(abandoned)
+                .hasSize(SiteIdAllocator.BLOCK_SIZE - (block == 0 ? 2 : 1));
+    }
+
+    // site_id_blocks and merchants.site_id the way SiteIdBlockWriter's SQL sees them
+    private static final class InMemoryBlocks extends SiteIdBlockWriter {
+
+        private final List<Integer> order = new ArrayList<>();
+        private final long[] claimedAt = new long[1000];
+        private final boolean[] exhausted = new boolean[1000];
+        private final Set<String> merchants = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger claims = new AtomicInteger();
+
+        private InMemoryBlocks() {
+            super(null);
+            for (int block = 0; block < 1000; block++) {
+                order.add(block);
+                claimedAt[block] = Long.MIN_VALUE;
+            }
+            Collections.shuffle(order, new Random(25));
+        }
+
+        void register(String siteId) {
+            merchants.add(siteId);
+        }
+
+        @Override
+        public synchronized Integer claim(Duration lease) {
+            claims.incrementAndGet();
+            long now = System.nanoTime();
+            for (int block : order) {
+                boolean claimable = claimedAt[block] == Long.MIN_VALUE || now - claimedAt[block] > lease.toNanos();
+                if (!exhausted[block] && claimable) {
+                    claimedAt[block] = now;
+                    return block;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<String> usedBetween(String firstSiteId, String lastSiteId) {
+            // An index range scan: cost follows the range, not the number of merchants
+            List<String> used = new ArrayList<>();
+            for (int number = Integer.parseInt(firstSiteId); number <= Integer.parseInt(lastSiteId); number++) {
+                String siteId = SiteIdAllocator.format(number);
+                if (merchants.contains(siteId)) {
+                    used.add(siteId);
+                }
+            }
+            return used;
+        }
+
+        @Override
+        public synchronized void markExhausted(int block) {
+            exhausted[block] = true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummaryCacheTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 31);
+
+    @Test
+    void closedRangeIsReloadedOnceTheMerchantsRollupsChange() {
+        AtomicInteger count = new AtomicInteger(10);
+        AtomicInteger loads = new AtomicInteger();
+        DailyRollupService rollups = new DailyRollupService(null, null, null) {
+            @Override
+            public Optional<SummaryResponse> summarize(String merchantId, LocalDate from, LocalDate to) {
+                loads.incrementAndGet();
+                SummaryResponse summary = new SummaryResponse();
+                summary.setMerchantId(merchantId);
+                summary.setTotalTransactions((long) count.get());
+                return Optional.of(summary);
+            }
+        };
+        SummaryCache cache = new SummaryCache(null, rollups, 100, Duration.ofHours(1), Duration.ofSeconds(30), 100,
+                Duration.ZERO);
+
+        assertThat(cache.getSummary("MCH-1", FROM, TO).getTotalTransactions()).isEqualTo(10L);
+        assertThat(cache.getSummary("MCH-1", FROM, TO).getTotalTransactions()).isEqualTo(10L);
+        assertThat(loads.get()).isEqualTo(1);
+
+        // A late settlement rebuilt one of the closed days
+        count.set(11);
+        rollups.changed("MCH-1");
+        assertThat(cache.getSummary("MCH-1", FROM, TO).getTotalTransactions()).isEqualTo(11L);
+        assertThat(loads.get()).isEqualTo(2);
+
+        // Other merchants keep their entries
+        cache.getSummary("MCH-2", FROM, TO);
+        rollups.changed("MCH-1");
+        cache.getSummary("MCH-2", FROM, TO);
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void statusTotalsAreTotalledOncePerStatusUntilTheRollupsChange() {
+        DailyRollupService rollups = new DailyRollupService(null, null, null);
+        SummaryCache cache = new SummaryCache(null, rollups, 100, Duration.ofHours(1), Duration.ofSeconds(30), 100,
+                Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        BiFunction<LocalDate, LocalDate, SummaryResponse> loader = (from, to) -> {
+            loads.incrementAndGet();
+            SummaryResponse summary = new SummaryResponse();
+            summary.setTotalTransactions(4L);
+            return summary;
+        };
+
+        // Every page of the same filtered range
+        for (int page = 0; page < 5; page++) {
+            assertThat(cache.getStatusSummary("MCH-1", FROM, TO, "SETTLED", loader).getTotalTransactions())
+                    .isEqualTo(4L);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.getStatusSummary("MCH-1", FROM, TO, "FAILED", loader);
+        assertThat(loads.get()).isEqualTo(2);
+
+        rollups.changed("MCH-1");
+        cache.getStatusSummary("MCH-1", FROM, TO, "SETTLED", loader);
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void closedRangesExpireWithoutAnyChange() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        DailyRollupService rollups = new DailyRollupService(null, null, null) {
+            @Override
+            public Optional<SummaryResponse> summarize(String merchantId, LocalDate from, LocalDate to) {
+                loads.incrementAndGet();
+                return Optional.of(new SummaryResponse());
+            }
+        };
+        SummaryCache cache = new SummaryCache(null, rollups, 100, Duration.ofMillis(50), Duration.ofSeconds(30), 100,
+                Duration.ZERO);
+
+        cache.getSummary("MCH-1", FROM, TO);
+        Thread.sleep(100);
+        cache.getSummary("MCH-1", FROM, TO);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
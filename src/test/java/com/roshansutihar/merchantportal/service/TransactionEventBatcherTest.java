@@ -0,0 +1,106 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.TransactionEventResult;
+import com.roshansutihar.merchantportal.repository.TransactionEventWriter;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.request.TransactionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionEventBatcherTest {
+
+    private static final int DELIVERIES = 10;
+
+    @Test
+    void deliveriesArrivingDuringACommitShareTheNextOne() throws Exception {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        AtomicInteger commits = new AtomicInteger();
+        // Applies events whose reference starts with "new", like a writer that has already seen the others
+        TransactionEventWriter writer = new TransactionEventWriter(null) {
+            @Override
+            public Map<String, boolean[]> apply(Map<String, List<TransactionEvent>> eventsByMerchant) {
+                if (commits.incrementAndGet() == 1) {
+                    firstWriteStarted.countDown();
+                    await(releaseFirstWrite);
+                }
+                Map<String, boolean[]> applied = new HashMap<>();
+                eventsByMerchant.forEach((merchantId, events) -> {
+                    boolean[] flags = new boolean[events.size()];
+                    for (int i = 0; i < flags.length; i++) {
+                        flags[i] = events.get(i).getTransaction().getTransactionRef().startsWith("new");
+                    }
+                    applied.put(merchantId, flags);
+                });
+                return applied;
+            }
+        };
+        TransactionEventBatcher batcher = new TransactionEventBatcher(writer, new DailyRollupService(null, null, null),
+                5000, Duration.ofSeconds(5));
+
+        ExecutorService pool = Executors.newFixedThreadPool(DELIVERIES + 1);
+        try {
+            Future<TransactionEventResult> first = pool.submit(() -> batcher.submit("MCH-1", events("new-0")));
+            assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<TransactionEventResult>> queued = new ArrayList<>();
+            for (int i = 1; i <= DELIVERIES; i++) {
+                String ref = "new-" + i;
+                queued.add(pool.submit(() -> batcher.submit("MCH-1", events(ref, "seen-" + ref, "seen-" + ref))));
+            }
+            while ((int) batcher.stats().get("queued") < DELIVERIES) {
+                Thread.onSpinWait();
+            }
+            releaseFirstWrite.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(new TransactionEventResult(1, 1, 0));
+            // Same merchant in one commit: each delivery still gets the flags of its own events
+            for (Future<TransactionEventResult> result : queued) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(new TransactionEventResult(3, 1, 2));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(commits).hasValue(2);
+        assertThat(batcher.stats())
+                .containsEntry("deliveries", (long) DELIVERIES + 1)
+                .containsEntry("commits", 2L)
+                .containsEntry("largestCommitEvents", 3L * DELIVERIES);
+    }
+
+    private static List<TransactionEvent> events(String... refs) {
+        List<TransactionEvent> events = new ArrayList<>();
+        for (String ref : refs) {
+            Transaction tx = new Transaction();
+            tx.setTransactionRef(ref);
+            TransactionEvent event = new TransactionEvent();
+            event.setOccurredAt(Instant.now());
+            event.setTransaction(tx);
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
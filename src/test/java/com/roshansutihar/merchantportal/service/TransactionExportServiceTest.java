@@ -0,0 +1,62 @@
+package com.roshansutihar.merchantportal.service;
+
+import com.roshansutihar.merchantportal.dto.ExportFormat;
+import com.roshansutihar.merchantportal.request.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionExportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @Test
+    void csvWritesPlainAmountsAndOneTimestampShape() throws Exception {
+        Transaction large = transaction("TX-1", 12345678.9, LocalDateTime.of(2025, 3, 14, 18, 30));
+        large.setCommissionAmount(370370.37);
+        large.setNetAmount(11975308.53);
+        large.setCompletedAt(LocalDateTime.of(2025, 3, 14, 18, 30, 5, 250_000_000));
+        Transaction small = transaction("TX-2", 0.1, LocalDateTime.of(2025, 3, 14, 9, 5, 7));
+
+        assertThat(exportCsv(List.of(large, small))).containsExactly(
+                "created_at,transaction_ref,amount,commission_amount,net_amount,currency,status,completed_at,"
+                        + "settlement_date",
+                "2025-03-14T18:30:00,TX-1,12345678.9,370370.37,11975308.53,USD,SETTLED,2025-03-14T18:30:05,",
+                "2025-03-14T09:05:07,TX-2,0.1,,,USD,SETTLED,,");
+    }
+
+    private static List<String> exportCsv(List<Transaction> rows) throws Exception {
+        TransactionQueryService query = new TransactionQueryService(null, null, null, null) {
+            @Override
+            public void forEachTransaction(String merchantId, LocalDate from, LocalDate to, String status,
+                                           int pageSize, Consumer<Transaction> sink) {
+                rows.forEach(sink);
+            }
+        };
+        TransactionExportService export = new TransactionExportService(query, null);
+        ReflectionTestUtils.setField(export, "pageSize", 100);
+        ReflectionTestUtils.setField(export, "flushEvery", 1);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.export("MCH-1", DAY, DAY, null, ExportFormat.CSV, false, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static Transaction transaction(String ref, double amount, LocalDateTime createdAt) {
+        Transaction tx = new Transaction();
+        tx.setTransactionRef(ref);
+        tx.setAmount(amount);
+        tx.setCurrency("USD");
+        tx.setStatus("SETTLED");
+        tx.setCreatedAt(createdAt);
+        return tx;
+    }
+}
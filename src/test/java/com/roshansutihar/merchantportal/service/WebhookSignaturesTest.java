@@ -0,0 +1,43 @@
+package com.roshansutihar.merchantportal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookSignaturesTest {
+
+    private static final Duration TOLERANCE = Duration.ofMinutes(5);
+    private static final byte[] BODY = "{\"events\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void acceptsOnlyTheUnchangedBodySignedWithTheDerivedKeyWithinTheTolerance() {
+        String key = WebhookSignatures.signingKey("sk_live_0123456789abcdef");
+        Instant now = Instant.ofEpochSecond(1_700_000_000L);
+        String timestamp = Long.toString(now.getEpochSecond());
+        String signature = WebhookSignatures.sign(key, now.getEpochSecond(), BODY);
+
+        assertThat(WebhookSignatures.verify(key, timestamp, signature, BODY, TOLERANCE, now)).isTrue();
+        assertThat(WebhookSignatures.verify(key, timestamp, signature,
+                "{\"events\":[{}]}".getBytes(StandardCharsets.UTF_8), TOLERANCE, now)).isFalse();
+        assertThat(WebhookSignatures.verify(WebhookSignatures.signingKey("another secret"), timestamp, signature,
+                BODY, TOLERANCE, now)).isFalse();
+        assertThat(WebhookSignatures.verify(key, timestamp, signature, BODY, TOLERANCE,
+                now.plus(TOLERANCE).plusSeconds(1))).isFalse();
+        assertThat(WebhookSignatures.verify(null, timestamp, signature, BODY, TOLERANCE, now)).isFalse();
+    }
+
+    @Test
+    void signingKeyIsStableAndDoesNotContainTheSecret() {
+        String secret = "sk_live_0123456789abcdef";
+
+        assertThat(WebhookSignatures.signingKey(secret))
+                .isEqualTo(WebhookSignatures.signingKey(secret))
+                .hasSize(64)
+                .doesNotContain("0123456789abcdef");
+        assertThat(WebhookSignatures.signingKey(null)).isNull();
+    }
+}
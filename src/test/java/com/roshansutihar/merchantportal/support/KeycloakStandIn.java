@@ -0,0 +1,249 @@
+package com.roshansutihar.merchantportal.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Minimal in-process Keycloak realm: OIDC discovery, JWKS, an authorization endpoint that signs in whoever
+// is named in login_hint without a login form, the token endpoint (authorization_code and client_credentials)
+// and the three admin calls KeycloakAdminService makes. Tokens are RS256 JWTs carrying realm_access.roles
+// and preferred_username, like the real realm. Users must be added before they can sign in.
+public class KeycloakStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+    private final String realm;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RSAKey signingKey;
+    // username -> realm role
+    private final Map<String, String> users = new ConcurrentHashMap<>();
+    private final Map<String, PendingCode> codes = new ConcurrentHashMap<>();
+    private volatile Duration latency = Duration.ZERO;
+
+    private KeycloakStandIn(HttpServer server, String realm) throws JOSEException {
+        this.server = server;
+        this.realm = realm;
+        this.signingKey = new RSAKeyGenerator(2048).keyID("stand-in").generate();
+    }
+
+    public static KeycloakStandIn start(String realm) throws IOException, JOSEException {
+        KeycloakStandIn standIn = new KeycloakStandIn(
+                HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0), realm);
+        standIn.server.createContext("/realms/" + realm, standIn::handleRealm);
+        standIn.server.createContext("/admin/realms/" + realm, standIn::handleAdmin);
+        standIn.server.setExecutor(standIn.executor);
+        standIn.server.start();
+        return standIn;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String issuerUri() {
+        return baseUrl() + "/realms/" + realm;
+    }
+
+    public void addUser(String username, String role) {
+        users.put(username, role);
+    }
+
+    // Delay before every response
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleRealm(HttpExchange exchange) throws IOException {
+        delay();
+        String path = exchange.getRequestURI().getPath().substring(("/realms/" + realm).length());
+        switch (path) {
+            case "/.well-known/openid-configuration" -> sendJson(exchange, 200, discovery());
+            case "/protocol/openid-connect/certs" ->
+                    sendJson(exchange, 200, new JWKSet(signingKey.toPublicJWK()).toJSONObject());
+            case "/protocol/openid-connect/auth" -> authorize(exchange);
+            case "/protocol/openid-connect/token" -> token(exchange);
+            default -> sendJson(exchange, 404, Map.of("error", "not_found"));
+        }
+    }
+
+    // No userinfo endpoint is advertised, so the client takes the user from the ID token alone
+    private Map<String, Object> discovery() {
+        String issuer = issuerUri();
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("issuer", issuer);
+        metadata.put("authorization_endpoint", issuer + "/protocol/openid-connect/auth");
+        metadata.put("token_endpoint", issuer + "/protocol/openid-connect/token");
+        metadata.put("jwks_uri", issuer + "/protocol/openid-connect/certs");
+        metadata.put("end_session_endpoint", issuer + "/protocol/openid-connect/logout");
+        metadata.put("response_types_supported", List.of("code"));
+        metadata.put("subject_types_supported", List.of("public"));
+        metadata.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        metadata.put("grant_types_supported", List.of("authorization_code", "client_credentials"));
+        metadata.put("token_endpoint_auth_methods_supported",
+                List.of("client_secret_basic", "client_secret_post", "none"));
+        metadata.put("scopes_supported", List.of("openid", "profile", "roles"));
+        return metadata;
+    }
+
+    private void authorize(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+        String username = query.get("login_hint");
+        if (username == null || !users.containsKey(username)) {
+            sendJson(exchange, 400, Map.of("error", "unknown user " + username));
+            return;
+        }
+        String code = UUID.randomUUID().toString();
+        codes.put(code, new PendingCode(username, query.get("client_id"), query.get("nonce")));
+        String redirect = query.get("redirect_uri")
+                + (query.get("redirect_uri").contains("?") ? "&" : "?")
+                + "code=" + code
+                + "&state=" + URLEncoder.encode(query.getOrDefault("state", ""), StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Location", redirect);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        Map<String, String> form =
+                parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            if ("authorization_code".equals(form.get("grant_type"))) {
+                PendingCode pending = codes.remove(form.getOrDefault("code", ""));
+                if (pending == null) {
+                    sendJson(exchange, 400, Map.of("error", "invalid_grant"));
+                    return;
+                }
+                response.put("access_token", sign(pending.username(), pending.clientId(), null));
+                response.put("id_token", sign(pending.username(), pending.clientId(), pending.nonce()));
+                response.put("scope", "openid profile roles");
+            } else if ("client_credentials".equals(form.get("grant_type"))) {
+                String clientId = form.getOrDefault("client_id", "admin-cli");
+                response.put("access_token", sign("service-account-" + clientId, clientId, null));
+            } else {
+                sendJson(exchange, 400, Map.of("error", "unsupported_grant_type"));
+                return;
+            }
+        } catch (JOSEException e) {
+            throw new IOException(e);
+        }
+        response.put("token_type", "Bearer");
+        response.put("expires_in", 3600);
+        sendJson(exchange, 200, response);
+    }
+
+    private String sign(String username, String clientId, String nonce) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .issuer(issuerUri())
+                .subject(UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8)).toString())
+                .audience(clientId)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)))
+                .claim("azp", clientId)
+                .claim("preferred_username", username)
+                .claim("realm_access", Map.of("roles", List.of(users.getOrDefault(username, "service"))));
+        if (nonce != null) {
+            claims.claim("nonce", nonce);
+        }
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims.build());
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    // POST users, GET roles/{name}, POST users/{id}/role-mappings/realm
+    private void handleAdmin(HttpExchange exchange) throws IOException {
+        delay();
+        String path = exchange.getRequestURI().getPath().substring(("/admin/realms/" + realm).length());
+        String method = exchange.getRequestMethod();
+        if ("POST".equals(method) && path.equals("/users")) {
+            Map<?, ?> user = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+            String username = String.valueOf(user.get("username"));
+            users.putIfAbsent(username, "merchant");
+            exchange.getResponseHeaders().add("Location", exchange.getRequestURI() + "/" + UUID.randomUUID());
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        } else if ("GET".equals(method) && path.startsWith("/roles/")) {
+            String role = path.substring("/roles/".length());
+            String id = UUID.nameUUIDFromBytes(role.getBytes(StandardCharsets.UTF_8)).toString();
+            sendJson(exchange, 200, Map.of("id", id, "name", role));
+        } else if ("POST".equals(method) && path.endsWith("/role-mappings/realm")) {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        } else {
+            sendJson(exchange, 404, Map.of("error", "not_found"));
+        }
+    }
+
+    private void delay() {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> values = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return values;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private record PendingCode(String username, String clientId, String nonce) {
+    }
+}
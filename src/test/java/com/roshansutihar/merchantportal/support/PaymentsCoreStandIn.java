@@ -0,0 +1,254 @@
+package com.roshansutihar.merchantportal.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roshansutihar.merchantportal.dto.TransactionCursor;
+import com.roshansutihar.merchantportal.request.Transaction;
+import com.roshansutihar.merchantportal.response.SummaryResponse;
+import com.roshansutihar.merchantportal.response.TransactionResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal in-process payments core serving the transaction, summary and merchant-id endpoints ApiService calls.
+// Latency, failures and slow responses can be injected for benchmarks and the load test.
+public class PaymentsCoreStandIn implements AutoCloseable {
+
+    private static final String TRANSACTIONS_PATH = "/api/v1/transactions/merchant/";
+    private static final String MERCHANT_IDS_PATH = "/api/v1/merchants/ids";
+
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final Map<String, List<Transaction>> transactions = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean honourPaging = true;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile boolean etags;
+    private volatile double errorRate;
+    private volatile double slowRate;
+    private volatile Duration slowLatency = Duration.ZERO;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+    private PaymentsCoreStandIn(HttpServer server) {
+        this.server = server;
+    }
+
+    public static PaymentsCoreStandIn start() throws IOException {
+        PaymentsCoreStandIn standIn = new PaymentsCoreStandIn(HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0));
+        standIn.server.createContext(TRANSACTIONS_PATH, standIn::handle);
+        standIn.server.createContext(MERCHANT_IDS_PATH, standIn::handleMerchantIds);
+        // A virtual thread per exchange: added latency overlaps across callers and the stand-in
+        // doesn't inflate the platform thread counts the benchmarks report
+        standIn.server.setExecutor(standIn.executor);
+        standIn.server.start();
+        return standIn;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void addTransactions(String merchantId, List<Transaction> rows) {
+        transactions.computeIfAbsent(merchantId, id -> new CopyOnWriteArrayList<>()).addAll(rows);
+    }
+
+    // When false the stand-in ignores cursor/size and returns the whole range, like an older core
+    public void setHonourPaging(boolean honourPaging) {
+        this.honourPaging = honourPaging;
+    }
+
+    // Delay before every response, to stand in for a slow core
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    // Fraction of requests answered with a 503, like a core under strain
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    // Fraction of requests that take `slowLatency` on top of the normal latency
+    public void setSlowResponses(double slowRate, Duration slowLatency) {
+        this.slowRate = slowRate;
+        this.slowLatency = slowLatency;
+    }
+
+    // When true responses carry an ETag over the body and a matching If-None-Match gets an empty 304
+    public void setEtags(boolean etags) {
+        this.etags = etags;
+    }
+
+    public int fullResponses() {
+        return fullResponses.get();
+    }
+
+    public int notModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (delayOrFail(exchange)) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath().substring(TRANSACTIONS_PATH.length());
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        boolean summary = path.endsWith("/summary");
+        String merchantId = summary ? path.substring(0, path.length() - "/summary".length()) : path;
+
+        List<Transaction> rows = inRange(merchantId, query);
+        Object body = summary ? summarize(merchantId, rows) : page(merchantId, rows, query);
+
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        if (etags) {
+            String etag = etag(bytes);
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        fullResponses.incrementAndGet();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handleMerchantIds(HttpExchange exchange) throws IOException {
+        if (delayOrFail(exchange)) {
+            return;
+        }
+        byte[] bytes = objectMapper.writeValueAsBytes(new ArrayList<>(transactions.keySet()));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Applies the configured latency and injected faults; true when the exchange was answered with an error
+    private boolean delayOrFail(HttpExchange exchange) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Duration delay = slowRate > 0 && random.nextDouble() < slowRate ? latency.plus(slowLatency) : latency;
+        if (!delay.isZero()) {
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return true;
+        }
+        return false;
+    }
+
+    private List<Transaction> inRange(String merchantId, Map<String, String> query) {
+        LocalDateTime from = LocalDateTime.parse(query.get("from"));
+        LocalDateTime to = LocalDateTime.parse(query.get("to"));
+        String status = query.get("status");
+        List<Transaction> rows = new ArrayList<>();
+        for (Transaction tx : transactions.getOrDefault(merchantId, List.of())) {
+            if (tx.getCreatedAt().isBefore(from) || tx.getCreatedAt().isAfter(to)) {
+                continue;
+            }
+            if (status != null && !status.equals(tx.getStatus())) {
+                continue;
+            }
+            rows.add(tx);
+        }
+        return rows;
+    }
+
+    private TransactionResponse page(String merchantId, List<Transaction> rows, Map<String, String> query) {
+        rows.sort(TransactionCursor.NEWEST_FIRST);
+        if (honourPaging && query.containsKey("size")) {
+            int size = Integer.parseInt(query.get("size"));
+            TransactionCursor cursor = TransactionCursor.decode(query.get("cursor"));
+            boolean backwards = "prev".equals(query.get("direction"));
+            if (cursor != null) {
+                rows.removeIf(tx -> backwards ? cursor.positionOf(tx) >= 0 : cursor.positionOf(tx) <= 0);
+            }
+            if (rows.size() > size) {
+                rows = backwards ? rows.subList(rows.size() - size, rows.size()) : rows.subList(0, size);
+            }
+        }
+
+        TransactionResponse response = new TransactionResponse();
+        response.setMerchantId(merchantId);
+        response.setTransactions(new ArrayList<>(rows));
+        response.setTotalCount((long) rows.size());
+        response.setTotalAmount(rows.stream().mapToDouble(Transaction::getAmount).sum());
+        return response;
+    }
+
+    private SummaryResponse summarize(String merchantId, List<Transaction> rows) {
+        SummaryResponse summary = new SummaryResponse();
+        summary.setMerchantId(merchantId);
+        summary.setTotalTransactions((long) rows.size());
+        summary.setTotalAmount(rows.stream().mapToDouble(Transaction::getAmount).sum());
+        summary.setTotalCommission(rows.stream().mapToDouble(Transaction::getCommissionAmount).sum());
+        summary.setTotalNetAmount(rows.stream().mapToDouble(Transaction::getNetAmount).sum());
+        return summary;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            return '"' + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+}
@@ -0,0 +1,43 @@
+package com.roshansutihar.merchantportal.support;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+// A throwaway schema with every Flyway migration applied, on the Postgres named by POSTGRES_URL/USERNAME/PASSWORD
+// (the same variables the portal and the load test use). Tests that need one are skipped when POSTGRES_URL is unset.
+public final class PostgresSchema implements AutoCloseable {
+
+    private final String schema;
+    private final JdbcTemplate jdbcTemplate;
+
+    private PostgresSchema(String schema, JdbcTemplate jdbcTemplate) {
+        this.schema = schema;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static PostgresSchema create() {
+        String schema = "test_" + UUID.randomUUID().toString().replace("-", "");
+        // currentSchema keeps public on the path, where extensions such as pg_trgm usually live
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                withSchema(System.getenv("POSTGRES_URL"), schema),
+                System.getenv("POSTGRES_USERNAME"), System.getenv("POSTGRES_PASSWORD"));
+        Flyway.configure().dataSource(dataSource).schemas(schema).load().migrate();
+        return new PostgresSchema(schema, new JdbcTemplate(dataSource));
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    @Override
+    public void close() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+    }
+
+    private static String withSchema(String url, String schema) {
+        return url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema + ",public";
+    }
+}